@@ -0,0 +1,44 @@
+package com.yunzhitx.java8.learning.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ClassName: AsyncCacheLoader <br/>
+ * Description: 异步缓存加载器<br/>
+ * date: 2026/10/20 9:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+@FunctionalInterface
+public interface AsyncCacheLoader<K, V> {
+
+    /**
+     * 异步加载单个key
+     *
+     * @param key key
+     * @return 加载结果，值不能为null
+     */
+    CompletableFuture<V> load(K key);
+
+    /**
+     * 异步批量加载，默认逐个调用load；后端支持批量查询时应覆盖此方法。
+     * 返回的Map中没有的key视为不存在，不会被缓存
+     *
+     * @param keys 需要加载的key
+     * @return key到值的映射
+     */
+    default CompletableFuture<Map<K, V>> loadAll(Set<? extends K> keys) {
+        final Map<K, CompletableFuture<V>> futures = new HashMap<>();
+        keys.forEach(key -> futures.put(key, load(key)));
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    final Map<K, V> result = new HashMap<>();
+                    futures.forEach((key, future) -> result.put(key, future.join()));
+                    return result;
+                });
+    }
+}
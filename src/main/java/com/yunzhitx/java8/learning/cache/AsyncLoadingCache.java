@@ -0,0 +1,249 @@
+package com.yunzhitx.java8.learning.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ClassName: AsyncLoadingCache <br/>
+ * Description: 值为CompletableFuture的异步加载缓存。<br/>
+ * 与MapEnhancement中computeIfAbsent的同步写法相比，缓存的是加载中的future本身，
+ * 同一个key的并发未命中共享同一次加载；加载失败的future会被移除，下次访问重新加载。<br/>
+ * 可选的refreshAfterWrite：写入超过指定时间后再次访问时，先返回旧值，同时在后台重新加载。<br/>
+ * date: 2026/10/20 9:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class AsyncLoadingCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+
+    private final AsyncCacheLoader<K, V> loader;
+
+    private final Clock clock;
+
+    /**
+     * 小于等于0表示不刷新
+     */
+    private final long refreshAfterWriteMillis;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loadSuccesses = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private AsyncLoadingCache(AsyncCacheLoader<K, V> loader, Clock clock, Duration refreshAfterWrite) {
+        this.loader = Objects.requireNonNull(loader);
+        this.clock = Objects.requireNonNull(clock);
+        this.refreshAfterWriteMillis = refreshAfterWrite == null ? 0 : refreshAfterWrite.toMillis();
+    }
+
+    /**
+     * 创建不刷新的缓存
+     */
+    public static <K, V> AsyncLoadingCache<K, V> of(AsyncCacheLoader<K, V> loader) {
+        return new AsyncLoadingCache<>(loader, Clock.systemUTC(), null);
+    }
+
+    /**
+     * 创建写入超过refreshAfterWrite后在后台刷新的缓存
+     *
+     * @param loader            加载器
+     * @param refreshAfterWrite 写入多久之后需要刷新
+     * @param clock             时间来源，测试时可以使用Clock.fixed/Clock.offset
+     */
+    public static <K, V> AsyncLoadingCache<K, V> refreshing(AsyncCacheLoader<K, V> loader, Duration refreshAfterWrite,
+                                                            Clock clock) {
+        return new AsyncLoadingCache<>(loader, clock, refreshAfterWrite);
+    }
+
+    /**
+     * 获取缓存值，未命中时加载；同一个key的并发调用共享同一次加载。
+     * 返回的是缓存中future的依赖副本，调用方对它complete、cancel或者orTimeout不影响缓存的entry
+     */
+    public CompletableFuture<V> get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry != null) {
+            hits.increment();
+            refreshIfNeeded(key, entry);
+            return entry.copy();
+        }
+        final Entry<V> created = new Entry<>(new CompletableFuture<>(), clock.millis());
+        entry = map.computeIfAbsent(key, k -> created);
+        if (entry != created) {
+            hits.increment();
+            return entry.copy();
+        }
+        misses.increment();
+        removeOnFailure(key, created);
+        final CompletableFuture<V> loading;
+        try {
+            loading = loader.load(key);
+        } catch (Throwable ex) {
+            loadFailed(key, created, ex);
+            return created.copy();
+        }
+        loading.whenComplete((value, ex) -> {
+            if (ex != null || value == null) {
+                loadFailed(key, created, ex != null ? ex : new NullPointerException("loader returned null for " + key));
+            } else {
+                loadSuccesses.increment();
+                created.future.complete(value);
+            }
+        });
+        return created.copy();
+    }
+
+    /**
+     * 批量获取，所有未命中的key合并为一次loadAll调用；加载结果中没有的key不出现在返回的Map中
+     */
+    public CompletableFuture<Map<K, V>> getAll(Collection<? extends K> keys) {
+        final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        final Map<K, Entry<V>> toLoad = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (futures.containsKey(key)) {
+                continue;
+            }
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                final Entry<V> created = new Entry<>(new CompletableFuture<>(), clock.millis());
+                entry = map.computeIfAbsent(key, k -> created);
+                if (entry == created) {
+                    removeOnFailure(key, created);
+                    toLoad.put(key, created);
+                }
+            }
+            if (!toLoad.containsKey(key)) {
+                hits.increment();
+                refreshIfNeeded(key, entry);
+            }
+            futures.put(key, entry.future);
+        }
+        if (!toLoad.isEmpty()) {
+            misses.add(toLoad.size());
+            loadBatch(toLoad);
+        }
+        final CompletableFuture<?>[] all = futures.values().toArray(new CompletableFuture[0]);
+        // 单个key加载失败不影响其它key
+        return CompletableFuture.allOf(Arrays.stream(all).map(f -> f.handle((v, ex) -> v)).toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    final Map<K, V> result = new LinkedHashMap<>();
+                    futures.forEach((key, future) -> {
+                        if (!future.isCompletedExceptionally()) {
+                            result.put(key, future.join());
+                        }
+                    });
+                    return result;
+                });
+    }
+
+    /**
+     * 移除缓存
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), 0);
+    }
+
+    private void loadBatch(Map<K, Entry<V>> toLoad) {
+        final CompletableFuture<Map<K, V>> loading;
+        try {
+            loading = loader.loadAll(Collections.unmodifiableSet(toLoad.keySet()));
+        } catch (Throwable ex) {
+            toLoad.forEach((key, entry) -> loadFailed(key, entry, ex));
+            return;
+        }
+        loading.whenComplete((values, ex) -> toLoad.forEach((key, entry) -> {
+            final V value = ex == null && values != null ? values.get(key) : null;
+            if (value != null) {
+                loadSuccesses.increment();
+                entry.future.complete(value);
+            } else {
+                loadFailed(key, entry, ex != null ? ex : new NoSuchElementException("no value loaded for " + key));
+            }
+        }));
+    }
+
+    private void loadFailed(K key, Entry<V> entry, Throwable ex) {
+        loadFailures.increment();
+        // 只移除自己这个entry，避免误删其它线程已经重新放入的值
+        map.remove(key, entry);
+        entry.future.completeExceptionally(ex);
+    }
+
+    /**
+     * 存放的future无论因为什么异常结束，都移除这个entry，下次访问重新加载
+     */
+    private void removeOnFailure(K key, Entry<V> entry) {
+        entry.future.whenComplete((value, ex) -> {
+            if (ex != null) {
+                map.remove(key, entry);
+            }
+        });
+    }
+
+    private void refreshIfNeeded(K key, Entry<V> entry) {
+        if (refreshAfterWriteMillis <= 0 || !entry.future.isDone() || entry.future.isCompletedExceptionally()) {
+            return;
+        }
+        final long now = clock.millis();
+        if (now - entry.writeTime < refreshAfterWriteMillis || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        final CompletableFuture<V> loading;
+        try {
+            loading = loader.load(key);
+        } catch (Throwable ex) {
+            loadFailures.increment();
+            entry.refreshing.set(false);
+            return;
+        }
+        loading.whenComplete((value, ex) -> {
+            if (ex != null || value == null) {
+                // 刷新失败继续使用旧值，下次访问再尝试
+                loadFailures.increment();
+                entry.refreshing.set(false);
+            } else {
+                loadSuccesses.increment();
+                map.replace(key, entry, new Entry<>(CompletableFuture.completedFuture(value), clock.millis()));
+            }
+        });
+    }
+
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> future;
+
+        private final long writeTime;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(CompletableFuture<V> future, long writeTime) {
+            this.future = future;
+            this.writeTime = writeTime;
+        }
+
+        /**
+         * 依赖于缓存中future的新future，完成它不会反过来完成缓存中的future
+         */
+        CompletableFuture<V> copy() {
+            return future.thenApply(Function.identity());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.yunzhitx.java8.learning.cache;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * ClassName: AsyncLoadingCacheUsage <br/>
+ * Description: 异步加载缓存的用法<br/>
+ * date: 2026/10/20 9:50<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class AsyncLoadingCacheUsage {
+
+    private static final AtomicInteger LOAD_COUNT = new AtomicInteger();
+
+    private static final AtomicInteger BATCH_COUNT = new AtomicInteger();
+
+    public static void main(String[] args) {
+        // 并发未命中共享一次加载
+        dedupe();
+        // 批量加载
+        getAll();
+        // 写入一段时间后刷新
+        refresh();
+    }
+
+    private static void dedupe() {
+        System.out.println("dedupe");
+        LOAD_COUNT.set(0);
+        final AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.of(AsyncLoadingCacheUsage::slowLoad);
+        final List<CompletableFuture<Integer>> futures = IntStream.range(0, 100)
+                .mapToObj(i -> cache.get("hello"))
+                .collect(Collectors.toList());
+        futures.forEach(CompletableFuture::join);
+        // 100次并发访问只加载了1次
+        assert LOAD_COUNT.get() == 1;
+        System.out.println(cache.stats());
+    }
+
+    private static void getAll() {
+        System.out.println("getAll");
+        final AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.of(new AsyncCacheLoader<String, Integer>() {
+            @Override
+            public CompletableFuture<Integer> load(String key) {
+                return slowLoad(key);
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Integer>> loadAll(Set<? extends String> keys) {
+                // 后端一次批量查询
+                BATCH_COUNT.incrementAndGet();
+                return CompletableFuture.supplyAsync(() -> keys.stream()
+                        .collect(Collectors.toMap(key -> key, String::length)));
+            }
+        });
+        cache.get("a").join();
+        // a已经命中，只有b、cc、ddd合并为一次批量加载
+        final Map<String, Integer> result = cache.getAll(Arrays.asList("a", "b", "cc", "ddd")).join();
+        System.out.println(result);
+        assert BATCH_COUNT.get() == 1;
+    }
+
+    private static void refresh() {
+        System.out.println("refresh");
+        LOAD_COUNT.set(0);
+        final MutableClock clock = new MutableClock();
+        final AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.refreshing(
+                AsyncLoadingCacheUsage::slowLoad, Duration.ofMinutes(1), clock);
+        assert cache.get("hello").join() == 5;
+        // 两分钟后访问，立即返回旧值，同时后台刷新
+        clock.advance(Duration.ofMinutes(2));
+        assert cache.get("hello").isDone();
+        ThreadUtils.sleep(200);
+        assert LOAD_COUNT.get() == 2;
+        System.out.println(cache.stats());
+    }
+
+    private static CompletableFuture<Integer> slowLoad(String key) {
+        LOAD_COUNT.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            ThreadUtils.sleep(50);
+            return key.length();
+        });
+    }
+
+    /**
+     * 可以手动拨动的时钟
+     */
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2020-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package com.yunzhitx.java8.learning.cache;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * ClassName: BoundedCache <br/>
+ * Description: 有界的并发缓存，使用W-TinyLFU淘汰策略。<br/>
+ * 数据存放在ConcurrentHashMap中，淘汰策略的状态（三个访问顺序链表、频率估计）由一把淘汰锁保护：
+ * <ul>
+ * <li>新写入的项先进入占容量1%的窗口LRU，给新出现的key积累访问频率的机会；</li>
+ * <li>被挤出窗口的项作为候选，与主区试用段（probation）最久未访问的项比较TinyLFU估计的访问频率，频率高的留下，
+ * 因此一次性的扫描不会冲掉真正的热点数据；</li>
+ * <li>主区是分段LRU：试用段中再次被访问的项升入保护段（占主区80%），保护段满时最久未访问的项降回试用段。</li>
+ * </ul>
+ * 读取不加锁，只把节点写入有损的ReadBuffer，缓冲满时由拿到淘汰锁的线程批量回放；写入在淘汰锁下更新策略并淘汰。<br/>
+ * 大小限制可以是条数（maximumSize）或者权重（maximumWeight + Weigher）。<br/>
+ * date: 2026/10/21 11:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class BoundedCache<K, V> {
+
+    private static final double WINDOW_PERCENT = 0.01;
+
+    private static final double PROTECTED_PERCENT = 0.8;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final Weigher<? super K, ? super V> weigher;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final ReadBuffer<Node<K, V>> readBuffer = new ReadBuffer<>();
+
+    private final Consumer<Node<K, V>> onAccess = this::onAccess;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loadSuccesses = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 以下字段由evictionLock保护
+     */
+    private final FrequencySketch sketch;
+
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+
+    private final AccessOrderDeque<K, V> protectedDeque = new AccessOrderDeque<>();
+
+    private final long maximum;
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private long weightedSize;
+
+    private long windowWeightedSize;
+
+    private long protectedWeightedSize;
+
+    private BoundedCache(long maximum, Weigher<? super K, ? super V> weigher, long expectedSize) {
+        this.maximum = maximum;
+        this.weigher = weigher;
+        this.windowMaximum = Math.max(1, (long) (maximum * WINDOW_PERCENT));
+        this.protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_PERCENT);
+        this.sketch = new FrequencySketch(expectedSize);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 读取缓存，不存在时返回null
+     */
+    public V getIfPresent(K key) {
+        final Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    /**
+     * 与Map.computeIfAbsent相同：不存在时调用mapping加载并放入缓存，同一个key的并发调用只加载一次
+     *
+     * @param mapping 返回null时不缓存
+     * @return 缓存的值或者加载的值
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+        Objects.requireNonNull(mapping);
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            hits.increment();
+            afterRead(node);
+            return node.value;
+        }
+        final Node<K, V>[] created = newNodeHolder();
+        node = data.computeIfAbsent(key, k -> {
+            final V value;
+            try {
+                value = mapping.apply(k);
+            } catch (RuntimeException | Error ex) {
+                loadFailures.increment();
+                throw ex;
+            }
+            if (value == null) {
+                loadFailures.increment();
+                return null;
+            }
+            loadSuccesses.increment();
+            return created[0] = new Node<>(k, value, weigh(k, value));
+        });
+        if (created[0] != null) {
+            misses.increment();
+            afterWrite(created[0], null);
+        } else if (node != null) {
+            hits.increment();
+            afterRead(node);
+        } else {
+            misses.increment();
+        }
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * 放入缓存，替换已有的值
+     */
+    public void put(K key, V value) {
+        Objects.requireNonNull(value);
+        final Node<K, V> node = new Node<>(Objects.requireNonNull(key), value, weigh(key, value));
+        final Node<K, V> old = data.put(key, node);
+        if (old != null) {
+            old.retired = true;
+        }
+        afterWrite(node, old);
+    }
+
+    /**
+     * 移除缓存
+     */
+    public void invalidate(K key) {
+        final Node<K, V> node = data.remove(key);
+        if (node != null) {
+            node.retired = true;
+            evictionLock.lock();
+            try {
+                removeFromPolicy(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 当前条数
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * 当前总权重，按条数限制时等于条数
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), evictions.sum());
+    }
+
+    /**
+     * 立即回放读缓冲区，测试或者需要精确的淘汰顺序时使用
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            readBuffer.drainTo(onAccess);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        final int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("negative weight for " + key + ": " + weight);
+        }
+        return weight;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newNodeHolder() {
+        return (Node<K, V>[]) new Node[1];
+    }
+
+    private void afterRead(Node<K, V> node) {
+        if (readBuffer.offer(node) && evictionLock.tryLock()) {
+            try {
+                readBuffer.drainTo(onAccess);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(Node<K, V> node, Node<K, V> replaced) {
+        evictionLock.lock();
+        try {
+            // 顺便回放积累的读取，保持访问顺序尽量新
+            readBuffer.drainTo(onAccess);
+            if (replaced != null) {
+                removeFromPolicy(replaced);
+            }
+            // 写入之后马上被移除或替换的节点不再加入
+            if (node.retired) {
+                return;
+            }
+            if (weigher != null) {
+                sketch.ensureCapacity(data.size());
+            }
+            sketch.increment(node.key);
+            node.queue = Node.WINDOW;
+            window.linkLast(node);
+            windowWeightedSize += node.weight;
+            weightedSize += node.weight;
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 回放一次读取
+     */
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case Node.WINDOW:
+                window.moveToBack(node);
+                break;
+            case Node.PROBATION:
+                // 试用段中再次被访问，升入保护段
+                probation.unlink(node);
+                node.queue = Node.PROTECTED;
+                protectedDeque.linkLast(node);
+                protectedWeightedSize += node.weight;
+                demoteFromProtected();
+                break;
+            case Node.PROTECTED:
+                protectedDeque.moveToBack(node);
+                break;
+            default:
+                // 已经被移除
+                break;
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeightedSize > protectedMaximum) {
+            final Node<K, V> node = protectedDeque.head;
+            if (node == null) {
+                return;
+            }
+            protectedDeque.unlink(node);
+            protectedWeightedSize -= node.weight;
+            node.queue = Node.PROBATION;
+            probation.linkLast(node);
+        }
+    }
+
+    private void evict() {
+        // 窗口超出的部分移到试用段末尾，成为候选
+        Node<K, V> candidate = null;
+        while (windowWeightedSize > windowMaximum && window.head != null) {
+            final Node<K, V> node = window.head;
+            window.unlink(node);
+            windowWeightedSize -= node.weight;
+            node.queue = Node.PROBATION;
+            probation.linkLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+        while (weightedSize > maximum) {
+            Node<K, V> victim = probation.head;
+            if (victim == null) {
+                victim = protectedDeque.head != null ? protectedDeque.head : window.head;
+            }
+            if (victim == null) {
+                return;
+            }
+            if (candidate == null || victim.queue != Node.PROBATION) {
+                evictNode(victim);
+            } else if (victim == candidate) {
+                candidate = candidate.next;
+                evictNode(victim);
+            } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                // 候选更热，淘汰试用段最久未访问的项
+                evictNode(victim);
+            } else {
+                final Node<K, V> next = candidate.next;
+                evictNode(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void evictNode(Node<K, V> node) {
+        removeFromPolicy(node);
+        node.retired = true;
+        if (data.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    private void removeFromPolicy(Node<K, V> node) {
+        switch (node.queue) {
+            case Node.WINDOW:
+                window.unlink(node);
+                windowWeightedSize -= node.weight;
+                break;
+            case Node.PROBATION:
+                probation.unlink(node);
+                break;
+            case Node.PROTECTED:
+                protectedDeque.unlink(node);
+                protectedWeightedSize -= node.weight;
+                break;
+            default:
+                return;
+        }
+        weightedSize -= node.weight;
+        node.queue = Node.REMOVED;
+    }
+
+    private static final class Node<K, V> {
+
+        static final int NEW = 0;
+
+        static final int WINDOW = 1;
+
+        static final int PROBATION = 2;
+
+        static final int PROTECTED = 3;
+
+        static final int REMOVED = 4;
+
+        private final K key;
+
+        private final V value;
+
+        private final int weight;
+
+        /**
+         * 已经从data中移除或者被替换
+         */
+        private volatile boolean retired;
+
+        /**
+         * 以下字段由evictionLock保护
+         */
+        private int queue = NEW;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 侵入式的双向链表，头部是最久未访问的节点
+     */
+    private static final class AccessOrderDeque<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        void linkLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void unlink(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (node != tail) {
+                unlink(node);
+                linkLast(node);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private long maximumSize = -1;
+
+        private long maximumWeight = -1;
+
+        private Weigher<?, ?> weigher;
+
+        private Builder() {
+        }
+
+        /**
+         * 按条数限制
+         */
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * 按权重限制，需要同时指定weigher
+         */
+        public Builder maximumWeight(long maximumWeight) {
+            if (maximumWeight <= 0) {
+                throw new IllegalArgumentException("maximumWeight must be positive: " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public Builder weigher(Weigher<?, ?> weigher) {
+            this.weigher = Objects.requireNonNull(weigher);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <K, V> BoundedCache<K, V> build() {
+            if ((maximumSize > 0) == (maximumWeight > 0)) {
+                throw new IllegalStateException("exactly one of maximumSize and maximumWeight must be set");
+            }
+            if ((maximumWeight > 0) != (weigher != null)) {
+                throw new IllegalStateException("maximumWeight and weigher must be set together");
+            }
+            if (maximumSize > 0) {
+                return new BoundedCache<>(maximumSize, null, maximumSize);
+            }
+            // 按权重限制时条数未知，频率估计从小开始，随实际条数增长
+            return new BoundedCache<>(maximumWeight, (Weigher<? super K, ? super V>) weigher, 0);
+        }
+    }
+}
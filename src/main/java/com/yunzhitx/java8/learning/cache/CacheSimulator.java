@@ -0,0 +1,101 @@
+package com.yunzhitx.java8.learning.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: CacheSimulator <br/>
+ * Description: 命中率模拟器，在同一条访问轨迹上比较BoundedCache（W-TinyLFU）和LinkedHashMap实现的LRU。<br/>
+ * 用法：CacheSimulator [轨迹文件 缓存容量]，轨迹文件每行一个key（例如从访问日志中截取的用户id或者URL）；
+ * 不指定时生成两条合成轨迹：Zipf分布的访问，以及在Zipf访问中周期性插入一次性的顺序扫描。<br/>
+ * date: 2026/10/21 14:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class CacheSimulator {
+
+    private static final int KEY_SPACE = 100_000;
+
+    private static final int TRACE_LENGTH = 2_000_000;
+
+    private static final int CAPACITY = 1_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2) {
+            final String[] trace;
+            try (Stream<String> lines = Files.lines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+                trace = lines.map(String::trim).filter(line -> !line.isEmpty()).toArray(String[]::new);
+            }
+            simulate(args[0], trace, Integer.parseInt(args[1]));
+            return;
+        }
+        final Random random = new Random(42);
+        simulate("zipf(0.9)", zipfTrace(random, false), CAPACITY);
+        simulate("zipf(0.9) + scan", zipfTrace(random, true), CAPACITY);
+    }
+
+    private static <K> void simulate(String name, K[] trace, int capacity) {
+        final BoundedCache<K, Boolean> tinyLfu = BoundedCache.builder().maximumSize(capacity).build();
+        final Lru<K> lru = new Lru<>(capacity);
+        long lruHits = 0;
+        for (K key : trace) {
+            tinyLfu.computeIfAbsent(key, k -> Boolean.TRUE);
+            if (lru.get(key) == null) {
+                lru.put(key, Boolean.TRUE);
+            } else {
+                lruHits++;
+            }
+        }
+        final CacheStats stats = tinyLfu.stats();
+        System.out.printf("%-18s accesses=%,d capacity=%,d%n", name, trace.length, capacity);
+        System.out.printf("  LRU         hitRate=%.2f%%%n", lruHits * 100.0 / trace.length);
+        System.out.printf("  W-TinyLFU   hitRate=%.2f%% evictions=%,d%n", stats.getHitRate() * 100, stats.getEvictions());
+    }
+
+    /**
+     * Zipf分布的访问轨迹，scan为true时每10万次访问插入一段5000个从未出现过的key的顺序扫描
+     */
+    private static Integer[] zipfTrace(Random random, boolean scan) {
+        // 累积分布，按概率二分查找
+        final double[] cdf = new double[KEY_SPACE];
+        double sum = 0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            sum += 1 / Math.pow(i + 1, 0.9);
+            cdf[i] = sum;
+        }
+        final Integer[] trace = new Integer[TRACE_LENGTH];
+        int scanKey = KEY_SPACE;
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            if (scan && i % 100_000 >= 95_000) {
+                trace[i] = scanKey++;
+                continue;
+            }
+            final int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            trace[i] = index < 0 ? -index - 1 : index;
+        }
+        return trace;
+    }
+
+    private static final class Lru<K> extends LinkedHashMap<K, Boolean> {
+
+        private final int capacity;
+
+        Lru(int capacity) {
+            super(capacity * 2, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+            return size() > capacity;
+        }
+    }
+}
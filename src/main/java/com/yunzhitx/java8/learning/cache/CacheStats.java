@@ -0,0 +1,61 @@
+package com.yunzhitx.java8.learning.cache;
+
+/**
+ * ClassName: CacheStats <br/>
+ * Description: 缓存统计快照<br/>
+ * date: 2026/10/20 9:12<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class CacheStats {
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long loadSuccesses;
+
+    private final long loadFailures;
+
+    private final long evictions;
+
+    public CacheStats(long hits, long misses, long loadSuccesses, long loadFailures, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loadSuccesses = loadSuccesses;
+        this.loadFailures = loadFailures;
+        this.evictions = evictions;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLoadSuccesses() {
+        return loadSuccesses;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats(hits=" + hits + ", misses=" + misses + ", hitRate=" + String.format("%.4f", getHitRate())
+                + ", loadSuccesses=" + loadSuccesses + ", loadFailures=" + loadFailures + ", evictions=" + evictions + ")";
+    }
+}
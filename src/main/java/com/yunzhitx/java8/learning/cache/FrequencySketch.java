@@ -0,0 +1,124 @@
+package com.yunzhitx.java8.learning.cache;
+
+/**
+ * ClassName: FrequencySketch <br/>
+ * Description: TinyLFU使用的访问频率估计（4位计数的Count-Min Sketch）。<br/>
+ * 每个key在4个不同的long中各有一个4位计数器，计数上限15，估计值取4个计数器的最小值，
+ * 哈希冲突只会高估不会低估。每记录sampleSize次访问，所有计数器减半，让频率随时间衰减，
+ * 过去的热点不会永远占据缓存。每个key只占半个字节，几百万个key的频率也只需要几MB。<br/>
+ * 非线程安全，由BoundedCache在持有淘汰锁时调用。<br/>
+ * date: 2026/10/21 11:05<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 28;
+
+    private long[] table;
+
+    private int tableMask;
+
+    private int sampleSize;
+
+    private int size;
+
+    /**
+     * @param expectedSize 预计的条数，决定初始的计数器数量和衰减周期，条数未知时传0，之后用ensureCapacity增长
+     */
+    FrequencySketch(long expectedSize) {
+        allocate(Math.max(expectedSize, 16));
+    }
+
+    /**
+     * 计数器数量不少于maximumSize，不够时扩大为2的幂并清空已有的计数。
+     * 按权重限制的缓存不知道最终的条数，随实际条数增长，避免按权重上限一次性分配
+     */
+    void ensureCapacity(long maximumSize) {
+        if (maximumSize > table.length && table.length < MAXIMUM_CAPACITY) {
+            allocate(maximumSize);
+        }
+    }
+
+    private void allocate(long maximumSize) {
+        final int capacity = (int) Math.min(maximumSize, MAXIMUM_CAPACITY);
+        this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        this.tableMask = table.length - 1;
+        this.sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        this.size = 0;
+    }
+
+    /**
+     * 估计的访问次数，0到15
+     */
+    int frequency(Object key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 记录一次访问
+     */
+    void increment(Object key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        final int offset = counter << 2;
+        final long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        // 奇数计数器减半时各丢掉0.5，4个计数器对应一次访问
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        h ^= h >>> 17;
+        h *= 0xed5ad4bb;
+        return h ^ (h >>> 11);
+    }
+}
@@ -0,0 +1,92 @@
+package com.yunzhitx.java8.learning.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: ReadBuffer <br/>
+ * Description: 记录缓存读取的有损分段环形缓冲区。<br/>
+ * LinkedHashMap的访问顺序LRU在每次get时都要加全局锁移动链表节点；这里get只把节点写入缓冲区，
+ * 由持有淘汰锁的线程批量回放（更新LRU顺序和访问频率），一次加锁摊销到许多次读取上。
+ * 按线程id分段减少CAS竞争；某一段满了直接丢弃这次记录，丢失少量访问记录对淘汰策略的影响可以忽略，
+ * 读取永远不会阻塞。<br/>
+ * date: 2026/10/21 11:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class ReadBuffer<E> {
+
+    /**
+     * 每段的容量
+     */
+    static final int BUFFER_SIZE = 16;
+
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    /**
+     * 每个计数器之间间隔16个long，避免不同段的计数器伪共享
+     */
+    private static final int PAD = 16;
+
+    private final int stripeMask;
+
+    private final AtomicReferenceArray<E> slots;
+
+    /**
+     * 第i段的写计数在下标(2i+1)*PAD，读计数在(2i+2)*PAD
+     */
+    private final AtomicLongArray counters;
+
+    ReadBuffer() {
+        final int stripes = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+        this.stripeMask = stripes - 1;
+        this.slots = new AtomicReferenceArray<>(stripes * BUFFER_SIZE);
+        this.counters = new AtomicLongArray((stripes * 2 + 2) * PAD);
+    }
+
+    /**
+     * 记录一次读取
+     *
+     * @return 当前段是否已满，满时调用方应当尝试drain
+     */
+    boolean offer(E e) {
+        final int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        final int writeIndex = (stripe * 2 + 1) * PAD;
+        final long tail = counters.get(writeIndex);
+        final long head = counters.get(writeIndex + PAD);
+        if (tail - head >= BUFFER_SIZE) {
+            return true;
+        }
+        if (counters.compareAndSet(writeIndex, tail, tail + 1)) {
+            slots.lazySet(stripe * BUFFER_SIZE + (int) (tail & BUFFER_MASK), e);
+            return tail + 1 - head >= BUFFER_SIZE;
+        }
+        // CAS失败说明同一段有竞争，直接放弃这次记录
+        return false;
+    }
+
+    /**
+     * 回放所有段中已写入的记录，只能由持有淘汰锁的线程调用
+     */
+    void drainTo(Consumer<? super E> consumer) {
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            final int writeIndex = (stripe * 2 + 1) * PAD;
+            final int readIndex = writeIndex + PAD;
+            long head = counters.get(readIndex);
+            final long tail = counters.get(writeIndex);
+            for (; head < tail; head++) {
+                final int slot = stripe * BUFFER_SIZE + (int) (head & BUFFER_MASK);
+                final E e = slots.get(slot);
+                if (e == null) {
+                    // 计数已经递增但还没写入，下次再处理
+                    break;
+                }
+                slots.lazySet(slot, null);
+                consumer.accept(e);
+            }
+            counters.lazySet(readIndex, head);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.yunzhitx.java8.learning.cache;
+
+/**
+ * ClassName: Weigher <br/>
+ * Description: 计算缓存项的权重，用于按权重（例如字节数）而不是条数限制缓存大小<br/>
+ * date: 2026/10/21 11:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * @return 非负的权重，写入后不会再重新计算
+     */
+    int weigh(K key, V value);
+}
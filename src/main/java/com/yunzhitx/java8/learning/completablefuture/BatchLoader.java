@@ -0,0 +1,25 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ClassName: BatchLoader <br/>
+ * Description: DataLoader使用的批量加载函数<br/>
+ * date: 2026/10/20 16:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+@FunctionalInterface
+public interface BatchLoader<K, V> {
+
+    /**
+     * 一次加载多个key
+     *
+     * @param keys 去重后的key，数量不超过DataLoader的maxBatchSize
+     * @return 加载到的值，结果中没有的key对应的调用以NoSuchElementException结束
+     */
+    CompletableFuture<Map<K, V>> loadMany(Set<K> keys);
+}
@@ -1,10 +1,15 @@
 package com.yunzhitx.java8.learning.completablefuture;
 
+import com.yunzhitx.java8.learning.completablefuture.result.AsyncResults;
+import com.yunzhitx.java8.learning.completablefuture.result.Result;
+import com.yunzhitx.java8.learning.executor.InstrumentedExecutorService;
 import com.yunzhitx.java8.learning.util.ThreadUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -16,7 +21,9 @@ import java.util.stream.Collectors;
  * @since JDK 1.8
  */
 public class CompletableUsage {
-    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(3);
+    // 包装为带指标的线程池，可以区分异步任务慢在排队还是执行，指标同时通过JMX暴露
+    private static final InstrumentedExecutorService EXECUTOR_SERVICE =
+            InstrumentedExecutorService.wrapAndRegister("completable-usage", Executors.newFixedThreadPool(3));
 
     public static void main(String[] args) throws Exception {
         // CompletableFuture的Hello World
@@ -37,7 +44,12 @@ public class CompletableUsage {
         // CompletableFuture的组合
         composeApi();
 
+        // 等线程池中的任务全部结束后再输出，指标不再变化
         EXECUTOR_SERVICE.shutdown();
+        if (!EXECUTOR_SERVICE.awaitTermination(10, TimeUnit.SECONDS)) {
+            System.out.println("executor did not terminate in 10s, metrics are partial");
+        }
+        System.out.println(EXECUTOR_SERVICE.metrics());
     }
 
     private static void helloWorld() throws ExecutionException, InterruptedException {
@@ -79,6 +91,12 @@ public class CompletableUsage {
 
         // 立即获取结果，如果获取不到，返回参数中指定的默认值
         final Integer result3 = completableFuture.getNow(0);
+
+        // 不阻塞线程的超时控制（Java 9的orTimeout/completeOnTimeout），超时由共享的时间轮定时器触发
+        Futures.orTimeout(CompletableFuture.supplyAsync(() -> 100), 2, TimeUnit.SECONDS)
+                .thenAccept(result4 -> System.out.println("result is " + result4));
+        Futures.completeOnTimeout(new CompletableFuture<Integer>(), 0, 100, TimeUnit.MILLISECONDS)
+                .thenAccept(result5 -> System.out.println("default result is " + result5));
     }
 
     private static void taskChainApi() {
@@ -141,6 +159,26 @@ public class CompletableUsage {
                     return defaultVal;
                 })
                 .thenAccept(result -> System.out.println("result is " + result));
+
+        // 使用Retry，失败后按指数退避加随机抖动重试，退避期间不会sleep占用线程，而是由定时器发起下一次尝试
+        final RetryPolicy policy = RetryPolicy.maxAttempts(3)
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(100))
+                .retryOn(ex -> ex instanceof RuntimeException)
+                .withDeadline(Duration.ofSeconds(1));
+        Retry.async(() -> CompletableFuture.supplyAsync(CompletableUsage::exceptionTask, EXECUTOR_SERVICE), policy)
+                .exceptionally(ex -> {
+                    System.out.println("retry exhausted: " + ex.getMessage());
+                    return defaultVal;
+                })
+                .thenAccept(result -> System.out.println("result is " + result));
+
+        // 使用Result，预期内的失败作为值传递，不创建异常；异常只用于真正的故障
+        final CompletableFuture<Result<Integer, String>> found =
+                AsyncResults.supplyAsync(CompletableUsage::resultTask, EXECUTOR_SERVICE);
+        AsyncResults.recover(AsyncResults.map(found, result -> result * 2), error -> {
+            System.out.println(error);
+            return defaultVal;
+        }).thenAccept(result -> System.out.println("result is " + result.getValue()));
     }
 
     private static void composeApi() {
@@ -175,6 +213,22 @@ public class CompletableUsage {
                             .forEach(result -> System.out.println("result is " + result));
                 });
 
+        // Futures.allOf直接返回结果列表，任意一个失败时立即结束并取消其它任务
+        Futures.allOf(Arrays.asList(
+                CompletableFuture.supplyAsync(() -> 100),
+                CompletableFuture.supplyAsync(() -> 200),
+                CompletableFuture.supplyAsync(() -> 300)
+        )).thenAccept(results -> System.out.println("results are " + results));
+
+        // 大量扇出时，最多同时启动2个任务
+        final List<Supplier<CompletableFuture<Integer>>> tasks = Arrays.asList(
+                () -> CompletableFuture.supplyAsync(() -> 100, EXECUTOR_SERVICE),
+                () -> CompletableFuture.supplyAsync(() -> 200, EXECUTOR_SERVICE),
+                () -> CompletableFuture.supplyAsync(() -> 300, EXECUTOR_SERVICE)
+        );
+        Futures.bounded(2, tasks)
+                .thenAccept(results -> System.out.println("results are " + results));
+
         System.out.println("anyOf");
         // 使用anyOf，多个任务有一个完成时，就执行下一步，哪个先完成就得到哪个任务的结果
         final List<CompletableFuture<Integer>> anyFutures = Arrays.asList(
@@ -182,6 +236,7 @@ public class CompletableUsage {
                 CompletableFuture.supplyAsync(() -> 200),
                 CompletableFuture.supplyAsync(() -> 300)
         );
+        // anyOf不会取消其它任务，它们会继续执行到结束；需要取消时使用scope.Scope.shutdownOnSuccess
         CompletableFuture.anyOf(anyFutures.toArray(new CompletableFuture[3]))
                 .thenAccept(result -> System.out.println("result is " + result));
     }
@@ -197,4 +252,8 @@ public class CompletableUsage {
         return 100;
     }
 
+    private static Result<Integer, String> resultTask() {
+        return Result.err("not found");
+    }
+
 }
\ No newline at end of file
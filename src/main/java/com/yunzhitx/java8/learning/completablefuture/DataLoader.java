@@ -0,0 +1,206 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.HashedWheelTimer;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ClassName: DataLoader <br/>
+ * Description: 把单个key的异步加载合并为批量加载。<br/>
+ * 与每个id调用一次CompletableFuture.supplyAsync(() -> load(id))不同，
+ * 一个时间窗口内的load调用先进入当前批次，窗口到期或者批次达到maxBatchSize时，
+ * 整个批次只调用一次BatchLoader.loadMany，再把结果分别交给各个调用方的future。
+ * 同一批次内重复的key只加载一次，共享同一次加载的结果。<br/>
+ * 窗口由时间轮定时器触发，不占用阻塞线程；窗口到期时loadMany在定时器线程上调用，应当只提交异步任务。<br/>
+ * date: 2026/10/20 16:05<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class DataLoader<K, V> {
+
+    private final BatchLoader<K, V> loader;
+
+    private final int maxBatchSize;
+
+    private final long windowNanos;
+
+    private final HashedWheelTimer timer;
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder batchedKeys = new LongAdder();
+
+    /**
+     * 正在收集的批次，由this保护
+     */
+    private Batch<K, V> current;
+
+    /**
+     * 使用共享的时间轮定时器
+     */
+    public DataLoader(BatchLoader<K, V> loader, int maxBatchSize, Duration window) {
+        this(loader, maxBatchSize, window, HashedWheelTimer.shared());
+    }
+
+    /**
+     * @param loader       批量加载函数
+     * @param maxBatchSize 一个批次最多包含的不同key数量
+     * @param window       批次从第一个key进入开始最多等待多久
+     * @param timer        触发窗口到期的定时器
+     */
+    public DataLoader(BatchLoader<K, V> loader, int maxBatchSize, Duration window, HashedWheelTimer timer) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.loader = Objects.requireNonNull(loader);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.timer = Objects.requireNonNull(timer);
+    }
+
+    /**
+     * 加载一个key，结果在所在批次加载完成后返回。
+     * 返回的是批次内部future的依赖副本，调用方对它cancel、complete或者orTimeout不影响同一个key的其它调用方
+     */
+    public CompletableFuture<V> load(K key) {
+        Objects.requireNonNull(key);
+        loads.increment();
+        final CompletableFuture<V> future;
+        Batch<K, V> full = null;
+        Batch<K, V> opened = null;
+        synchronized (this) {
+            if (current == null) {
+                current = opened = new Batch<>();
+            }
+            final CompletableFuture<V> existing = current.futures.get(key);
+            if (existing != null) {
+                return existing.thenApply(Function.identity());
+            }
+            future = new CompletableFuture<>();
+            current.futures.put(key, future);
+            if (current.futures.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        } else if (opened != null) {
+            final Batch<K, V> batch = opened;
+            timer.newTimeout(() -> dispatchIfCurrent(batch), windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return future.thenApply(Function.identity());
+    }
+
+    /**
+     * 加载多个key，单个key加载失败不影响其它key，结果中只包含加载成功的key
+     */
+    public CompletableFuture<Map<K, V>> loadMany(Collection<? extends K> keys) {
+        final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.computeIfAbsent(key, this::load);
+        }
+        final CompletableFuture<?>[] all = futures.values().stream()
+                .map(f -> f.handle((v, ex) -> v))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(all).thenApply(ignored -> {
+            final Map<K, V> result = new LinkedHashMap<>();
+            futures.forEach((key, future) -> {
+                if (!future.isCompletedExceptionally()) {
+                    result.put(key, future.join());
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * 不等窗口到期，立即发出当前批次
+     */
+    public void dispatch() {
+        final Batch<K, V> batch;
+        synchronized (this) {
+            batch = current;
+            current = null;
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * 调用load的次数
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * 调用loadMany的次数
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * 平均每个批次的key数量
+     */
+    public double getAverageBatchSize() {
+        final long count = batches.sum();
+        return count == 0 ? 0 : (double) batchedKeys.sum() / count;
+    }
+
+    /**
+     * 窗口到期时，该批次可能已经因为达到maxBatchSize被发出了
+     */
+    private void dispatchIfCurrent(Batch<K, V> batch) {
+        synchronized (this) {
+            if (current != batch) {
+                return;
+            }
+            current = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        batches.increment();
+        batchedKeys.add(batch.futures.size());
+        final CompletableFuture<Map<K, V>> loading;
+        try {
+            loading = Objects.requireNonNull(loader.loadMany(Collections.unmodifiableSet(batch.futures.keySet())),
+                    "loader returned a null future");
+        } catch (Throwable ex) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(ex));
+            return;
+        }
+        loading.whenComplete((values, ex) -> batch.futures.forEach((key, future) -> {
+            if (ex != null) {
+                future.completeExceptionally(Futures.unwrap(ex));
+                return;
+            }
+            final V value = values == null ? null : values.get(key);
+            if (value != null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(new NoSuchElementException("no value loaded for " + key));
+            }
+        }));
+    }
+
+    private static final class Batch<K, V> {
+
+        /**
+         * 批次发出后不再修改，发出前由DataLoader的锁保护
+         */
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,78 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.HashedWheelTimer;
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ClassName: DataLoaderUsage <br/>
+ * Description: 批量加载的用法。<br/>
+ * 模拟的存储每次调用固定开销5ms，每个key额外0.01ms：逐个加载和合并批量加载的耗时、调用次数对比<br/>
+ * date: 2026/10/20 16:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class DataLoaderUsage {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(16);
+
+    private static final AtomicInteger STORE_CALLS = new AtomicInteger();
+
+    private static final int REQUESTS = 2000;
+
+    public static void main(String[] args) {
+        // 逐个加载
+        long start = System.nanoTime();
+        final List<CompletableFuture<String>> singles = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            final int id = i / 2;
+            singles.add(CompletableFuture.supplyAsync(() -> load(id), EXECUTOR_SERVICE));
+        }
+        Futures.allOf(singles).join();
+        System.out.printf("single: %dms, store calls=%d%n", (System.nanoTime() - start) / 1_000_000, STORE_CALLS.getAndSet(0));
+
+        // 合并为批量加载：2ms窗口，每批最多100个key
+        final HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 512);
+        final DataLoader<Integer, String> loader = new DataLoader<>(
+                keys -> CompletableFuture.supplyAsync(() -> loadMany(keys), EXECUTOR_SERVICE),
+                100, Duration.ofMillis(2), timer);
+        start = System.nanoTime();
+        final List<CompletableFuture<String>> batched = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            // 每个id请求两次，同一批次内只加载一次
+            batched.add(loader.load(i / 2));
+        }
+        Futures.allOf(batched).join();
+        System.out.printf("batched: %dms, store calls=%d, loads=%d, batches=%d, avg batch size=%.1f%n",
+                (System.nanoTime() - start) / 1_000_000, STORE_CALLS.get(), loader.getLoadCount(),
+                loader.getBatchCount(), loader.getAverageBatchSize());
+
+        timer.stop();
+        EXECUTOR_SERVICE.shutdown();
+    }
+
+    private static String load(int id) {
+        STORE_CALLS.incrementAndGet();
+        ThreadUtils.sleep(5);
+        return "item-" + id;
+    }
+
+    private static Map<Integer, String> loadMany(Set<Integer> ids) {
+        STORE_CALLS.incrementAndGet();
+        ThreadUtils.sleep(5 + ids.size() / 100);
+        return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "item-" + id));
+    }
+}
@@ -1,6 +1,9 @@
 package com.yunzhitx.java8.learning.completablefuture;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 
 /**
@@ -19,6 +22,18 @@ public class FutureUsage {
         // 在结果返回之前一直阻塞
         final String result = futureTask.get();
         System.out.println(result);
+
+        // 使用Promise，任务完成时回调，不需要阻塞等待
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch done = new CountDownLatch(1);
+        Promise.submit(new MyTask(), executor)
+                .map(String::toUpperCase)
+                .onComplete((value, ex) -> {
+                    System.out.println(ex == null ? value : ex.getMessage());
+                    done.countDown();
+                });
+        done.await();
+        executor.shutdown();
     }
 
     private static class MyTask implements Callable<String> {
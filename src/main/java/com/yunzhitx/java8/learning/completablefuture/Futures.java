@@ -0,0 +1,279 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.HashedWheelTimer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: Futures <br/>
+ * Description: CompletableFuture的组合工具<br/>
+ * date: 2026/10/19 15:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * 与CompletableFuture.allOf类似，但直接返回所有结果（顺序与参数一致）。<br/>
+     * 任意一个失败时立即以该异常结束，并取消其它尚未完成的future；
+     * 通过supplyAsync提交但还没开始执行的任务被取消后不会再执行，从而释放线程池。<br/>
+     * 返回的future被取消时，同样会取消所有任务。
+     *
+     * @param futures 任务列表
+     * @return 所有结果的列表
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<? extends CompletableFuture<? extends T>> futures) {
+        final int size = futures.size();
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        if (size == 0) {
+            result.complete(new ArrayList<>());
+            return result;
+        }
+        final Object[] values = new Object[size];
+        final AtomicInteger remaining = new AtomicInteger(size);
+        for (int i = 0; i < size; i++) {
+            final int index = i;
+            futures.get(i).whenComplete((value, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(unwrap(ex));
+                } else {
+                    values[index] = value;
+                    // 原子递减保证最后一个完成的线程能看到所有结果
+                    if (remaining.decrementAndGet() == 0) {
+                        result.complete(toList(values));
+                    }
+                }
+            });
+        }
+        result.whenComplete((value, ex) -> {
+            if (ex != null) {
+                cancelAll(futures);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * allOf的限流版本：最多同时启动maxConcurrency个任务，一个完成后再启动下一个，适合大量扇出。<br/>
+     * 任意一个失败时立即以该异常结束，取消执行中的任务，并且不再启动剩下的任务。
+     *
+     * @param maxConcurrency 最大并发数
+     * @param tasks          任务，调用get()时才真正启动，例如 () -> CompletableFuture.supplyAsync(() -> load(id), executor)
+     * @return 所有结果的列表，顺序与参数一致
+     */
+    public static <T> CompletableFuture<List<T>> bounded(int maxConcurrency,
+                                                         List<? extends Supplier<? extends CompletableFuture<? extends T>>> tasks) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        final BoundedLauncher<T> launcher = new BoundedLauncher<>(tasks);
+        final int lanes = Math.min(maxConcurrency, tasks.size());
+        if (lanes == 0) {
+            launcher.result.complete(new ArrayList<>());
+        }
+        for (int i = 0; i < lanes; i++) {
+            launcher.runLane();
+        }
+        return launcher.result;
+    }
+
+    /**
+     * Java 9中CompletableFuture.orTimeout的Java 8版本：超时未完成时以TimeoutException结束该future。<br/>
+     * 超时由共享的时间轮定时器触发，不占用阻塞线程；future提前完成时立即取消定时任务。
+     * 超时导致的后续同步阶段会在定时器线程上执行，耗时的后续处理请使用*Async方法。
+     *
+     * @param future  目标future
+     * @param timeout 超时时间
+     * @param unit    超时时间单位
+     * @return 传入的future本身
+     */
+    public static <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        return orTimeout(future, timeout, unit, HashedWheelTimer.shared());
+    }
+
+    /**
+     * 使用指定定时器的orTimeout
+     */
+    public static <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit,
+                                                     HashedWheelTimer timer) {
+        if (!future.isDone()) {
+            final HashedWheelTimer.Timeout handle = timer.newTimeout(
+                    () -> future.completeExceptionally(new FastTimeoutException()), timeout, unit);
+            future.whenComplete((value, ex) -> handle.cancel());
+        }
+        return future;
+    }
+
+    /**
+     * Java 9中CompletableFuture.completeOnTimeout的Java 8版本：超时未完成时以给定的默认值完成该future
+     *
+     * @param future  目标future
+     * @param value   超时时的默认值
+     * @param timeout 超时时间
+     * @param unit    超时时间单位
+     * @return 传入的future本身
+     */
+    public static <T> CompletableFuture<T> completeOnTimeout(CompletableFuture<T> future, T value,
+                                                             long timeout, TimeUnit unit) {
+        return completeOnTimeout(future, value, timeout, unit, HashedWheelTimer.shared());
+    }
+
+    /**
+     * 使用指定定时器的completeOnTimeout
+     */
+    public static <T> CompletableFuture<T> completeOnTimeout(CompletableFuture<T> future, T value,
+                                                             long timeout, TimeUnit unit, HashedWheelTimer timer) {
+        if (!future.isDone()) {
+            final HashedWheelTimer.Timeout handle = timer.newTimeout(() -> future.complete(value), timeout, unit);
+            future.whenComplete((result, ex) -> handle.cancel());
+        }
+        return future;
+    }
+
+    /**
+     * 取消所有尚未完成的future
+     */
+    public static void cancelAll(Collection<? extends CompletableFuture<?>> futures) {
+        for (CompletableFuture<?> future : futures) {
+            if (!future.isDone()) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 去掉CompletableFuture在依赖阶段包装的CompletionException/ExecutionException
+     */
+    public static Throwable unwrap(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> toList(Object[] values) {
+        return new ArrayList<>((List<T>) Arrays.asList(values));
+    }
+
+    /**
+     * 定时器线程上的调用栈没有意义，不填充调用栈，大量超时同时到期时避免定时器线程被拖慢
+     */
+    private static final class FastTimeoutException extends TimeoutException {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static final class BoundedLauncher<T> {
+
+        private final List<? extends Supplier<? extends CompletableFuture<? extends T>>> tasks;
+
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        private final AtomicReferenceArray<CompletableFuture<? extends T>> launched;
+
+        private final Object[] values;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final AtomicInteger remaining;
+
+        BoundedLauncher(List<? extends Supplier<? extends CompletableFuture<? extends T>>> tasks) {
+            this.tasks = tasks;
+            this.launched = new AtomicReferenceArray<>(tasks.size());
+            this.values = new Object[tasks.size()];
+            this.remaining = new AtomicInteger(tasks.size());
+            result.whenComplete((value, ex) -> {
+                if (ex != null) {
+                    cancelLaunched();
+                }
+            });
+        }
+
+        /**
+         * 一条执行通道：启动一个任务，完成后接着启动下一个。
+         * 已经完成的任务在循环中直接处理，避免同步完成的任务造成递归过深。
+         */
+        void runLane() {
+            for (; ; ) {
+                final int index = next.getAndIncrement();
+                if (index >= tasks.size() || result.isDone()) {
+                    return;
+                }
+                final CompletableFuture<? extends T> future;
+                try {
+                    future = Objects.requireNonNull(tasks.get(index).get(), "task returned a null future");
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                    return;
+                }
+                launched.set(index, future);
+                if (result.isDone()) {
+                    // 启动期间其它任务失败了
+                    future.cancel(false);
+                    return;
+                }
+                if (future.isDone()) {
+                    if (!onComplete(index, future)) {
+                        return;
+                    }
+                    continue;
+                }
+                future.whenComplete((value, ex) -> {
+                    if (onComplete(index, future)) {
+                        runLane();
+                    }
+                });
+                return;
+            }
+        }
+
+        /**
+         * @return 是否继续启动后续任务
+         */
+        private boolean onComplete(int index, CompletableFuture<? extends T> future) {
+            final T value;
+            try {
+                value = future.join();
+            } catch (Throwable ex) {
+                result.completeExceptionally(unwrap(ex));
+                return false;
+            }
+            values[index] = value;
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(toList(values));
+            }
+            return true;
+        }
+
+        private void cancelLaunched() {
+            for (int i = 0; i < launched.length(); i++) {
+                final CompletableFuture<? extends T> future = launched.get(i);
+                if (future != null && !future.isDone()) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+}
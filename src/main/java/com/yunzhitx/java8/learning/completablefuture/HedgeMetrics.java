@@ -0,0 +1,78 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+/**
+ * ClassName: HedgeMetrics <br/>
+ * Description: 对冲请求的统计快照<br/>
+ * date: 2026/10/19 16:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class HedgeMetrics {
+
+    private final long calls;
+
+    private final long hedgesFired;
+
+    private final long hedgeWins;
+
+    private final long failures;
+
+    private final long currentDelayNanos;
+
+    HedgeMetrics(long calls, long hedgesFired, long hedgeWins, long failures, long currentDelayNanos) {
+        this.calls = calls;
+        this.hedgesFired = hedgesFired;
+        this.hedgeWins = hedgeWins;
+        this.failures = failures;
+        this.currentDelayNanos = currentDelayNanos;
+    }
+
+    /**
+     * 调用次数
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * 发起的备份请求数
+     */
+    public long getHedgesFired() {
+        return hedgesFired;
+    }
+
+    /**
+     * 备份请求先于主请求完成的次数
+     */
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * 所有请求都失败的调用次数
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * 当前使用的对冲延迟
+     */
+    public long getCurrentDelayNanos() {
+        return currentDelayNanos;
+    }
+
+    /**
+     * 发起备份请求的调用占比
+     */
+    public double getHedgeRate() {
+        return calls == 0 ? 0 : (double) hedgesFired / calls;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeMetrics(calls=" + calls + ", hedgesFired=" + hedgesFired + ", hedgeWins=" + hedgeWins
+                + ", failures=" + failures + ", currentDelayMillis=" + currentDelayNanos / 1_000_000.0 + ")";
+    }
+}
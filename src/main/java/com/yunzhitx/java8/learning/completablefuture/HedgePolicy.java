@@ -0,0 +1,77 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import java.time.Duration;
+
+/**
+ * ClassName: HedgePolicy <br/>
+ * Description: 对冲请求的策略：主请求超过延迟仍未完成时发起备份请求<br/>
+ * date: 2026/10/19 16:05<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class HedgePolicy {
+
+    /**
+     * 样本数不足时使用初始延迟
+     */
+    static final int MIN_SAMPLES = 20;
+
+    private final long delayNanos;
+
+    /**
+     * 大于0时按观测到的该分位数延迟决定何时发起备份请求
+     */
+    private final double percentile;
+
+    private final int maxHedges;
+
+    private HedgePolicy(long delayNanos, double percentile, int maxHedges) {
+        if (maxHedges < 0) {
+            throw new IllegalArgumentException("maxHedges must not be negative: " + maxHedges);
+        }
+        this.delayNanos = delayNanos;
+        this.percentile = percentile;
+        this.maxHedges = maxHedges;
+    }
+
+    /**
+     * 固定延迟
+     *
+     * @param delay     主请求超过该时间未完成时发起备份请求
+     * @param maxHedges 最多发起的备份请求数
+     */
+    public static HedgePolicy fixedDelay(Duration delay, int maxHedges) {
+        return new HedgePolicy(delay.toNanos(), 0, maxHedges);
+    }
+
+    /**
+     * 按观测到的延迟分位数决定延迟，例如0.95表示超过p95仍未完成就发起备份请求
+     *
+     * @param percentile   分位数，(0, 1)
+     * @param initialDelay 样本数不足时使用的延迟
+     * @param maxHedges    最多发起的备份请求数
+     */
+    public static HedgePolicy percentile(double percentile, Duration initialDelay, int maxHedges) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+        }
+        return new HedgePolicy(initialDelay.toNanos(), percentile, maxHedges);
+    }
+
+    long getDelayNanos() {
+        return delayNanos;
+    }
+
+    double getPercentile() {
+        return percentile;
+    }
+
+    boolean isAdaptive() {
+        return percentile > 0;
+    }
+
+    int getMaxHedges() {
+        return maxHedges;
+    }
+}
@@ -0,0 +1,54 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.HashedWheelTimer;
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: HedgeUsage <br/>
+ * Description: 对冲请求的用法<br/>
+ * date: 2026/10/19 16:50<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class HedgeUsage {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(16);
+
+    private static final Random RANDOM = new Random();
+
+    public static void main(String[] args) {
+        // 对冲延迟在毫秒级，使用精度1ms的定时器
+        final HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 512);
+        // 超过观测到的p95仍未返回就发起一个备份请求
+        final Hedger hedger = new Hedger(HedgePolicy.percentile(0.95, Duration.ofMillis(20), 1), timer);
+
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(hedger.call(() -> CompletableFuture.supplyAsync(HedgeUsage::slowCall, EXECUTOR_SERVICE)));
+            ThreadUtils.sleep(2);
+        }
+        Futures.allOf(results).join();
+        System.out.println(hedger.metrics());
+
+        timer.stop();
+        EXECUTOR_SERVICE.shutdown();
+    }
+
+    /**
+     * 大部分请求10ms左右返回，5%的请求要200ms
+     */
+    private static Integer slowCall() {
+        ThreadUtils.sleep(RANDOM.nextInt(100) < 5 ? 200 : 10);
+        return 100;
+    }
+}
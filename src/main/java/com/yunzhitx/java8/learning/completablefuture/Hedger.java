@@ -0,0 +1,258 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.HashedWheelTimer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: Hedger <br/>
+ * Description: 对冲请求，用于降低尾延迟。<br/>
+ * 先发起主请求，超过延迟仍未完成就发起备份请求，最先成功的结果生效，其余请求被取消。
+ * 与anyOf同时发起所有任务不同，大部分调用在延迟内完成，只有慢的那一小部分会多发请求。<br/>
+ * date: 2026/10/19 16:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Hedger {
+
+    /**
+     * 用于计算分位数的最近样本数
+     */
+    private static final int WINDOW_SIZE = 1024;
+
+    /**
+     * 每记录多少个样本重新计算一次分位数
+     */
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    private final HedgePolicy policy;
+
+    private final HashedWheelTimer timer;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder hedgesFired = new LongAdder();
+
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+
+    private final AtomicInteger sampleCount = new AtomicInteger();
+
+    private volatile long currentDelayNanos;
+
+    /**
+     * 使用共享的时间轮定时器（精度10ms）调度备份请求
+     *
+     * @param policy 对冲策略
+     */
+    public Hedger(HedgePolicy policy) {
+        this(policy, HashedWheelTimer.shared());
+    }
+
+    /**
+     * @param policy 对冲策略
+     * @param timer  用于在延迟到达时发起备份请求，supplier会在定时器线程上调用，只应提交异步任务而不能阻塞
+     */
+    public Hedger(HedgePolicy policy, HashedWheelTimer timer) {
+        this.policy = Objects.requireNonNull(policy);
+        this.timer = Objects.requireNonNull(timer);
+        this.currentDelayNanos = policy.getDelayNanos();
+    }
+
+    /**
+     * 发起一次对冲调用
+     *
+     * @param supplier 每次调用get()发起一个独立的请求，需要是幂等的
+     * @return 最先成功的请求的结果；所有请求都失败时以最后一个失败的异常结束
+     */
+    public <T> CompletableFuture<T> call(Supplier<? extends CompletableFuture<? extends T>> supplier) {
+        calls.increment();
+        final HedgedCall<T> call = new HedgedCall<>(supplier);
+        call.start();
+        return call.result;
+    }
+
+    public HedgeMetrics metrics() {
+        return new HedgeMetrics(calls.sum(), hedgesFired.sum(), hedgeWins.sum(), failures.sum(), currentDelayNanos);
+    }
+
+    /**
+     * 只记录主请求的延迟：备份请求只在主请求慢的时候才发起，对它们采样会让分位数偏低
+     */
+    private void recordLatency(long nanos) {
+        if (!policy.isAdaptive()) {
+            return;
+        }
+        final int count = sampleCount.getAndIncrement();
+        samples.set(count & (WINDOW_SIZE - 1), nanos);
+        if (count + 1 >= HedgePolicy.MIN_SAMPLES && (count + 1) % RECOMPUTE_INTERVAL == 0) {
+            recomputeDelay(Math.min(count + 1, WINDOW_SIZE));
+        }
+    }
+
+    private void recomputeDelay(int size) {
+        final long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        final int index = (int) Math.min(size - 1, Math.ceil(policy.getPercentile() * size) - 1);
+        currentDelayNanos = sorted[Math.max(0, index)];
+    }
+
+    private final class HedgedCall<T> {
+
+        private final Supplier<? extends CompletableFuture<? extends T>> supplier;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private final List<CompletableFuture<? extends T>> attempts = new CopyOnWriteArrayList<>();
+
+        /**
+         * 已发起的请求数，以下状态都在this上加锁访问
+         */
+        private int launched;
+
+        /**
+         * 已发起但还没结束的请求数
+         */
+        private int outstanding;
+
+        private HashedWheelTimer.Timeout pendingHedge;
+
+        private CompletableFuture<? extends T> primary;
+
+        private long primaryStart;
+
+        /**
+         * 主请求的延迟是否已经记录
+         */
+        private boolean primarySampled;
+
+        HedgedCall(Supplier<? extends CompletableFuture<? extends T>> supplier) {
+            this.supplier = supplier;
+            result.whenComplete((value, ex) -> {
+                cancelPendingHedge();
+                sampleRunningPrimary();
+                Futures.cancelAll(attempts);
+            });
+        }
+
+        synchronized void start() {
+            launch();
+            scheduleHedge();
+        }
+
+        private synchronized void launch() {
+            final int attempt = launched++;
+            outstanding++;
+            final long start = System.nanoTime();
+            final CompletableFuture<? extends T> future;
+            try {
+                future = Objects.requireNonNull(supplier.get(), "supplier returned a null future");
+            } catch (Throwable ex) {
+                onFailure(ex);
+                return;
+            }
+            attempts.add(future);
+            if (attempt == 0) {
+                primary = future;
+                primaryStart = start;
+            }
+            future.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    if (attempt == 0) {
+                        samplePrimary(System.nanoTime() - start);
+                    }
+                    if (result.complete(value) && attempt > 0) {
+                        hedgeWins.increment();
+                    }
+                } else {
+                    onFailure(ex);
+                }
+            });
+        }
+
+        private synchronized void scheduleHedge() {
+            if (pendingHedge != null || launched > policy.getMaxHedges() || result.isDone()) {
+                return;
+            }
+            pendingHedge = timer.newTimeout(this::onTimer, currentDelayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void onTimer() {
+            pendingHedge = null;
+            hedge();
+        }
+
+        private synchronized void hedge() {
+            if (result.isDone() || launched > policy.getMaxHedges()) {
+                return;
+            }
+            hedgesFired.increment();
+            launch();
+            scheduleHedge();
+        }
+
+        private synchronized void onFailure(Throwable ex) {
+            if (--outstanding > 0) {
+                // 还有请求在执行，等待它们
+                return;
+            }
+            if (launched > policy.getMaxHedges()) {
+                if (result.completeExceptionally(Futures.unwrap(ex))) {
+                    failures.increment();
+                }
+                return;
+            }
+            // 当前没有执行中的请求，立即发起备份请求而不是等待延迟
+            cancelPendingHedge();
+            hedge();
+        }
+
+        /**
+         * 主请求被备份请求抢先后会被取消，取消时已经经过的时间是它延迟的下限，
+         * 不记录的话慢的主请求永远不会进入样本，分位数会越来越低
+         */
+        private void sampleRunningPrimary() {
+            final long elapsed;
+            synchronized (this) {
+                if (primary == null || primary.isDone()) {
+                    return;
+                }
+                elapsed = System.nanoTime() - primaryStart;
+            }
+            samplePrimary(elapsed);
+        }
+
+        private void samplePrimary(long nanos) {
+            synchronized (this) {
+                if (primarySampled) {
+                    return;
+                }
+                primarySampled = true;
+            }
+            recordLatency(nanos);
+        }
+
+        private synchronized void cancelPendingHedge() {
+            if (pendingHedge != null) {
+                pendingHedge.cancel();
+                pendingHedge = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * ClassName: Promise <br/>
+ * Description: 轻量的单次赋值promise。<br/>
+ * 与FutureTask相比不需要阻塞get等待结果，完成时直接回调；
+ * 与CompletableFuture相比不支持依赖阶段的链式组合，每注册一个回调只分配一个节点，
+ * 而CompletableFuture.whenComplete会分配一个Completion节点和一个新的CompletableFuture。<br/>
+ * 状态只有一个字段：未完成时是回调节点组成的栈（没有回调时为null），完成后是结果，通过CAS切换。
+ * 回调默认在完成promise的线程上执行（注册时已经完成则在注册线程上执行），也可以指定executor。<br/>
+ * date: 2026/10/20 16:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Promise<T> {
+
+    private static final AtomicReferenceFieldUpdater<Promise, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Promise.class, Object.class, "state");
+
+    /**
+     * 结果为null时的占位
+     */
+    private static final Object NIL = new Object();
+
+    /**
+     * null、Listener：未完成；NIL、Failure或者值：已完成
+     */
+    private volatile Object state;
+
+    public static <T> Promise<T> create() {
+        return new Promise<>();
+    }
+
+    public static <T> Promise<T> completed(T value) {
+        final Promise<T> promise = new Promise<>();
+        promise.state = value == null ? NIL : value;
+        return promise;
+    }
+
+    public static <T> Promise<T> failed(Throwable ex) {
+        final Promise<T> promise = new Promise<>();
+        promise.state = new Failure(Objects.requireNonNull(ex));
+        return promise;
+    }
+
+    /**
+     * 在executor中执行task，替代new Thread(futureTask).start()再阻塞get的写法
+     */
+    public static <T> Promise<T> submit(Callable<? extends T> task, Executor executor) {
+        final Promise<T> promise = new Promise<>();
+        executor.execute(() -> {
+            try {
+                promise.complete(task.call());
+            } catch (Throwable ex) {
+                promise.fail(ex);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * 从CompletionStage转换，stage完成时完成promise
+     */
+    public static <T> Promise<T> from(CompletionStage<? extends T> stage) {
+        final Promise<T> promise = new Promise<>();
+        stage.whenComplete((value, ex) -> {
+            if (ex != null) {
+                promise.fail(Futures.unwrap(ex));
+            } else {
+                promise.complete(value);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * 以成功值完成
+     *
+     * @return 是否由本次调用完成，已经完成时返回false
+     */
+    public boolean complete(T value) {
+        return finish(value == null ? NIL : value);
+    }
+
+    /**
+     * 以异常完成
+     *
+     * @return 是否由本次调用完成，已经完成时返回false
+     */
+    public boolean fail(Throwable ex) {
+        return finish(new Failure(Objects.requireNonNull(ex)));
+    }
+
+    public boolean isDone() {
+        final Object s = state;
+        return s != null && !(s instanceof Listener);
+    }
+
+    public boolean isFailed() {
+        return state instanceof Failure;
+    }
+
+    /**
+     * 注册完成回调，在完成promise的线程上执行；已经完成时立即在当前线程上执行
+     *
+     * @param action 参数为结果和异常，其中一个为null
+     * @return this
+     */
+    public Promise<T> onComplete(BiConsumer<? super T, ? super Throwable> action) {
+        return onComplete(action, null);
+    }
+
+    /**
+     * 注册完成回调，在executor中执行
+     *
+     * @return this
+     */
+    public Promise<T> onComplete(BiConsumer<? super T, ? super Throwable> action, Executor executor) {
+        final Listener node = new Listener(Objects.requireNonNull(action), executor);
+        for (; ; ) {
+            final Object s = state;
+            if (s != null && !(s instanceof Listener)) {
+                node.fire(s);
+                return this;
+            }
+            node.next = (Listener) s;
+            if (STATE.compareAndSet(this, s, node)) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * 转换结果；失败时直接传递异常，mapper抛出的异常使返回的promise失败
+     */
+    public <U> Promise<U> map(Function<? super T, ? extends U> mapper) {
+        final Promise<U> target = new Promise<>();
+        onComplete((value, ex) -> {
+            if (ex != null) {
+                target.fail(ex);
+                return;
+            }
+            final U mapped;
+            try {
+                mapped = mapper.apply(value);
+            } catch (Throwable failure) {
+                target.fail(failure);
+                return;
+            }
+            target.complete(mapped);
+        });
+        return target;
+    }
+
+    /**
+     * 转换为CompletableFuture，与其它异步代码组合；取消返回的future不影响promise
+     */
+    public CompletableFuture<T> toCompletableFuture() {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        onComplete((value, ex) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 阻塞等待结果，只用于测试或者程序的入口处
+     *
+     * @throws CompletionException 以异常完成时包装该异常
+     */
+    public T join() {
+        if (!isDone()) {
+            final Thread waiter = Thread.currentThread();
+            onComplete((value, ex) -> LockSupport.unpark(waiter));
+            while (!isDone()) {
+                LockSupport.park(this);
+            }
+        }
+        return report(state);
+    }
+
+    @Override
+    public String toString() {
+        final Object s = state;
+        if (s == null || s instanceof Listener) {
+            return "Promise[pending]";
+        }
+        return s instanceof Failure ? "Promise[failed: " + ((Failure) s).ex + "]" : "Promise[" + decode(s) + "]";
+    }
+
+    private boolean finish(Object result) {
+        for (; ; ) {
+            final Object s = state;
+            if (s != null && !(s instanceof Listener)) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, s, result)) {
+                fireAll((Listener) s, result);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 栈中的回调是后注册的在前，反转后按注册顺序执行
+     */
+    private static void fireAll(Listener head, Object result) {
+        Listener reversed = null;
+        while (head != null) {
+            final Listener next = head.next;
+            head.next = reversed;
+            reversed = head;
+            head = next;
+        }
+        while (reversed != null) {
+            reversed.fire(result);
+            reversed = reversed.next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T decode(Object result) {
+        return result == NIL ? null : (T) result;
+    }
+
+    private static <T> T report(Object result) {
+        if (result instanceof Failure) {
+            throw new CompletionException(((Failure) result).ex);
+        }
+        return decode(result);
+    }
+
+    private static final class Failure {
+
+        private final Throwable ex;
+
+        Failure(Throwable ex) {
+            this.ex = ex;
+        }
+    }
+
+    private static final class Listener implements Runnable {
+
+        private final BiConsumer<Object, Throwable> action;
+
+        private final Executor executor;
+
+        private Listener next;
+
+        private Object result;
+
+        @SuppressWarnings("unchecked")
+        Listener(BiConsumer<?, ? super Throwable> action, Executor executor) {
+            this.action = (BiConsumer<Object, Throwable>) action;
+            this.executor = executor;
+        }
+
+        void fire(Object result) {
+            this.result = result;
+            if (executor == null) {
+                run();
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                // executor已经关闭，退回到当前线程执行，保证回调不丢失
+                run();
+            }
+        }
+
+        /**
+         * 回调抛出的异常不影响其它回调，交给线程的未捕获异常处理器
+         */
+        @Override
+        public void run() {
+            try {
+                if (result instanceof Failure) {
+                    action.accept(null, ((Failure) result).ex);
+                } else {
+                    action.accept(decode(result), null);
+                }
+            } catch (Throwable ex) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiConsumer;
+
+/**
+ * ClassName: PromiseBenchmark <br/>
+ * Description: FutureTask、CompletableFuture和Promise每次完成的耗时与内存分配对比。<br/>
+ * 每次操作：创建、注册回调（FutureTask没有回调，改为run后get）、完成。
+ * 全部在当前线程同步执行，用ThreadMXBean统计当前线程分配的内存；第一轮作为预热。<br/>
+ * date: 2026/10/20 17:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class PromiseBenchmark {
+
+    private static final int ITERATIONS = 2_000_000;
+
+    private static final int ROUNDS = 5;
+
+    private static final int FAN_OUT = 8;
+
+    private static final Integer VALUE = 100;
+
+    private static final Callable<Integer> TASK = () -> VALUE;
+
+    private static long blackhole;
+
+    private static final BiConsumer<Integer, Throwable> LISTENER = (value, ex) -> blackhole += value;
+
+    public static void main(String[] args) throws Exception {
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            report("FutureTask", PromiseBenchmark::futureTask);
+            report("CompletableFuture", () -> completableFuture(1));
+            report("Promise", () -> promise(1));
+            report("CompletableFuture x" + FAN_OUT, () -> completableFuture(FAN_OUT));
+            report("Promise x" + FAN_OUT, () -> promise(FAN_OUT));
+        }
+        System.out.println(blackhole);
+    }
+
+    private static void futureTask() throws ExecutionException, InterruptedException {
+        final FutureTask<Integer> task = new FutureTask<>(TASK);
+        task.run();
+        blackhole += task.get();
+    }
+
+    private static void completableFuture(int listeners) {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        for (int i = 0; i < listeners; i++) {
+            future.whenComplete(LISTENER);
+        }
+        future.complete(VALUE);
+    }
+
+    private static void promise(int listeners) {
+        final Promise<Integer> promise = Promise.create();
+        for (int i = 0; i < listeners; i++) {
+            promise.onComplete(LISTENER);
+        }
+        promise.complete(VALUE);
+    }
+
+    private static void report(String name, Operation operation) throws Exception {
+        final long allocatedBefore = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = ThreadUtils.allocatedBytes() - allocatedBefore;
+        System.out.printf("  %-20s %5d ns/op %5d bytes/op%n", name,
+                elapsed / ITERATIONS, allocatedBefore < 0 ? -1 : allocated / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
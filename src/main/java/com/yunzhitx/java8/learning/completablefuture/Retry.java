@@ -0,0 +1,168 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import com.yunzhitx.java8.learning.util.HashedWheelTimer;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: Retry <br/>
+ * Description: 非阻塞的异步重试。<br/>
+ * 与在线程池线程中ThreadUtils.sleep再重试不同，退避期间不占用任何线程：
+ * 下一次尝试由时间轮定时器在到期时发起。<br/>
+ * date: 2026/10/20 13:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Retry {
+
+    private final RetryPolicy policy;
+
+    private final HashedWheelTimer timer;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder successes = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final AtomicLongArray attemptsHistogram;
+
+    /**
+     * 使用共享的时间轮定时器
+     */
+    public Retry(RetryPolicy policy) {
+        this(policy, HashedWheelTimer.shared());
+    }
+
+    /**
+     * @param policy 重试策略
+     * @param timer  发起下一次尝试的定时器，supplier会在定时器线程上调用，只应提交异步任务而不能阻塞
+     */
+    public Retry(RetryPolicy policy, HashedWheelTimer timer) {
+        this.policy = Objects.requireNonNull(policy);
+        this.timer = Objects.requireNonNull(timer);
+        this.attemptsHistogram = new AtomicLongArray(policy.getMaxAttempts());
+    }
+
+    /**
+     * 一次性的重试调用，不保留统计
+     *
+     * @param supplier 每次调用get()发起一次新的尝试
+     * @param policy   重试策略
+     */
+    public static <T> CompletableFuture<T> async(Supplier<? extends CompletableFuture<? extends T>> supplier,
+                                                 RetryPolicy policy) {
+        return new Retry(policy).async(supplier);
+    }
+
+    /**
+     * 发起带重试的异步调用
+     *
+     * @param supplier 每次调用get()发起一次新的尝试
+     * @return 第一次成功的结果；不可重试的异常、尝试次数用完或超过截止时间时以最后的异常结束
+     */
+    public <T> CompletableFuture<T> async(Supplier<? extends CompletableFuture<? extends T>> supplier) {
+        calls.increment();
+        final RetryCall<T> call = new RetryCall<>(supplier);
+        if (policy.getDeadlineNanos() > 0) {
+            Futures.orTimeout(call.result, policy.getDeadlineNanos(), TimeUnit.NANOSECONDS, timer);
+        }
+        call.attempt();
+        return call.result;
+    }
+
+    public RetryMetrics metrics() {
+        final long[] histogram = new long[attemptsHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = attemptsHistogram.get(i);
+        }
+        return new RetryMetrics(calls.sum(), successes.sum(), failures.sum(), histogram);
+    }
+
+    private final class RetryCall<T> {
+
+        private final Supplier<? extends CompletableFuture<? extends T>> supplier;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private final long start = System.nanoTime();
+
+        /**
+         * 已发起的尝试次数，同一时刻只有一个尝试在进行，不需要同步
+         */
+        private volatile int attempts;
+
+        private volatile CompletableFuture<? extends T> current;
+
+        RetryCall(Supplier<? extends CompletableFuture<? extends T>> supplier) {
+            this.supplier = supplier;
+            result.whenComplete((value, ex) -> {
+                record(ex == null);
+                // 截止时间到达或者被调用方取消时，一并取消正在进行的尝试
+                final CompletableFuture<? extends T> attempt = current;
+                if (attempt != null && !attempt.isDone()) {
+                    attempt.cancel(false);
+                }
+            });
+        }
+
+        void attempt() {
+            if (result.isDone()) {
+                return;
+            }
+            attempts++;
+            final CompletableFuture<? extends T> future;
+            try {
+                future = Objects.requireNonNull(supplier.get(), "supplier returned a null future");
+            } catch (Throwable ex) {
+                onFailure(ex);
+                return;
+            }
+            current = future;
+            future.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else {
+                    onFailure(ex);
+                }
+            });
+        }
+
+        private void onFailure(Throwable failure) {
+            final Throwable ex = Futures.unwrap(failure);
+            if (result.isDone()) {
+                return;
+            }
+            if (attempts >= policy.getMaxAttempts() || !policy.shouldRetry(ex)) {
+                fail(ex);
+                return;
+            }
+            // 完全抖动：在[0, 退避上限)之间随机
+            final long ceiling = policy.backoffCeilingNanos(attempts);
+            final long delay = ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling);
+            if (policy.getDeadlineNanos() > 0
+                    && System.nanoTime() - start + delay >= policy.getDeadlineNanos()) {
+                // 等不到下一次尝试就会超过截止时间，直接失败
+                fail(ex);
+                return;
+            }
+            timer.newTimeout(this::attempt, delay, TimeUnit.NANOSECONDS);
+        }
+
+        private void fail(Throwable ex) {
+            result.completeExceptionally(ex);
+        }
+
+        private void record(boolean success) {
+            (success ? successes : failures).increment();
+            attemptsHistogram.incrementAndGet(Math.max(1, Math.min(attempts, attemptsHistogram.length())) - 1);
+        }
+    }
+}
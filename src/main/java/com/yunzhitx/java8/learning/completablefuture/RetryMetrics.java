@@ -0,0 +1,71 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import java.util.Arrays;
+
+/**
+ * ClassName: RetryMetrics <br/>
+ * Description: 重试统计快照<br/>
+ * date: 2026/10/20 13:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class RetryMetrics {
+
+    private final long calls;
+
+    private final long successes;
+
+    private final long failures;
+
+    /**
+     * attemptsHistogram[i]表示用了i+1次尝试才结束的调用数
+     */
+    private final long[] attemptsHistogram;
+
+    RetryMetrics(long calls, long successes, long failures, long[] attemptsHistogram) {
+        this.calls = calls;
+        this.successes = successes;
+        this.failures = failures;
+        this.attemptsHistogram = attemptsHistogram;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * 每次调用的尝试次数分布，下标i对应i+1次尝试
+     */
+    public long[] getAttemptsHistogram() {
+        return attemptsHistogram.clone();
+    }
+
+    public long getTotalAttempts() {
+        long total = 0;
+        for (int i = 0; i < attemptsHistogram.length; i++) {
+            total += attemptsHistogram[i] * (i + 1);
+        }
+        return total;
+    }
+
+    public double getMeanAttemptsPerCall() {
+        final long finished = successes + failures;
+        return finished == 0 ? 0 : (double) getTotalAttempts() / finished;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryMetrics(calls=" + calls + ", successes=" + successes + ", failures=" + failures
+                + ", meanAttemptsPerCall=" + String.format("%.2f", getMeanAttemptsPerCall())
+                + ", attemptsHistogram=" + Arrays.toString(attemptsHistogram) + ")";
+    }
+}
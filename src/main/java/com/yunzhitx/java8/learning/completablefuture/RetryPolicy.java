@@ -0,0 +1,100 @@
+package com.yunzhitx.java8.learning.completablefuture;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * ClassName: RetryPolicy <br/>
+ * Description: 重试策略：最大尝试次数、带完全抖动的指数退避、可重试的异常、整体截止时间<br/>
+ * date: 2026/10/20 13:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+
+    private final long baseDelayNanos;
+
+    private final long maxDelayNanos;
+
+    private final Predicate<? super Throwable> retryOn;
+
+    /**
+     * 小于等于0表示没有整体截止时间
+     */
+    private final long deadlineNanos;
+
+    private RetryPolicy(int maxAttempts, long baseDelayNanos, long maxDelayNanos,
+                        Predicate<? super Throwable> retryOn, long deadlineNanos) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = baseDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.retryOn = retryOn;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 最多尝试maxAttempts次（包括第一次），默认退避100ms起、最长10s，任何异常都重试，没有整体截止时间
+     */
+    public static RetryPolicy maxAttempts(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        return new RetryPolicy(maxAttempts, Duration.ofMillis(100).toNanos(), Duration.ofSeconds(10).toNanos(),
+                ex -> true, 0);
+    }
+
+    /**
+     * 指数退避加完全抖动：第n次重试前等待[0, min(maxDelay, baseDelay * 2^(n-1)))之间的随机时间，
+     * 避免大量调用方在同一时刻一起重试
+     */
+    public RetryPolicy withBackoff(Duration baseDelay, Duration maxDelay) {
+        if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("require 0 <= baseDelay <= maxDelay");
+        }
+        return new RetryPolicy(maxAttempts, baseDelay.toNanos(), maxDelay.toNanos(), retryOn, deadlineNanos);
+    }
+
+    /**
+     * 只对满足条件的异常重试，传入的异常已去掉CompletionException包装
+     */
+    public RetryPolicy retryOn(Predicate<? super Throwable> retryOn) {
+        return new RetryPolicy(maxAttempts, baseDelayNanos, maxDelayNanos, Objects.requireNonNull(retryOn), deadlineNanos);
+    }
+
+    /**
+     * 整体截止时间：超过后不再重试，正在进行的尝试也以TimeoutException结束
+     */
+    public RetryPolicy withDeadline(Duration deadline) {
+        return new RetryPolicy(maxAttempts, baseDelayNanos, maxDelayNanos, retryOn, deadline.toNanos());
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    boolean shouldRetry(Throwable ex) {
+        return retryOn.test(ex);
+    }
+
+    /**
+     * 退避上限：min(maxDelay, baseDelay * 2^(retry-1))
+     *
+     * @param retry 第几次重试，从1开始
+     */
+    long backoffCeilingNanos(int retry) {
+        final int shift = Math.min(retry - 1, 62);
+        final long ceiling = baseDelayNanos << shift;
+        if (ceiling < 0 || (ceiling >> shift) != baseDelayNanos) {
+            return maxDelayNanos;
+        }
+        return Math.min(maxDelayNanos, ceiling);
+    }
+}
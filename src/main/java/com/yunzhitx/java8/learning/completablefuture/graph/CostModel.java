@@ -0,0 +1,58 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ClassName: CostModel <br/>
+ * Description: 按节点id记录的耗时估计，每次运行后用指数加权移动平均更新，用于下一次运行的关键路径调度。<br/>
+ * 可以通过snapshot()导出、再用构造方法导入，在进程重启之间保留<br/>
+ * date: 2026/10/19 18:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class CostModel {
+
+    /**
+     * 新样本的权重
+     */
+    private static final double ALPHA = 0.3;
+
+    private final Map<String, Double> estimates = new ConcurrentHashMap<>();
+
+    private final long defaultNanos;
+
+    /**
+     * @param defaultNanos 没有历史数据的节点使用的耗时估计
+     */
+    public CostModel(long defaultNanos) {
+        this(defaultNanos, Collections.emptyMap());
+    }
+
+    /**
+     * @param defaultNanos 没有历史数据的节点使用的耗时估计
+     * @param history      之前导出的耗时估计
+     */
+    public CostModel(long defaultNanos, Map<String, Long> history) {
+        this.defaultNanos = defaultNanos;
+        history.forEach((id, nanos) -> estimates.put(id, nanos.doubleValue()));
+    }
+
+    public long estimateNanos(String nodeId) {
+        final Double estimate = estimates.get(nodeId);
+        return estimate == null ? defaultNanos : estimate.longValue();
+    }
+
+    void record(String nodeId, long nanos) {
+        estimates.merge(nodeId, (double) nanos, (old, sample) -> old + ALPHA * (sample - old));
+    }
+
+    public Map<String, Long> snapshot() {
+        final Map<String, Long> snapshot = new HashMap<>();
+        estimates.forEach((id, nanos) -> snapshot.put(id, nanos.longValue()));
+        return snapshot;
+    }
+}
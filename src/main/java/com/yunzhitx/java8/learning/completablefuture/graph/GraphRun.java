@@ -0,0 +1,81 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+import java.util.*;
+
+/**
+ * ClassName: GraphRun <br/>
+ * Description: 任务图一次运行的结果：各节点的结果与耗时、总耗时、按实际耗时计算的关键路径<br/>
+ * date: 2026/10/19 18:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class GraphRun {
+
+    private final Map<String, Object> results;
+
+    private final Map<String, NodeTiming> timings;
+
+    private final List<String> criticalPath;
+
+    private final long makespanNanos;
+
+    private final long estimatedCriticalPathNanos;
+
+    GraphRun(Map<String, Object> results, Map<String, NodeTiming> timings, List<String> criticalPath,
+             long makespanNanos, long estimatedCriticalPathNanos) {
+        this.results = Collections.unmodifiableMap(results);
+        this.timings = Collections.unmodifiableMap(timings);
+        this.criticalPath = Collections.unmodifiableList(criticalPath);
+        this.makespanNanos = makespanNanos;
+        this.estimatedCriticalPathNanos = estimatedCriticalPathNanos;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getResult(String nodeId) {
+        return (T) results.get(nodeId);
+    }
+
+    /**
+     * 各节点耗时，按开始时间排序
+     */
+    public Map<String, NodeTiming> getTimings() {
+        return timings;
+    }
+
+    /**
+     * 按本次各节点的执行时间（不含等待）计算的关键路径：依赖图中执行时间之和最大的一条路径
+     */
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * 关键路径上各节点执行时间之和。节点耗时与本次相同时，无论并行度多大，总耗时都不会低于它；
+     * 与makespan的差距是并行度不足或者调度顺序造成的等待
+     */
+    public long getCriticalPathNanos() {
+        return criticalPath.stream().mapToLong(id -> timings.get(id).getDurationNanos()).sum();
+    }
+
+    /**
+     * 运行开始到最后一个节点结束的总耗时
+     */
+    public long getMakespanNanos() {
+        return makespanNanos;
+    }
+
+    /**
+     * 运行前根据CostModel估计的关键路径长度
+     */
+    public long getEstimatedCriticalPathNanos() {
+        return estimatedCriticalPathNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "GraphRun(makespan=" + makespanNanos / 1_000_000 + "ms, criticalPath=" + criticalPath
+                + ", criticalPathTime=" + getCriticalPathNanos() / 1_000_000 + "ms, estimatedCriticalPathTime="
+                + estimatedCriticalPathNanos / 1_000_000 + "ms)";
+    }
+}
@@ -0,0 +1,83 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+/**
+ * ClassName: NodeTiming <br/>
+ * Description: 节点一次执行的耗时，时间都是相对本次运行开始的纳秒数<br/>
+ * date: 2026/10/19 18:25<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class NodeTiming {
+
+    private final String nodeId;
+
+    private final long readyNanos;
+
+    private final long dispatchNanos;
+
+    private final long startNanos;
+
+    private final long endNanos;
+
+    NodeTiming(String nodeId, long readyNanos, long dispatchNanos, long startNanos, long endNanos) {
+        this.nodeId = nodeId;
+        this.readyNanos = readyNanos;
+        this.dispatchNanos = dispatchNanos;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 依赖全部完成、进入就绪队列的时间
+     */
+    public long getReadyNanos() {
+        return readyNanos;
+    }
+
+    /**
+     * 交给线程池的时间
+     */
+    public long getDispatchNanos() {
+        return dispatchNanos;
+    }
+
+    /**
+     * 线程开始执行任务的时间
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * 就绪后到开始执行的等待时间，包括等待派发和在线程池队列中排队
+     */
+    public long getWaitNanos() {
+        return startNanos - readyNanos;
+    }
+
+    /**
+     * 派发后在线程池队列中排队的时间
+     */
+    public long getQueueNanos() {
+        return startNanos - dispatchNanos;
+    }
+
+    @Override
+    public String toString() {
+        return nodeId + "(wait=" + getWaitNanos() / 1_000_000 + "ms, queue=" + getQueueNanos() / 1_000_000 + "ms, run=" + getDurationNanos() / 1_000_000
+                + "ms, end=" + endNanos / 1_000_000 + "ms)";
+    }
+}
@@ -0,0 +1,20 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+/**
+ * ClassName: TaskContext <br/>
+ * Description: 节点执行时的上下文，用于读取依赖节点的结果<br/>
+ * date: 2026/10/19 18:05<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public interface TaskContext {
+
+    /**
+     * 获取依赖节点的结果，只能读取声明过的依赖
+     *
+     * @param nodeId 依赖节点的id
+     * @return 依赖节点的结果
+     */
+    <T> T get(String nodeId);
+}
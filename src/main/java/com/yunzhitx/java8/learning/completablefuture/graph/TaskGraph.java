@@ -0,0 +1,147 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * ClassName: TaskGraph <br/>
+ * Description: 不可变的任务依赖图（DAG），构建时检查依赖是否存在以及是否有环<br/>
+ * date: 2026/10/19 18:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class TaskGraph {
+
+    /**
+     * 节点按拓扑顺序排列
+     */
+    private final String[] ids;
+
+    private final Function<TaskContext, ?>[] tasks;
+
+    private final int[][] dependencies;
+
+    private final int[][] dependents;
+
+    private final Map<String, Integer> indexes;
+
+    private TaskGraph(String[] ids, Function<TaskContext, ?>[] tasks, int[][] dependencies, int[][] dependents,
+                      Map<String, Integer> indexes) {
+        this.ids = ids;
+        this.tasks = tasks;
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+        this.indexes = indexes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public List<String> getNodeIds() {
+        return Collections.unmodifiableList(Arrays.asList(ids));
+    }
+
+    String id(int node) {
+        return ids[node];
+    }
+
+    Function<TaskContext, ?> task(int node) {
+        return tasks[node];
+    }
+
+    int[] dependencies(int node) {
+        return dependencies[node];
+    }
+
+    int[] dependents(int node) {
+        return dependents[node];
+    }
+
+    Integer indexOf(String id) {
+        return indexes.get(id);
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Function<TaskContext, ?>> tasks = new LinkedHashMap<>();
+
+        private final Map<String, List<String>> dependencies = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 添加节点
+         *
+         * @param id           节点id，不能重复
+         * @param task         节点任务，通过TaskContext读取依赖的结果
+         * @param dependencies 依赖的节点id
+         */
+        public Builder add(String id, Function<TaskContext, ?> task, String... dependencies) {
+            Objects.requireNonNull(id);
+            Objects.requireNonNull(task);
+            if (tasks.containsKey(id)) {
+                throw new IllegalArgumentException("duplicate node: " + id);
+            }
+            tasks.put(id, task);
+            this.dependencies.put(id, new ArrayList<>(new LinkedHashSet<>(Arrays.asList(dependencies))));
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public TaskGraph build() {
+            // Kahn算法做拓扑排序，同时检查环
+            final Map<String, Integer> inDegree = new HashMap<>();
+            final Map<String, List<String>> children = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+                inDegree.put(entry.getKey(), entry.getValue().size());
+                for (String dependency : entry.getValue()) {
+                    if (!tasks.containsKey(dependency)) {
+                        throw new IllegalStateException("node '" + entry.getKey() + "' depends on unknown node '" + dependency + "'");
+                    }
+                    children.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            final Deque<String> queue = new ArrayDeque<>();
+            tasks.keySet().stream().filter(id -> inDegree.get(id) == 0).forEach(queue::add);
+            final List<String> order = new ArrayList<>(tasks.size());
+            while (!queue.isEmpty()) {
+                final String id = queue.poll();
+                order.add(id);
+                for (String child : children.getOrDefault(id, Collections.emptyList())) {
+                    if (inDegree.merge(child, -1, Integer::sum) == 0) {
+                        queue.add(child);
+                    }
+                }
+            }
+            if (order.size() != tasks.size()) {
+                final Set<String> cyclic = new TreeSet<>(tasks.keySet());
+                cyclic.removeAll(order);
+                throw new IllegalStateException("task graph contains a cycle among " + cyclic);
+            }
+
+            final int size = order.size();
+            final Map<String, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                indexes.put(order.get(i), i);
+            }
+            final String[] ids = order.toArray(new String[0]);
+            final Function<TaskContext, ?>[] taskArray = new Function[size];
+            final int[][] dependencyArray = new int[size][];
+            final int[][] dependentArray = new int[size][];
+            for (int i = 0; i < size; i++) {
+                taskArray[i] = tasks.get(ids[i]);
+                dependencyArray[i] = dependencies.get(ids[i]).stream().mapToInt(indexes::get).toArray();
+                dependentArray[i] = children.getOrDefault(ids[i], Collections.emptyList()).stream()
+                        .mapToInt(indexes::get).toArray();
+            }
+            return new TaskGraph(ids, taskArray, dependencyArray, dependentArray, Collections.unmodifiableMap(indexes));
+        }
+    }
+}
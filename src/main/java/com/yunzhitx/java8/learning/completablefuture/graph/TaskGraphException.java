@@ -0,0 +1,25 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+/**
+ * ClassName: TaskGraphException <br/>
+ * Description: 任务图中某个节点执行失败<br/>
+ * date: 2026/10/19 18:07<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class TaskGraphException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String nodeId;
+
+    public TaskGraphException(String nodeId, Throwable cause) {
+        super("task graph node '" + nodeId + "' failed", cause);
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,241 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * ClassName: TaskGraphExecutor <br/>
+ * Description: 按关键路径优先调度的任务图执行器。<br/>
+ * 运行前用CostModel估计每个节点到终点的最长剩余路径（节点自身耗时 + 后继中最长的剩余路径），
+ * 就绪节点按该值从大到小派发，同时最多执行parallelism个节点，
+ * 这样关键路径上的节点不会排在大量短的旁支任务后面。运行结束后用实际耗时更新CostModel。<br/>
+ * date: 2026/10/19 18:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class TaskGraphExecutor {
+
+    private final Executor executor;
+
+    private final int parallelism;
+
+    private final CostModel costModel;
+
+    /**
+     * @param executor    执行节点任务的线程池
+     * @param parallelism 同时执行的最大节点数，通常等于线程池大小
+     * @param costModel   耗时估计，多次运行之间共享以便学习
+     */
+    public TaskGraphExecutor(Executor executor, int parallelism, CostModel costModel) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = parallelism;
+        this.costModel = Objects.requireNonNull(costModel);
+    }
+
+    /**
+     * 执行任务图，任意节点失败时不再派发新节点，并以TaskGraphException结束
+     */
+    public CompletableFuture<GraphRun> execute(TaskGraph graph) {
+        final Run run = new Run(graph);
+        run.start();
+        return run.result;
+    }
+
+    private final class Run implements TaskContext {
+
+        private final TaskGraph graph;
+
+        private final CompletableFuture<GraphRun> result = new CompletableFuture<>();
+
+        /**
+         * 到终点的最长剩余路径估计
+         */
+        private final long[] rank;
+
+        private final Object[] values;
+
+        private final long[] readyAt;
+
+        /**
+         * 交给线程池的时间，与startedAt之间是在线程池队列中等待的时间
+         */
+        private final long[] dispatchedAt;
+
+        private final long[] startedAt;
+
+        private final long[] endedAt;
+
+        /**
+         * 以下状态在this上加锁访问
+         */
+        private final int[] remainingDependencies;
+
+        private final PriorityQueue<Integer> ready;
+
+        private final long origin = System.nanoTime();
+
+        private int running;
+
+        private int completed;
+
+        private boolean failed;
+
+        Run(TaskGraph graph) {
+            this.graph = graph;
+            final int size = graph.size();
+            this.rank = new long[size];
+            this.values = new Object[size];
+            this.readyAt = new long[size];
+            this.dispatchedAt = new long[size];
+            this.startedAt = new long[size];
+            this.endedAt = new long[size];
+            this.remainingDependencies = new int[size];
+            // 节点是拓扑序，逆序遍历时后继的rank都已经算好
+            for (int i = size - 1; i >= 0; i--) {
+                long longestSuccessor = 0;
+                for (int dependent : graph.dependents(i)) {
+                    longestSuccessor = Math.max(longestSuccessor, rank[dependent]);
+                }
+                rank[i] = costModel.estimateNanos(graph.id(i)) + longestSuccessor;
+                remainingDependencies[i] = graph.dependencies(i).length;
+            }
+            this.ready = new PriorityQueue<>(Math.max(1, size), (a, b) -> Long.compare(rank[b], rank[a]));
+        }
+
+        synchronized void start() {
+            if (graph.size() == 0) {
+                finish();
+                return;
+            }
+            for (int i = 0; i < graph.size(); i++) {
+                if (remainingDependencies[i] == 0) {
+                    ready.add(i);
+                }
+            }
+            dispatch();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(String nodeId) {
+            final Integer index = graph.indexOf(nodeId);
+            if (index == null) {
+                throw new IllegalArgumentException("unknown node: " + nodeId);
+            }
+            synchronized (this) {
+                if (endedAt[index] == 0) {
+                    throw new IllegalStateException("node '" + nodeId + "' has not completed, declare it as a dependency");
+                }
+                return (T) values[index];
+            }
+        }
+
+        private synchronized void dispatch() {
+            while (!failed && running < parallelism && !ready.isEmpty()) {
+                final int node = ready.poll();
+                running++;
+                dispatchedAt[node] = now();
+                try {
+                    executor.execute(() -> runNode(node));
+                } catch (Throwable ex) {
+                    onFailure(node, ex);
+                }
+            }
+        }
+
+        private void runNode(int node) {
+            // 开始时间在线程真正执行时记录，耗时和CostModel不包含线程池排队的时间
+            markStarted(node);
+            final Object value;
+            try {
+                value = graph.task(node).apply(this);
+            } catch (Throwable ex) {
+                onFailure(node, ex);
+                return;
+            }
+            onSuccess(node, value);
+        }
+
+        private synchronized void markStarted(int node) {
+            startedAt[node] = now();
+        }
+
+        private synchronized void onSuccess(int node, Object value) {
+            // 时间从1开始，保证endedAt不为0时表示已完成
+            endedAt[node] = Math.max(now(), startedAt[node] + 1);
+            values[node] = value;
+            running--;
+            completed++;
+            costModel.record(graph.id(node), endedAt[node] - startedAt[node]);
+            for (int dependent : graph.dependents(node)) {
+                if (--remainingDependencies[dependent] == 0) {
+                    readyAt[dependent] = endedAt[node];
+                    ready.add(dependent);
+                }
+            }
+            if (completed == graph.size()) {
+                finish();
+            } else {
+                dispatch();
+            }
+        }
+
+        private synchronized void onFailure(int node, Throwable ex) {
+            running--;
+            failed = true;
+            result.completeExceptionally(new TaskGraphException(graph.id(node), ex));
+        }
+
+        private void finish() {
+            final int size = graph.size();
+            final Map<String, Object> results = new HashMap<>();
+            final List<NodeTiming> timingList = new ArrayList<>(size);
+            long makespan = 0;
+            for (int i = 0; i < size; i++) {
+                results.put(graph.id(i), values[i]);
+                timingList.add(new NodeTiming(graph.id(i), readyAt[i], dispatchedAt[i], startedAt[i],
+                        endedAt[i]));
+                makespan = Math.max(makespan, endedAt[i]);
+            }
+            timingList.sort(Comparator.comparingLong(NodeTiming::getStartNanos));
+            final Map<String, NodeTiming> timings = new LinkedHashMap<>();
+            timingList.forEach(timing -> timings.put(timing.getNodeId(), timing));
+
+            // 按本次各节点的执行时间求图中最长的路径：节点是拓扑序，依赖的最长路径都已经算好。
+            // 不从最后结束的节点回溯，因为那样得到的路径包含节点等待并发名额的时间，而不是任务本身的依赖
+            final long[] longest = new long[size];
+            final int[] previous = new int[size];
+            int end = -1;
+            for (int i = 0; i < size; i++) {
+                previous[i] = -1;
+                for (int dependency : graph.dependencies(i)) {
+                    if (previous[i] < 0 || longest[dependency] > longest[previous[i]]) {
+                        previous[i] = dependency;
+                    }
+                }
+                longest[i] = (previous[i] < 0 ? 0 : longest[previous[i]]) + (endedAt[i] - startedAt[i]);
+                if (end < 0 || longest[i] > longest[end]) {
+                    end = i;
+                }
+            }
+            final LinkedList<String> criticalPath = new LinkedList<>();
+            for (int node = end; node >= 0; node = previous[node]) {
+                criticalPath.addFirst(graph.id(node));
+            }
+            long estimated = 0;
+            for (long r : rank) {
+                estimated = Math.max(estimated, r);
+            }
+            result.complete(new GraphRun(results, timings, criticalPath, makespan, estimated));
+        }
+
+        private long now() {
+            return System.nanoTime() - origin;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.yunzhitx.java8.learning.completablefuture.graph;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: TaskGraphUsage <br/>
+ * Description: 任务图的用法，对比第一次运行（没有耗时数据）和学习之后的运行<br/>
+ * date: 2026/10/19 19:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class TaskGraphUsage {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(2);
+
+    public static void main(String[] args) {
+        // 一条长链 a -> b -> c，加上4个互不依赖的短任务
+        // 两个线程时，如果先执行短任务，长链会被推迟
+        final TaskGraph.Builder builder = TaskGraph.builder();
+        for (int i = 0; i < 4; i++) {
+            builder.add("short" + i, ctx -> work(100));
+        }
+        final TaskGraph graph = builder
+                .add("a", ctx -> work(100))
+                .add("b", ctx -> (Integer) ctx.get("a") + work(100), "a")
+                .add("c", ctx -> (Integer) ctx.get("b") + work(100), "b")
+                .add("report", ctx -> "c = " + ctx.get("c"), "c", "short0", "short1", "short2", "short3")
+                .build();
+
+        final CostModel costModel = new CostModel(TimeUnit.MILLISECONDS.toNanos(1));
+        final TaskGraphExecutor executor = new TaskGraphExecutor(EXECUTOR_SERVICE, 2, costModel);
+        for (int i = 1; i <= 3; i++) {
+            final GraphRun run = executor.execute(graph).join();
+            System.out.println("run " + i + ": " + run);
+            System.out.println(run.getTimings().values());
+            assert "c = 300".equals(run.getResult("report"));
+        }
+
+        EXECUTOR_SERVICE.shutdown();
+    }
+
+    private static int work(int millis) {
+        ThreadUtils.sleep(millis);
+        return millis;
+    }
+}
@@ -0,0 +1,107 @@
+package com.yunzhitx.java8.learning.completablefuture.result;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: AsyncResults <br/>
+ * Description: CompletableFuture&lt;Result&lt;T, E&gt;&gt;的组合工具。<br/>
+ * 预期内的失败作为Result.err在正常完成的future中传递，只有真正的故障才以异常结束future，
+ * 因此每一步都只关心成功值，失败值会原样跳过后续的转换，与thenApply跳过异常的方式相同。<br/>
+ * date: 2026/10/20 15:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class AsyncResults {
+
+    private AsyncResults() {
+    }
+
+    /**
+     * 在executor中执行返回Result的任务
+     */
+    public static <T, E> CompletableFuture<Result<T, E>> supplyAsync(Supplier<Result<T, E>> supplier,
+                                                                     Executor executor) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    public static <T, E> CompletableFuture<Result<T, E>> ok(T value) {
+        return CompletableFuture.completedFuture(Result.ok(value));
+    }
+
+    public static <T, E> CompletableFuture<Result<T, E>> err(E error) {
+        return CompletableFuture.completedFuture(Result.err(error));
+    }
+
+    /**
+     * 转换成功值
+     */
+    public static <T, U, E> CompletableFuture<Result<U, E>> map(CompletableFuture<Result<T, E>> future,
+                                                                Function<? super T, ? extends U> mapper) {
+        return future.thenApply(result -> result.map(mapper));
+    }
+
+    /**
+     * 用成功值发起下一个异步步骤；失败值直接透传，不会调用mapper
+     */
+    public static <T, U, E> CompletableFuture<Result<U, E>> flatMap(
+            CompletableFuture<Result<T, E>> future,
+            Function<? super T, ? extends CompletableFuture<Result<U, E>>> mapper) {
+        return future.thenCompose(result -> result.isOk()
+                ? Objects.requireNonNull(mapper.apply(result.getValue()), "mapper returned a null future")
+                : CompletableFuture.completedFuture(result.castError()));
+    }
+
+    /**
+     * 把失败值转换为成功值，例如"找不到"时使用默认值；故障异常不受影响
+     */
+    public static <T, E> CompletableFuture<Result<T, E>> recover(CompletableFuture<Result<T, E>> future,
+                                                                 Function<? super E, ? extends T> mapper) {
+        return future.thenApply(result -> result.recover(mapper));
+    }
+
+    public static <T, E, F> CompletableFuture<Result<T, F>> mapError(CompletableFuture<Result<T, E>> future,
+                                                                     Function<? super E, ? extends F> mapper) {
+        return future.thenApply(result -> result.mapError(mapper));
+    }
+
+    /**
+     * 两个结果都成功时合并；任意一个失败时返回第一个参数中的失败值，其次是第二个
+     */
+    public static <A, B, R, E> CompletableFuture<Result<R, E>> combine(
+            CompletableFuture<Result<A, E>> first, CompletableFuture<Result<B, E>> second,
+            BiFunction<? super A, ? super B, ? extends R> combiner) {
+        return first.thenCombine(second, (a, b) -> {
+            if (a.isErr()) {
+                return a.castError();
+            }
+            if (b.isErr()) {
+                return b.castError();
+            }
+            return Result.ok(combiner.apply(a.getValue(), b.getValue()));
+        });
+    }
+
+    /**
+     * 转换为普通的future：失败值通过errorToException转换为异常，用于与只认异常的旧代码对接
+     */
+    public static <T, E> CompletableFuture<T> toFuture(CompletableFuture<Result<T, E>> future,
+                                                       Function<? super E, ? extends Throwable> errorToException) {
+        final CompletableFuture<T> target = new CompletableFuture<>();
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                target.completeExceptionally(ex);
+            } else if (result.isOk()) {
+                target.complete(result.getValue());
+            } else {
+                target.completeExceptionally(errorToException.apply(result.getError()));
+            }
+        });
+        return target;
+    }
+}
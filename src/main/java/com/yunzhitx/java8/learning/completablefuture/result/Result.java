@@ -0,0 +1,136 @@
+package com.yunzhitx.java8.learning.completablefuture.result;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * ClassName: Result <br/>
+ * Description: 成功值或者预期内的失败值。<br/>
+ * "找不到"、"参数不合法"这类业务上预期会发生的失败用Result.err表示，作为普通的值在调用链中传递，
+ * 不需要创建异常、填充调用栈，也不会被CompletionException再包装一层；
+ * 异常只留给真正的故障（超时、下游不可用、程序错误）。<br/>
+ * date: 2026/10/20 15:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Result<T, E> {
+
+    private final T value;
+
+    private final E error;
+
+    private final boolean ok;
+
+    private Result(T value, E error, boolean ok) {
+        this.value = value;
+        this.error = error;
+        this.ok = ok;
+    }
+
+    public static <T, E> Result<T, E> ok(T value) {
+        return new Result<>(value, null, true);
+    }
+
+    public static <T, E> Result<T, E> err(E error) {
+        return new Result<>(null, Objects.requireNonNull(error, "error"), false);
+    }
+
+    public boolean isOk() {
+        return ok;
+    }
+
+    public boolean isErr() {
+        return !ok;
+    }
+
+    /**
+     * 成功值，失败时抛出IllegalStateException
+     */
+    public T getValue() {
+        if (!ok) {
+            throw new IllegalStateException("not ok: " + error);
+        }
+        return value;
+    }
+
+    /**
+     * 失败值，成功时抛出IllegalStateException
+     */
+    public E getError() {
+        if (ok) {
+            throw new IllegalStateException("not an error");
+        }
+        return error;
+    }
+
+    public Optional<T> toOptional() {
+        return ok ? Optional.ofNullable(value) : Optional.empty();
+    }
+
+    public T orElse(T other) {
+        return ok ? value : other;
+    }
+
+    public <U> Result<U, E> map(Function<? super T, ? extends U> mapper) {
+        return ok ? ok(mapper.apply(value)) : castError();
+    }
+
+    public <U> Result<U, E> flatMap(Function<? super T, Result<U, E>> mapper) {
+        return ok ? Objects.requireNonNull(mapper.apply(value)) : castError();
+    }
+
+    public <F> Result<T, F> mapError(Function<? super E, ? extends F> mapper) {
+        return ok ? castValue() : err(mapper.apply(error));
+    }
+
+    /**
+     * 失败时转换为成功值
+     */
+    public Result<T, E> recover(Function<? super E, ? extends T> mapper) {
+        return ok ? this : ok(mapper.apply(error));
+    }
+
+    /**
+     * 成功和失败分别转换为同一种类型
+     */
+    public <R> R fold(Function<? super T, ? extends R> onOk, Function<? super E, ? extends R> onErr) {
+        return ok ? onOk.apply(value) : onErr.apply(error);
+    }
+
+    /**
+     * 失败值只有error字段有意义，直接复用当前实例而不是重新创建
+     */
+    @SuppressWarnings("unchecked")
+    <U> Result<U, E> castError() {
+        return (Result<U, E>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <F> Result<T, F> castValue() {
+        return (Result<T, F>) this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Result)) {
+            return false;
+        }
+        final Result<?, ?> other = (Result<?, ?>) o;
+        return ok == other.ok && Objects.equals(value, other.value) && Objects.equals(error, other.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ok, value, error);
+    }
+
+    @Override
+    public String toString() {
+        return ok ? "Ok(" + value + ")" : "Err(" + error + ")";
+    }
+}
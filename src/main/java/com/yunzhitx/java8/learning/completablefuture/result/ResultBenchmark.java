@@ -0,0 +1,107 @@
+package com.yunzhitx.java8.learning.completablefuture.result;
+
+import com.yunzhitx.java8.learning.completablefuture.Futures;
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ClassName: ResultBenchmark <br/>
+ * Description: 30%的查询"找不到"时，异常与Result两种写法的耗时和内存分配对比。<br/>
+ * 使用在当前线程直接执行的executor，整条调用链在调用线程上同步完成，
+ * 避免线程池调度的噪声，也便于用ThreadMXBean统计当前线程的内存分配。<br/>
+ * date: 2026/10/20 15:45<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class ResultBenchmark {
+
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final int ROUNDS = 5;
+
+    private static final int FAILURE_PERCENT = 30;
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private static final Long DEFAULT_PRICE = -1L;
+
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        for (int round = 1; round <= ROUNDS; round++) {
+            // 第一轮作为预热
+            report(round, "exception", ResultBenchmark::exceptionPipeline);
+            report(round, "result", ResultBenchmark::resultPipeline);
+        }
+        System.out.println(blackhole);
+    }
+
+    private static long exceptionPipeline(long id) {
+        return CompletableFuture.supplyAsync(() -> findOrThrow(id), DIRECT)
+                .thenApply(price -> price * 2)
+                .exceptionally(ex -> {
+                    // 依赖阶段收到的是CompletionException包装后的异常
+                    if (Futures.unwrap(ex) instanceof NotFoundException) {
+                        return DEFAULT_PRICE;
+                    }
+                    throw (RuntimeException) ex;
+                })
+                .join();
+    }
+
+    private static long resultPipeline(long id) {
+        final CompletableFuture<Result<Long, String>> found =
+                AsyncResults.supplyAsync(() -> find(id), DIRECT);
+        return AsyncResults.recover(AsyncResults.map(found, price -> price * 2), error -> DEFAULT_PRICE)
+                .join()
+                .getValue();
+    }
+
+    private static Long findOrThrow(long id) {
+        if (isMissing(id)) {
+            throw new NotFoundException("product not found: " + id);
+        }
+        return id;
+    }
+
+    private static Result<Long, String> find(long id) {
+        return isMissing(id) ? Result.err("product not found") : Result.ok(id);
+    }
+
+    private static boolean isMissing(long id) {
+        return id % 100 < FAILURE_PERCENT;
+    }
+
+    private static void report(int round, String name, Pipeline pipeline) {
+        final long offset = ThreadLocalRandom.current().nextLong(100);
+        final long allocatedBefore = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sum += pipeline.run(i + offset);
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = ThreadUtils.allocatedBytes() - allocatedBefore;
+        blackhole += sum;
+        System.out.printf("round %d %-9s %6d ns/op %6d bytes/op%n", round, name,
+                elapsed / ITERATIONS, allocatedBefore < 0 ? -1 : allocated / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface Pipeline {
+        long run(long id);
+    }
+
+    private static final class NotFoundException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        NotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com.yunzhitx.java8.learning.completablefuture.scope;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClassName: Scope <br/>
+ * Description: Java 8版本的结构化并发作用域，对应Java 21的StructuredTaskScope。<br/>
+ * 与CompletableFuture.allOf/anyOf不同，子任务的生命周期不会超出作用域：
+ * close时（或者策略触发shutdown时）还没开始的子任务直接跳过，执行中的子任务被中断，
+ * 并且等待它们全部结束后才返回，不再有结果已经没人关心却还在占用线程池的任务。<br/>
+ * 用法：
+ * <pre>
+ * try (Scope.ShutdownOnFailure scope = Scope.shutdownOnFailure(executor)) {
+ *     Subtask&lt;User&gt; user = scope.fork(() -&gt; findUser(id));
+ *     Subtask&lt;Order&gt; order = scope.fork(() -&gt; findOrder(id));
+ *     scope.join();
+ *     scope.throwIfFailed();
+ *     return new Detail(user.get(), order.get());
+ * }
+ * </pre>
+ * 中断是协作式的：子任务需要响应中断（阻塞调用抛出InterruptedException，或者循环中检查Thread.interrupted）才能提前结束。
+ * fork、join、close只能由打开作用域的线程调用。<br/>
+ * date: 2026/10/20 20:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class Scope implements AutoCloseable {
+
+    private final Executor executor;
+
+    private final Thread owner = Thread.currentThread();
+
+    /**
+     * 由this保护
+     */
+    private final List<Task<?>> tasks = new ArrayList<>();
+
+    /**
+     * 已提交但还没有结束的子任务数，由this保护，归零时notifyAll
+     */
+    private int outstanding;
+
+    private volatile boolean shutdown;
+
+    private boolean closed;
+
+    Scope(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * 不带策略的作用域：join等待所有子任务结束
+     */
+    public static Scope open(Executor executor) {
+        return new Scope(executor);
+    }
+
+    /**
+     * 任意一个子任务失败时shutdown，取消其它子任务
+     */
+    public static ShutdownOnFailure shutdownOnFailure(Executor executor) {
+        return new ShutdownOnFailure(executor);
+    }
+
+    /**
+     * 任意一个子任务成功时shutdown，取消其它子任务，例如向多个副本发起同一个请求
+     */
+    public static <T> ShutdownOnSuccess<T> shutdownOnSuccess(Executor executor) {
+        return new ShutdownOnSuccess<>(executor);
+    }
+
+    /**
+     * 在executor中执行子任务；作用域已经shutdown时不再执行，直接返回CANCELLED状态的子任务
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> callable) {
+        return fork(callable, -1);
+    }
+
+    /**
+     * 同fork(callable)，并给出子任务完整执行的预计耗时（例如下游的平均响应时间），
+     * report()用它估算被取消时节省的工作量
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> callable, Duration expectedCost) {
+        return fork(callable, expectedCost.toNanos());
+    }
+
+    private <T> Subtask<T> fork(Callable<? extends T> callable, long expectedNanos) {
+        ensureOwner();
+        final Task<T> task = new Task<>(Objects.requireNonNull(callable), expectedNanos);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("scope is closed");
+            }
+            tasks.add(task);
+            if (shutdown) {
+                task.skip();
+                return task;
+            }
+            outstanding++;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            task.reject(ex);
+        }
+        return task;
+    }
+
+    /**
+     * 等待所有子任务结束，或者作用域被shutdown（此时被中断的子任务也已经结束）
+     */
+    public Scope join() throws InterruptedException {
+        ensureOwner();
+        synchronized (this) {
+            while (outstanding > 0) {
+                wait();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 带超时的join，超时后shutdown并抛出TimeoutException
+     */
+    public Scope join(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        ensureOwner();
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (outstanding > 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            if (outstanding == 0) {
+                return this;
+            }
+        }
+        shutdown();
+        throw new TimeoutException();
+    }
+
+    /**
+     * 不再启动新的子任务，跳过还没开始的子任务，中断执行中的子任务，可以由任意线程调用
+     */
+    public void shutdown() {
+        final List<Task<?>> snapshot;
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            snapshot = new ArrayList<>(tasks);
+        }
+        // 先跳过还没开始的子任务，再中断执行中的，避免被中断的线程空出来后又开始执行排队中的子任务
+        for (Task<?> task : snapshot) {
+            task.skipIfNotStarted();
+        }
+        for (Task<?> task : snapshot) {
+            task.interrupt();
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * shutdown并等待所有子任务结束，保证子任务不会在作用域之外继续运行
+     */
+    @Override
+    public void close() {
+        ensureOwner();
+        shutdown();
+        boolean interrupted = false;
+        synchronized (this) {
+            closed = true;
+            while (outstanding > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 子任务执行情况和取消节省的工作量，在join之后调用
+     */
+    public synchronized ScopeReport report() {
+        int succeeded = 0;
+        int failed = 0;
+        int skipped = 0;
+        int interrupted = 0;
+        long runNanos = 0;
+        long succeededNanos = 0;
+        for (Task<?> task : tasks) {
+            runNanos += task.runNanos;
+            switch (task.state) {
+                case SUCCESS:
+                    succeeded++;
+                    succeededNanos += task.runNanos;
+                    break;
+                case FAILED:
+                    failed++;
+                    break;
+                case CANCELLED:
+                    if (task.started) {
+                        interrupted++;
+                    } else {
+                        skipped++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        // 被取消的子任务节省的是完整耗时减去已经执行的时间。完整耗时优先使用fork时给出的预计耗时；
+        // 没有给出时才用本作用域成功子任务的平均耗时，但ShutdownOnSuccess下唯一成功的是最快的那个，
+        // ShutdownOnFailure下通常没有成功的子任务，这个近似会严重低估
+        final long average = succeeded > 0 ? succeededNanos / succeeded : 0;
+        long savedNanos = 0;
+        for (Task<?> task : tasks) {
+            if (task.state == Subtask.State.CANCELLED) {
+                final long expected = task.expectedNanos >= 0 ? task.expectedNanos : average;
+                savedNanos += Math.max(0, expected - task.runNanos);
+            }
+        }
+        return new ScopeReport(tasks.size(), succeeded, failed, skipped, interrupted, runNanos, savedNanos);
+    }
+
+    /**
+     * 子任务结束时在执行它的线程上调用，子类在这里实现shutdown策略
+     */
+    protected void handleComplete(Subtask<?> subtask) {
+    }
+
+    void ensureOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("scope can only be used by the thread that opened it");
+        }
+    }
+
+    private synchronized void taskDone() {
+        if (--outstanding == 0) {
+            notifyAll();
+        }
+    }
+
+    private final class Task<T> implements Subtask<T>, Runnable {
+
+        private static final int NEW = 0;
+
+        private static final int RUNNING = 1;
+
+        private static final int DONE = 2;
+
+        private final Callable<? extends T> callable;
+
+        /**
+         * 预计的完整耗时，未知时为-1
+         */
+        private final long expectedNanos;
+
+        private final AtomicInteger phase = new AtomicInteger(NEW);
+
+        private volatile State state = State.UNAVAILABLE;
+
+        private volatile boolean started;
+
+        private volatile long runNanos;
+
+        private T result;
+
+        private Throwable exception;
+
+        /**
+         * 执行中的线程，由this保护，中断只发生在持有锁且runner不为null时，不会中断到线程池后续的其它任务
+         */
+        private Thread runner;
+
+        Task(Callable<? extends T> callable, long expectedNanos) {
+            this.callable = callable;
+            this.expectedNanos = expectedNanos;
+        }
+
+        @Override
+        public void run() {
+            if (shutdown) {
+                skipIfNotStarted();
+                return;
+            }
+            if (!phase.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            started = true;
+            final long start = System.nanoTime();
+            try {
+                if (shutdown) {
+                    throw new InterruptedException();
+                }
+                final T value = callable.call();
+                if (shutdown && Thread.currentThread().isInterrupted()) {
+                    // 响应了中断但没有抛出异常，返回值没有意义
+                    state = State.CANCELLED;
+                } else {
+                    result = value;
+                    state = State.SUCCESS;
+                }
+            } catch (Throwable ex) {
+                if (shutdown && (ex instanceof InterruptedException || Thread.currentThread().isInterrupted())) {
+                    state = State.CANCELLED;
+                } else {
+                    exception = ex;
+                    state = State.FAILED;
+                }
+            } finally {
+                runNanos = System.nanoTime() - start;
+                synchronized (this) {
+                    runner = null;
+                    // 清除scope发出的中断，不影响线程池后续的任务
+                    Thread.interrupted();
+                }
+                phase.set(DONE);
+            }
+            try {
+                handleComplete(this);
+            } finally {
+                taskDone();
+            }
+        }
+
+        void skipIfNotStarted() {
+            if (phase.compareAndSet(NEW, DONE)) {
+                state = State.CANCELLED;
+                taskDone();
+            }
+        }
+
+        void interrupt() {
+            synchronized (this) {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+
+        /**
+         * fork时作用域已经shutdown
+         */
+        void skip() {
+            phase.set(DONE);
+            state = State.CANCELLED;
+        }
+
+        void reject(RejectedExecutionException ex) {
+            if (phase.compareAndSet(NEW, DONE)) {
+                exception = ex;
+                state = State.FAILED;
+                try {
+                    handleComplete(this);
+                } finally {
+                    taskDone();
+                }
+            }
+        }
+
+        @Override
+        public State state() {
+            return state;
+        }
+
+        @Override
+        public T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("subtask state is " + state);
+            }
+            return result;
+        }
+
+        @Override
+        public Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("subtask state is " + state);
+            }
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return "Subtask[" + state + "]";
+        }
+    }
+
+    /**
+     * 任意一个子任务失败时shutdown
+     */
+    public static final class ShutdownOnFailure extends Scope {
+
+        private volatile Throwable firstException;
+
+        ShutdownOnFailure(Executor executor) {
+            super(executor);
+        }
+
+        @Override
+        public ShutdownOnFailure join() throws InterruptedException {
+            super.join();
+            return this;
+        }
+
+        @Override
+        protected void handleComplete(Subtask<?> subtask) {
+            if (subtask.state() == Subtask.State.FAILED) {
+                synchronized (this) {
+                    if (firstException == null) {
+                        firstException = subtask.exception();
+                    }
+                }
+                shutdown();
+            }
+        }
+
+        /**
+         * 有子任务失败时抛出第一个失败的异常，在join之后调用
+         */
+        public void throwIfFailed() throws ExecutionException {
+            ensureOwner();
+            final Throwable ex = firstException;
+            if (ex != null) {
+                throw new ExecutionException(ex);
+            }
+        }
+    }
+
+    /**
+     * 任意一个子任务成功时shutdown
+     */
+    public static final class ShutdownOnSuccess<T> extends Scope {
+
+        private T result;
+
+        private boolean hasResult;
+
+        private Throwable firstException;
+
+        ShutdownOnSuccess(Executor executor) {
+            super(executor);
+        }
+
+        @Override
+        public ShutdownOnSuccess<T> join() throws InterruptedException {
+            super.join();
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void handleComplete(Subtask<?> subtask) {
+            boolean first = false;
+            synchronized (this) {
+                if (subtask.state() == Subtask.State.SUCCESS && !hasResult) {
+                    result = (T) subtask.get();
+                    hasResult = true;
+                    first = true;
+                } else if (subtask.state() == Subtask.State.FAILED && firstException == null) {
+                    firstException = subtask.exception();
+                }
+            }
+            if (first) {
+                shutdown();
+            }
+        }
+
+        /**
+         * 第一个成功的结果，在join之后调用
+         *
+         * @throws ExecutionException 所有子任务都失败时，包装第一个失败的异常
+         */
+        public synchronized T result() throws ExecutionException {
+            ensureOwner();
+            if (hasResult) {
+                return result;
+            }
+            if (firstException != null) {
+                throw new ExecutionException(firstException);
+            }
+            throw new IllegalStateException("no subtask completed successfully");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.yunzhitx.java8.learning.completablefuture.scope;
+
+/**
+ * ClassName: ScopeReport <br/>
+ * Description: 一个Scope中子任务的执行情况，以及取消节省的工作量<br/>
+ * 节省的时间是估算值：还没开始就被跳过的子任务节省完整耗时，执行中被中断的子任务节省完整耗时减去已经执行的时间。
+ * 完整耗时使用fork时给出的预计耗时，没有给出时退化为本作用域成功子任务的平均耗时。<br/>
+ * date: 2026/10/20 19:55<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class ScopeReport {
+
+    private final int forked;
+
+    private final int succeeded;
+
+    private final int failed;
+
+    /**
+     * 还没开始就被跳过的子任务数
+     */
+    private final int skipped;
+
+    /**
+     * 执行中被中断的子任务数
+     */
+    private final int interrupted;
+
+    /**
+     * 所有子任务实际执行的时间之和
+     */
+    private final long runNanos;
+
+    /**
+     * 估算的取消节省的执行时间
+     */
+    private final long savedNanos;
+
+    ScopeReport(int forked, int succeeded, int failed, int skipped, int interrupted, long runNanos, long savedNanos) {
+        this.forked = forked;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.interrupted = interrupted;
+        this.runNanos = runNanos;
+        this.savedNanos = savedNanos;
+    }
+
+    public int getForked() {
+        return forked;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getInterrupted() {
+        return interrupted;
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    public long getSavedNanos() {
+        return savedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScopeReport{forked=%d, succeeded=%d, failed=%d, skipped=%d, interrupted=%d, "
+                        + "run=%.1fms, saved~%.1fms}", forked, succeeded, failed, skipped, interrupted,
+                runNanos / 1e6, savedNanos / 1e6);
+    }
+}
@@ -0,0 +1,106 @@
+package com.yunzhitx.java8.learning.completablefuture.scope;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClassName: ScopeUsage <br/>
+ * Description: 结构化并发作用域的用法，以及与CompletableFuture.anyOf的对比<br/>
+ * date: 2026/10/20 20:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class ScopeUsage {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(4);
+
+    private static final AtomicInteger FINISHED_LOSERS = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        anyOf();
+        shutdownOnSuccess();
+        shutdownOnFailure();
+        EXECUTOR_SERVICE.shutdown();
+    }
+
+    /**
+     * anyOf拿到最快的结果后，其它副本仍然执行到结束
+     */
+    private static void anyOf() throws Exception {
+        System.out.println("anyOf");
+        final Object result = CompletableFuture.anyOf(
+                CompletableFuture.supplyAsync(() -> replica("a", 50), EXECUTOR_SERVICE),
+                CompletableFuture.supplyAsync(() -> replica("b", 200), EXECUTOR_SERVICE),
+                CompletableFuture.supplyAsync(() -> replica("c", 400), EXECUTOR_SERVICE)
+        ).get();
+        Thread.sleep(500);
+        System.out.println("result is " + result + ", losers still finished: " + FINISHED_LOSERS.getAndSet(0));
+    }
+
+    /**
+     * 最快的副本返回后，中断其它副本
+     */
+    private static void shutdownOnSuccess() throws Exception {
+        System.out.println("shutdownOnSuccess");
+        try (Scope.ShutdownOnSuccess<String> scope = Scope.shutdownOnSuccess(EXECUTOR_SERVICE)) {
+            // 给出各副本的预计耗时，report()据此估算取消节省的工作量
+            scope.fork(() -> replica("a", 50), Duration.ofMillis(50));
+            scope.fork(() -> replica("b", 200), Duration.ofMillis(200));
+            scope.fork(() -> replica("c", 400), Duration.ofMillis(400));
+            scope.join();
+            System.out.println("result is " + scope.result() + ", losers finished: " + FINISHED_LOSERS.getAndSet(0));
+            System.out.println(scope.report());
+        }
+    }
+
+    /**
+     * 一个子任务失败后，跳过还在排队的子任务，中断执行中的子任务
+     */
+    private static void shutdownOnFailure() throws InterruptedException {
+        System.out.println("shutdownOnFailure");
+        try (Scope.ShutdownOnFailure scope = Scope.shutdownOnFailure(EXECUTOR_SERVICE)) {
+            final List<Subtask<Integer>> subtasks = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                final int id = i;
+                subtasks.add(scope.fork(() -> load(id), Duration.ofMillis(100)));
+            }
+            scope.join();
+            try {
+                scope.throwIfFailed();
+            } catch (ExecutionException ex) {
+                System.out.println("failed: " + ex.getCause().getMessage());
+            }
+            System.out.println(subtasks);
+            System.out.println(scope.report());
+        }
+    }
+
+    private static String replica(String name, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (millis > 50) {
+            FINISHED_LOSERS.incrementAndGet();
+        }
+        return name;
+    }
+
+    private static Integer load(int id) throws InterruptedException {
+        if (id == 2) {
+            Thread.sleep(20);
+            throw new IllegalStateException("load " + id + " failed");
+        }
+        Thread.sleep(100);
+        return id;
+    }
+}
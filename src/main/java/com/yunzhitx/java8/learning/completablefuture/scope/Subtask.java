@@ -0,0 +1,47 @@
+package com.yunzhitx.java8.learning.completablefuture.scope;
+
+/**
+ * ClassName: Subtask <br/>
+ * Description: Scope中fork出的子任务，只有在Scope.join返回之后才能读取结果<br/>
+ * date: 2026/10/20 19:50<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public interface Subtask<T> {
+
+    enum State {
+        /**
+         * 还没有执行完
+         */
+        UNAVAILABLE,
+        /**
+         * 执行成功
+         */
+        SUCCESS,
+        /**
+         * 执行失败
+         */
+        FAILED,
+        /**
+         * 被scope关闭取消：还没开始就被跳过，或者执行中被中断
+         */
+        CANCELLED
+    }
+
+    State state();
+
+    /**
+     * 成功的结果
+     *
+     * @throws IllegalStateException 状态不是SUCCESS
+     */
+    T get();
+
+    /**
+     * 失败的异常
+     *
+     * @throws IllegalStateException 状态不是FAILED
+     */
+    Throwable exception();
+}
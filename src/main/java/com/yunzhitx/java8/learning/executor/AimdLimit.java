@@ -0,0 +1,66 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.time.Duration;
+
+/**
+ * ClassName: AimdLimit <br/>
+ * Description: 加性增、乘性减（AIMD）：调用正常且并发已经用满时上限加1，
+ * 出现超时/拒绝或者耗时超过阈值时上限乘以backoffRatio<br/>
+ * date: 2026/10/20 14:15<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class AimdLimit implements Limit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final long timeoutNanos;
+
+    private double limit;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit     最小上限
+     * @param maxLimit     最大上限
+     * @param backoffRatio 过载时的缩减比例，(0.5, 1)
+     * @param timeout      耗时超过该值视为过载
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration timeout) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("require 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        if (backoffRatio < 0.5 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in [0.5, 1): " + backoffRatio);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inflight * 2 >= limit) {
+            // 只有并发真正用到一半以上时才增加，避免空闲时上限无限增长
+            limit = Math.min(maxLimit, limit + 1.0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AimdLimit(" + getLimit() + ")";
+    }
+}
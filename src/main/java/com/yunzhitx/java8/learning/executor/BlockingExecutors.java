@@ -0,0 +1,51 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * ClassName: BlockingExecutors <br/>
+ * Description: 执行阻塞任务（sleep、IO、FutureTask.get等）的线程池工厂。<br/>
+ * 这是Java 8的版本：没有虚拟线程，回退为线程数有上限的平台线程池。
+ * 打包后的jar是multi-release jar，在Java 21及以上运行时会加载
+ * META-INF/versions/21下的同名类，每个任务使用一个虚拟线程，阻塞时不占用平台线程。<br/>
+ * date: 2026/10/20 11:35<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class BlockingExecutors {
+
+    /**
+     * 平台线程池默认的最大线程数
+     */
+    public static final int DEFAULT_MAX_PLATFORM_THREADS = 256;
+
+    private BlockingExecutors() {
+    }
+
+    /**
+     * 适合大量阻塞任务的线程池：Java 21上每个任务一个虚拟线程，Java 8上为有上限的平台线程池
+     *
+     * @param namePrefix 线程名前缀
+     */
+    public static ExecutorService newBlockingTaskExecutor(String namePrefix) {
+        return newPlatformExecutor(namePrefix, DEFAULT_MAX_PLATFORM_THREADS);
+    }
+
+    /**
+     * 有上限的平台线程池，用于对比或者需要限制并发的场景
+     *
+     * @param namePrefix 线程名前缀
+     * @param maxThreads 最大线程数
+     */
+    public static ExecutorService newPlatformExecutor(String namePrefix, int maxThreads) {
+        return PlatformThreadPools.bounded(namePrefix, maxThreads);
+    }
+
+    /**
+     * 当前运行时加载的是否是虚拟线程版本
+     */
+    public static boolean isVirtualThreadMode() {
+        return false;
+    }
+}
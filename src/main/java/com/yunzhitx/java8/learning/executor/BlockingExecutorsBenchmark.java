@@ -0,0 +1,53 @@
+package com.yunzhitx.java8.learning.executor;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: BlockingExecutorsBenchmark <br/>
+ * Description: 10万个并发阻塞任务（每个sleep 100ms）在两种模式下的总耗时。<br/>
+ * 需要从打包后的jar运行，multi-release jar的版本化类才会生效：<br/>
+ * java -cp target/java8-learning-1.0-SNAPSHOT.jar com.yunzhitx.java8.learning.executor.BlockingExecutorsBenchmark<br/>
+ * date: 2026/10/20 11:55<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class BlockingExecutorsBenchmark {
+
+    private static final int TASKS = 100_000;
+
+    private static final int BLOCK_MILLIS = 100;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("java.version = " + System.getProperty("java.version")
+                + ", virtual thread mode = " + BlockingExecutors.isVirtualThreadMode());
+
+        // 预热
+        run("warm up", BlockingExecutors.newBlockingTaskExecutor("warm-up"), 1_000);
+
+        run("blocking task executor", BlockingExecutors.newBlockingTaskExecutor("blocking"), TASKS);
+        run("platform executor(" + BlockingExecutors.DEFAULT_MAX_PLATFORM_THREADS + ")",
+                BlockingExecutors.newPlatformExecutor("platform", BlockingExecutors.DEFAULT_MAX_PLATFORM_THREADS), TASKS);
+    }
+
+    private static void run(String name, ExecutorService executor, int tasks) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(tasks);
+        final long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                ThreadUtils.sleep(BLOCK_MILLIS);
+                latch.countDown();
+            });
+        }
+        latch.await();
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println(name + ": " + tasks + " tasks in " + elapsedMillis + "ms, "
+                + (tasks * 1000L / Math.max(1, elapsedMillis)) + " tasks/s");
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
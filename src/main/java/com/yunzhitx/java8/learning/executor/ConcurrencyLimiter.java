@@ -0,0 +1,246 @@
+package com.yunzhitx.java8.learning.executor;
+
+import com.yunzhitx.java8.learning.completablefuture.Futures;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: ConcurrencyLimiter <br/>
+ * Description: 自适应的异步并发限制。<br/>
+ * 与Futures.bounded的固定并发数不同，上限由Limit根据每次调用的耗时动态调整：
+ * 下游变慢时自动减少同时在途的调用，恢复后再逐步放开。
+ * 超过上限的调用按构造方式排队等待或者直接以RejectedExecutionException拒绝。<br/>
+ * supplier应当只提交异步任务并立即返回future，它会在提交线程或者上一个调用完成的线程上执行。
+ * 排队的调用由一个线程循环启动，supplier返回已完成的future时也不会层层递归。<br/>
+ * date: 2026/10/20 14:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class ConcurrencyLimiter {
+
+    private final Limit limit;
+
+    private final int maxQueueSize;
+
+    private final ArrayDeque<Pending<?>> queue = new ArrayDeque<>();
+
+    /**
+     * 已经占用并发名额、等待启动的调用
+     */
+    private final ArrayDeque<Pending<?>> launching = new ArrayDeque<>();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * 以下字段由this保护
+     */
+    private int inflight;
+
+    /**
+     * 是否有线程正在启动launching中的调用
+     */
+    private boolean draining;
+
+    private ConcurrencyLimiter(Limit limit, int maxQueueSize) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize must not be negative: " + maxQueueSize);
+        }
+        this.limit = Objects.requireNonNull(limit);
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * 超过上限立即拒绝
+     */
+    public static ConcurrencyLimiter rejecting(Limit limit) {
+        return new ConcurrencyLimiter(limit, 0);
+    }
+
+    /**
+     * 超过上限时排队，队列满后拒绝
+     *
+     * @param limit        上限调整算法
+     * @param maxQueueSize 最多排队的调用数
+     */
+    public static ConcurrencyLimiter queueing(Limit limit, int maxQueueSize) {
+        return new ConcurrencyLimiter(limit, maxQueueSize);
+    }
+
+    /**
+     * 在上限内发起调用
+     *
+     * @param supplier 调用get()时才真正发起，例如 () -> CompletableFuture.supplyAsync(() -> load(id), executor)
+     * @return 调用的结果；被拒绝时以RejectedExecutionException结束；取消返回的future会一并取消调用
+     */
+    public <T> CompletableFuture<T> submit(Supplier<? extends CompletableFuture<? extends T>> supplier) {
+        Objects.requireNonNull(supplier);
+        final Pending<T> pending = new Pending<>(supplier);
+        final int started;
+        synchronized (this) {
+            if (inflight < limit.getLimit()) {
+                started = ++inflight;
+            } else if (queue.size() < maxQueueSize) {
+                pending.queued = true;
+                queue.addLast(pending);
+                // 排队期间被调用方取消时立即移出队列，不再占用排队名额
+                pending.result.whenComplete((value, ex) -> dequeue(pending));
+                return pending.result;
+            } else {
+                started = 0;
+            }
+        }
+        if (started == 0) {
+            rejected.increment();
+            pending.result.completeExceptionally(new LimitExceededException());
+            return pending.result;
+        }
+        launch(pending, started);
+        return pending.result;
+    }
+
+    public synchronized int getLimit() {
+        return limit.getLimit();
+    }
+
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    private synchronized void dequeue(Pending<?> pending) {
+        if (pending.queued) {
+            pending.queued = false;
+            queue.remove(pending);
+        }
+    }
+
+    private <T> void launch(Pending<T> pending, int inflightAtStart) {
+        final long start = System.nanoTime();
+        final CompletableFuture<? extends T> future;
+        try {
+            future = Objects.requireNonNull(pending.supplier.get(), "supplier returned a null future");
+        } catch (Throwable ex) {
+            release(0, inflightAtStart, false, false);
+            pending.result.completeExceptionally(ex);
+            return;
+        }
+        pending.result.whenComplete((value, ex) -> {
+            if (!future.isDone()) {
+                future.cancel(false);
+            }
+        });
+        future.whenComplete((value, ex) -> {
+            final Throwable cause = ex == null ? null : Futures.unwrap(ex);
+            final boolean dropped = cause instanceof TimeoutException || cause instanceof RejectedExecutionException;
+            // 业务异常不能说明下游的负载，不作为样本
+            release(System.nanoTime() - start, inflightAtStart, dropped, cause == null || dropped);
+            if (cause == null) {
+                pending.result.complete(value);
+            } else {
+                pending.result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * 一个调用结束：更新上限，并在上限允许的范围内启动排队中的调用
+     */
+    private void release(long rttNanos, int inflightAtStart, boolean dropped, boolean sample) {
+        completed.increment();
+        synchronized (this) {
+            inflight--;
+            if (sample) {
+                limit.onSample(rttNanos, inflightAtStart, dropped);
+            }
+            while (inflight < limit.getLimit() && !queue.isEmpty()) {
+                final Pending<?> next = queue.pollFirst();
+                next.queued = false;
+                // 排队期间已经被调用方取消
+                if (next.result.isDone()) {
+                    continue;
+                }
+                next.inflightAtStart = ++inflight;
+                launching.addLast(next);
+            }
+            if (draining || launching.isEmpty()) {
+                // 已有线程在循环启动（可能就在当前调用栈的上层），交给它
+                return;
+            }
+            draining = true;
+        }
+        drainLaunching();
+    }
+
+    /**
+     * 循环启动launching中的调用。被启动的future已经完成时，release在同一个线程上同步执行，
+     * 此时draining为true，release只把后续调用放入launching而不递归启动，调用栈深度不随队列长度增长
+     */
+    private void drainLaunching() {
+        while (true) {
+            final Pending<?> next;
+            synchronized (this) {
+                next = launching.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            launch(next, next.inflightAtStart);
+        }
+    }
+
+    private static final class Pending<T> {
+
+        private final Supplier<? extends CompletableFuture<? extends T>> supplier;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        /**
+         * 以下字段由ConcurrencyLimiter.this保护
+         */
+        private boolean queued;
+
+        private int inflightAtStart;
+
+        Pending(Supplier<? extends CompletableFuture<? extends T>> supplier) {
+            this.supplier = supplier;
+        }
+    }
+
+    /**
+     * 过载时会大量出现，不填充调用栈
+     */
+    private static final class LimitExceededException extends RejectedExecutionException {
+
+        private static final long serialVersionUID = 1L;
+
+        LimitExceededException() {
+            super("concurrency limit exceeded");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.yunzhitx.java8.learning.executor;
+
+import com.yunzhitx.java8.learning.completablefuture.Futures;
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ClassName: ConcurrencyLimiterUsage <br/>
+ * Description: 自适应并发限制的用法。<br/>
+ * 下游只有8个线程，每次调用耗时5ms，超过8个在途调用只会在下游排队、拉长耗时；
+ * 两种算法都应当把上限收敛到8附近，多出来的调用在限流器中排队。<br/>
+ * date: 2026/10/20 15:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class ConcurrencyLimiterUsage {
+
+    private static final int DOWNSTREAM_THREADS = 8;
+
+    private static final int CALLS = 3000;
+
+    public static void main(String[] args) {
+        run("aimd", ConcurrencyLimiter.queueing(new AimdLimit(20, 1, 200, 0.9, Duration.ofMillis(10)), CALLS));
+        run("gradient", ConcurrencyLimiter.queueing(new GradientLimit(20, 1, 200), CALLS));
+    }
+
+    private static void run(String name, ConcurrencyLimiter limiter) {
+        final ExecutorService downstream = Executors.newFixedThreadPool(DOWNSTREAM_THREADS);
+        final long start = System.nanoTime();
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            final int id = i;
+            results.add(limiter.submit(() -> CompletableFuture.supplyAsync(() -> call(id), downstream)));
+            if (i % 500 == 0) {
+                System.out.printf("%s submitted=%d limit=%d inflight=%d queued=%d%n",
+                        name, i, limiter.getLimit(), limiter.getInflight(), limiter.getQueued());
+                ThreadUtils.sleep(500);
+            }
+        }
+        Futures.allOf(results).join();
+        System.out.printf("%s done in %dms, final limit=%d, rejected=%d%n", name,
+                (System.nanoTime() - start) / 1_000_000, limiter.getLimit(), limiter.getRejectedCount());
+        downstream.shutdown();
+    }
+
+    private static Integer call(int id) {
+        ThreadUtils.sleep(5);
+        return id;
+    }
+}
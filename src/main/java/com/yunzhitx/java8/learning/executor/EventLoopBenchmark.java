@@ -0,0 +1,84 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: EventLoopBenchmark <br/>
+ * Description: EventLoopExecutor与Executors.newSingleThreadExecutor在1到16个生产者下的吞吐量对比。<br/>
+ * 每轮共提交TASKS个空任务，从第一个任务提交到最后一个任务执行完计时；第一轮作为预热。<br/>
+ * date: 2026/10/20 18:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class EventLoopBenchmark {
+
+    private static final int TASKS = 4_000_000;
+
+    private static final int[] PRODUCERS = {1, 2, 4, 8, 16};
+
+    private static final int ROUNDS = 2;
+
+    /**
+     * 只在消费者线程上修改
+     */
+    private static long executed;
+
+    private static final Runnable TASK = () -> executed++;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("cpus: " + Runtime.getRuntime().availableProcessors());
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            for (int producers : PRODUCERS) {
+                report("jdk-single", producers, Executors::newSingleThreadExecutor);
+                report("event-loop-park", producers,
+                        () -> new EventLoopExecutor("event-loop", 1 << 16, WaitStrategy.PARK));
+                report("event-loop-yield", producers,
+                        () -> new EventLoopExecutor("event-loop", 1 << 16, WaitStrategy.YIELD));
+            }
+        }
+    }
+
+    private static void report(String name, int producers, Supplier<ExecutorService> factory) throws Exception {
+        final ExecutorService executor = factory.get();
+        final int perProducer = TASKS / producers;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < perProducer; j++) {
+                    executor.execute(TASK);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        final long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // 单线程按顺序执行，最后一个任务执行完时之前的任务都已执行完
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        done.await();
+        final long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.printf("  %-16s producers=%2d %6.2f Mops/s%n", name, producers,
+                (double) perProducer * producers * 1000 / elapsed);
+    }
+}
@@ -0,0 +1,200 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: EventLoopExecutor <br/>
+ * Description: 单线程的事件循环executor。<br/>
+ * 与Executors.newSingleThreadExecutor一样按提交顺序在同一个线程上依次执行任务，适合按key分片的有序处理；
+ * 区别在于任务队列是无锁的MPSC数组队列，提交和取出都不加锁，消费者每次批量取出一批任务执行，
+ * 队列为空时按WaitStrategy等待。<br/>
+ * 队列有界，满时提交线程yield等待空位形成背压；事件循环线程自己提交时不能等待，直接拒绝。<br/>
+ * date: 2026/10/20 17:45<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class EventLoopExecutor extends AbstractExecutorService {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * 每批最多执行的任务数
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 10;
+
+    private final MpscArrayQueue<Runnable> queue;
+
+    private final WaitStrategy waitStrategy;
+
+    private final Thread thread;
+
+    /**
+     * 事件循环即将park时为true，提交任务的线程负责把它置回false并唤醒
+     */
+    private final AtomicBoolean wakeupNeeded = new AtomicBoolean();
+
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    private final Consumer<Runnable> runner = this::runTask;
+
+    private volatile boolean stopNow;
+
+    public EventLoopExecutor(String name) {
+        this(name, DEFAULT_CAPACITY, WaitStrategy.PARK);
+    }
+
+    /**
+     * @param name         线程名
+     * @param capacity     队列容量，向上取整为2的幂
+     * @param waitStrategy 队列为空时的等待方式
+     */
+    public EventLoopExecutor(String name, int capacity, WaitStrategy waitStrategy) {
+        this.queue = new MpscArrayQueue<>(capacity);
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+        this.thread = new Thread(this::loop, Objects.requireNonNull(name));
+        thread.start();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        while (!queue.offer(command)) {
+            if (queue.isClosed()) {
+                throw new RejectedExecutionException("event loop " + thread.getName() + " has been shut down");
+            }
+            if (inEventLoop()) {
+                throw new RejectedExecutionException("event loop " + thread.getName() + " queue is full");
+            }
+            Thread.yield();
+        }
+        if (waitStrategy == WaitStrategy.PARK && wakeupNeeded.get() && wakeupNeeded.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * 当前线程是否是事件循环线程
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * 排队中的任务数
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 不再接受新任务，已提交的任务会执行完
+     */
+    @Override
+    public void shutdown() {
+        queue.close();
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * 不再接受新任务，中断正在执行的任务并丢弃还没开始的任务。<br/>
+     * 队列只能由事件循环线程消费，无法在调用线程中取出未执行的任务，总是返回空列表
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        stopNow = true;
+        queue.close();
+        thread.interrupt();
+        LockSupport.unpark(thread);
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return queue.isClosed();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    private void loop() {
+        try {
+            int idle = 0;
+            while (!stopNow) {
+                if (queue.drain(runner, BATCH_SIZE) > 0) {
+                    idle = 0;
+                    continue;
+                }
+                if (queue.isClosed() && queue.isEmpty()) {
+                    break;
+                }
+                idle(idle++);
+            }
+            if (stopNow) {
+                // 丢弃未执行的任务
+                queue.drain(task -> {
+                }, Integer.MAX_VALUE);
+            }
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    private void idle(int idle) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                return;
+            case YIELD:
+                if (idle >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+                return;
+            default:
+                if (idle < SPIN_TRIES) {
+                    return;
+                }
+                if (idle < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                    return;
+                }
+                wakeupNeeded.set(true);
+                // 设置标记后再检查一次，避免与提交线程的检查交错导致错过唤醒
+                if (queue.isEmpty() && !queue.isClosed()) {
+                    LockSupport.park(this);
+                }
+                wakeupNeeded.set(false);
+        }
+    }
+
+    private void runTask(Runnable task) {
+        if (stopNow) {
+            return;
+        }
+        try {
+            task.run();
+        } catch (Throwable ex) {
+            // 与线程池不同，事件循环线程不能因为任务异常退出
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+        }
+    }
+}
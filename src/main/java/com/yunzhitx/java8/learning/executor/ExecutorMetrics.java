@@ -0,0 +1,107 @@
+package com.yunzhitx.java8.learning.executor;
+
+/**
+ * ClassName: ExecutorMetrics <br/>
+ * Description: 线程池指标快照<br/>
+ * date: 2026/10/20 10:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class ExecutorMetrics {
+
+    private final String name;
+
+    private final long submitted;
+
+    private final int active;
+
+    private final long queued;
+
+    private final long completed;
+
+    private final long failed;
+
+    private final long rejected;
+
+    private final LatencyHistogram.Snapshot queueWait;
+
+    private final LatencyHistogram.Snapshot runTime;
+
+    ExecutorMetrics(String name, long submitted, int active, long queued, long completed, long failed, long rejected,
+                    LatencyHistogram.Snapshot queueWait, LatencyHistogram.Snapshot runTime) {
+        this.name = name;
+        this.submitted = submitted;
+        this.active = active;
+        this.queued = queued;
+        this.completed = completed;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.queueWait = queueWait;
+        this.runTime = runTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * 正在执行的任务数
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * 已提交但还没开始执行的任务数
+     */
+    public long getQueued() {
+        return queued;
+    }
+
+    /**
+     * 执行完成（包括抛出异常）的任务数
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * 抛出异常的任务数
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * 被线程池拒绝的任务数
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * 提交到开始执行的等待时间
+     */
+    public LatencyHistogram.Snapshot getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * 执行时间
+     */
+    public LatencyHistogram.Snapshot getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorMetrics(" + name + ": submitted=" + submitted + ", active=" + active + ", queued=" + queued
+                + ", completed=" + completed + ", failed=" + failed + ", rejected=" + rejected
+                + ", queueWait[" + queueWait + "], runTime[" + runTime + "])";
+    }
+}
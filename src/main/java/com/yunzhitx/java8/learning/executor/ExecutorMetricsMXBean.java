@@ -0,0 +1,40 @@
+package com.yunzhitx.java8.learning.executor;
+
+/**
+ * ClassName: ExecutorMetricsMXBean <br/>
+ * Description: 通过JMX暴露的线程池指标，耗时单位为微秒<br/>
+ * date: 2026/10/20 10:45<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public interface ExecutorMetricsMXBean {
+
+    long getSubmittedCount();
+
+    int getActiveCount();
+
+    long getQueuedCount();
+
+    long getCompletedCount();
+
+    long getFailedCount();
+
+    long getRejectedCount();
+
+    double getQueueWaitMeanMicros();
+
+    double getQueueWaitP50Micros();
+
+    double getQueueWaitP99Micros();
+
+    double getQueueWaitMaxMicros();
+
+    double getRunTimeMeanMicros();
+
+    double getRunTimeP50Micros();
+
+    double getRunTimeP99Micros();
+
+    double getRunTimeMaxMicros();
+}
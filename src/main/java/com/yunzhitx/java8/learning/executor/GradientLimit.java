@@ -0,0 +1,95 @@
+package com.yunzhitx.java8.learning.executor;
+
+/**
+ * ClassName: GradientLimit <br/>
+ * Description: 基于延迟梯度的并发上限（TCP Vegas思想的变体）。<br/>
+ * 用长期平均耗时近似无排队时的耗时，用短期平均耗时反映当前状态，
+ * gradient = 长期耗时 / 短期耗时，限制在[0.5, 1]之间：
+ * 短期耗时上涨说明下游开始排队，上限按比例缩小；耗时平稳时上限每次增加一个排队余量sqrt(limit)，继续探测容量。<br/>
+ * date: 2026/10/20 14:25<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class GradientLimit implements Limit {
+
+    /**
+     * 长期均值的窗口，样本数
+     */
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * 短期均值的窗口，样本数
+     */
+    private static final int SHORT_WINDOW = 10;
+
+    /**
+     * 上限变化的平滑系数
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * 长期均值超过短期均值该倍数时，说明之前的高延迟已经恢复，向短期值靠拢
+     */
+    private static final double LONG_RTT_RECOVERY = 2.0;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private double limit;
+
+    private double longRtt;
+
+    private double shortRtt;
+
+    private long samples;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit     最小上限
+     * @param maxLimit     最大上限
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("require 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        samples++;
+        if (samples == 1) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        longRtt += (rttNanos - longRtt) / Math.min(samples, LONG_WINDOW);
+        shortRtt += (rttNanos - shortRtt) / Math.min(samples, SHORT_WINDOW);
+        if (longRtt / shortRtt > LONG_RTT_RECOVERY) {
+            longRtt = shortRtt * LONG_RTT_RECOVERY;
+        }
+        // 并发远没有用满时，耗时不能说明容量，不调整
+        if (!dropped && inflight * 2 < limit) {
+            return;
+        }
+        final double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        final double queueSize = Math.sqrt(limit);
+        final double target = limit * gradient + queueSize;
+        final double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit(" + getLimit() + ")";
+    }
+}
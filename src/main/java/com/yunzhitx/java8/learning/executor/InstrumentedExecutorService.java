@@ -0,0 +1,252 @@
+package com.yunzhitx.java8.learning.executor;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: InstrumentedExecutorService <br/>
+ * Description: 带指标的线程池包装。<br/>
+ * 记录每个任务的排队等待时间和执行时间直方图，以及执行中、排队中、已完成、失败、被拒绝的任务数，
+ * 用于区分异步链路变慢是因为排队还是因为执行。<br/>
+ * 所有提交方式最终都走execute，因此可以直接作为CompletableFuture各个*Async方法的executor参数。
+ * 每个任务只额外调用两次System.nanoTime，计数使用LongAdder，避免在热点上争用。<br/>
+ * date: 2026/10/20 10:50<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class InstrumentedExecutorService extends AbstractExecutorService {
+
+    private static final String JMX_DOMAIN = "com.yunzhitx.java8.learning";
+
+    private final String name;
+
+    private final ExecutorService delegate;
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder started = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    private ObjectName objectName;
+
+    private InstrumentedExecutorService(String name, ExecutorService delegate) {
+        this.name = Objects.requireNonNull(name);
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    /**
+     * 包装线程池，不注册JMX
+     */
+    public static InstrumentedExecutorService wrap(String name, ExecutorService delegate) {
+        return new InstrumentedExecutorService(name, delegate);
+    }
+
+    /**
+     * 包装线程池并注册为MBean，ObjectName为com.yunzhitx.java8.learning:type=Executor,name=线程池名，
+     * 线程池关闭时自动注销
+     */
+    public static InstrumentedExecutorService wrapAndRegister(String name, ExecutorService delegate) {
+        final InstrumentedExecutorService executor = new InstrumentedExecutorService(name, delegate);
+        executor.register();
+        return executor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        submitted.increment();
+        try {
+            delegate.execute(new TimedRunnable(command, System.nanoTime()));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * 进程内获取指标快照
+     */
+    public ExecutorMetrics metrics() {
+        final long submittedCount = submitted.sum();
+        final long startedCount = started.sum();
+        final long rejectedCount = rejected.sum();
+        return new ExecutorMetrics(name, submittedCount, active.get(),
+                Math.max(0, submittedCount - startedCount - rejectedCount), completed.sum(), failed.sum(),
+                rejectedCount, queueWait.snapshot(), runTime.snapshot());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void shutdown() {
+        unregister();
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        unregister();
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    private synchronized void register() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(JMX_DOMAIN + ":type=Executor,name=" + ObjectName.quote(name));
+            server.registerMBean(new MXBean(), objectName);
+        } catch (JMException ex) {
+            throw new IllegalStateException("failed to register executor MBean " + name, ex);
+        }
+    }
+
+    private synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException ex) {
+            // 已经被注销，忽略
+        }
+        objectName = null;
+    }
+
+    private final class TimedRunnable implements Runnable {
+
+        private final Runnable task;
+
+        private final long submitTime;
+
+        TimedRunnable(Runnable task, long submitTime) {
+            this.task = task;
+            this.submitTime = submitTime;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            started.increment();
+            active.incrementAndGet();
+            queueWait.record(start - submitTime);
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                failed.increment();
+                throw ex;
+            } finally {
+                runTime.record(System.nanoTime() - start);
+                active.decrementAndGet();
+                completed.increment();
+            }
+        }
+    }
+
+    private final class MXBean implements ExecutorMetricsMXBean {
+
+        @Override
+        public long getSubmittedCount() {
+            return submitted.sum();
+        }
+
+        @Override
+        public int getActiveCount() {
+            return active.get();
+        }
+
+        @Override
+        public long getQueuedCount() {
+            return Math.max(0, submitted.sum() - started.sum() - rejected.sum());
+        }
+
+        @Override
+        public long getCompletedCount() {
+            return completed.sum();
+        }
+
+        @Override
+        public long getFailedCount() {
+            return failed.sum();
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return rejected.sum();
+        }
+
+        @Override
+        public double getQueueWaitMeanMicros() {
+            return queueWait.snapshot().getMeanNanos() / 1000;
+        }
+
+        @Override
+        public double getQueueWaitP50Micros() {
+            return queueWait.snapshot().getValueAtQuantile(0.5) / 1000.0;
+        }
+
+        @Override
+        public double getQueueWaitP99Micros() {
+            return queueWait.snapshot().getValueAtQuantile(0.99) / 1000.0;
+        }
+
+        @Override
+        public double getQueueWaitMaxMicros() {
+            return queueWait.snapshot().getMaxNanos() / 1000.0;
+        }
+
+        @Override
+        public double getRunTimeMeanMicros() {
+            return runTime.snapshot().getMeanNanos() / 1000;
+        }
+
+        @Override
+        public double getRunTimeP50Micros() {
+            return runTime.snapshot().getValueAtQuantile(0.5) / 1000.0;
+        }
+
+        @Override
+        public double getRunTimeP99Micros() {
+            return runTime.snapshot().getValueAtQuantile(0.99) / 1000.0;
+        }
+
+        @Override
+        public double getRunTimeMaxMicros() {
+            return runTime.snapshot().getMaxNanos() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.yunzhitx.java8.learning.executor;
+
+/**
+ * ClassName: Limit <br/>
+ * Description: 并发上限的调整算法，由ConcurrencyLimiter在持有锁时调用，实现不需要考虑线程安全<br/>
+ * date: 2026/10/20 14:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public interface Limit {
+
+    /**
+     * 当前的并发上限
+     */
+    int getLimit();
+
+    /**
+     * 一次调用结束后的采样
+     *
+     * @param rttNanos 调用耗时
+     * @param inflight 该调用开始时正在执行的调用数（包括它自己）
+     * @param dropped  是否超时或被下游拒绝，这类结果说明系统已经过载
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+}
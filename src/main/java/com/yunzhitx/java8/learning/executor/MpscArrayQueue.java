@@ -0,0 +1,156 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: MpscArrayQueue <br/>
+ * Description: 有界、无锁的多生产者单消费者数组队列。<br/>
+ * 生产者通过CAS递增producerIndex抢占槽位后再写入元素，消费者读到非null元素才前进，
+ * 因此消费者可能看到槽位已被抢占但元素还没写入，此时短暂自旋等待。<br/>
+ * producerIndex的最低位是关闭标记，关闭后生产者无法再抢占槽位，关闭前抢占的槽位仍会写入并被消费，
+ * 关闭和入队之间不会丢任务。<br/>
+ * producerIndex、producer缓存的消费位置、consumerIndex放在同一个AtomicLongArray中相隔128字节的位置，
+ * 避免生产者和消费者的索引位于同一缓存行产生伪共享。<br/>
+ * date: 2026/10/20 17:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class MpscArrayQueue<E> {
+
+    /**
+     * 16个long，128字节，同时覆盖相邻缓存行预取
+     */
+    private static final int PAD = 16;
+
+    private static final int PRODUCER_INDEX = PAD;
+
+    private static final int PRODUCER_LIMIT = PAD + 1;
+
+    private static final int CONSUMER_INDEX = PAD * 2;
+
+    private static final long CLOSED = 1L;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int mask;
+
+    /**
+     * producerIndex按2递增，最低位为关闭标记
+     */
+    private final AtomicLongArray indices = new AtomicLongArray(PAD * 3);
+
+    MpscArrayQueue(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in [2, 2^30]: " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        indices.set(PRODUCER_LIMIT, size);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 多个线程可以同时调用
+     *
+     * @return 队列已满或者已关闭时返回false，通过isClosed区分
+     */
+    boolean offer(E e) {
+        long limit = indices.get(PRODUCER_LIMIT);
+        for (; ; ) {
+            final long raw = indices.get(PRODUCER_INDEX);
+            if ((raw & CLOSED) != 0) {
+                return false;
+            }
+            final long index = raw >>> 1;
+            if (index >= limit) {
+                // 缓存的消费位置已经不够用，再读取真正的consumerIndex
+                limit = indices.get(CONSUMER_INDEX) + capacity();
+                if (index >= limit) {
+                    return false;
+                }
+                indices.lazySet(PRODUCER_LIMIT, limit);
+            }
+            if (indices.compareAndSet(PRODUCER_INDEX, raw, raw + 2)) {
+                buffer.lazySet((int) index & mask, e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 只能由消费者线程调用
+     *
+     * @return 队列为空时返回null
+     */
+    E poll() {
+        final long index = indices.get(CONSUMER_INDEX);
+        final int offset = (int) index & mask;
+        E e = buffer.get(offset);
+        if (e == null) {
+            if (index == indices.get(PRODUCER_INDEX) >>> 1) {
+                return null;
+            }
+            // 槽位已被抢占，等待生产者写入
+            do {
+                e = buffer.get(offset);
+            } while (e == null);
+        }
+        buffer.lazySet(offset, null);
+        indices.lazySet(CONSUMER_INDEX, index + 1);
+        return e;
+    }
+
+    /**
+     * 批量取出，整批只读取一次producerIndex，只能由消费者线程调用
+     *
+     * @param limit 最多取出的元素数
+     * @return 取出的元素数
+     */
+    int drain(Consumer<? super E> consumer, int limit) {
+        final long start = indices.get(CONSUMER_INDEX);
+        final long available = Math.min(limit, (indices.get(PRODUCER_INDEX) >>> 1) - start);
+        for (int i = 0; i < available; i++) {
+            final int offset = (int) (start + i) & mask;
+            E e;
+            do {
+                e = buffer.get(offset);
+            } while (e == null);
+            buffer.lazySet(offset, null);
+            // 先释放槽位再处理，consumer抛出异常时该元素也已经被消费
+            indices.lazySet(CONSUMER_INDEX, start + i + 1);
+            consumer.accept(e);
+        }
+        return (int) available;
+    }
+
+    boolean isEmpty() {
+        return indices.get(CONSUMER_INDEX) == indices.get(PRODUCER_INDEX) >>> 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, (indices.get(PRODUCER_INDEX) >>> 1) - indices.get(CONSUMER_INDEX));
+    }
+
+    /**
+     * 关闭队列，之后的offer都返回false
+     */
+    void close() {
+        for (; ; ) {
+            final long raw = indices.get(PRODUCER_INDEX);
+            if ((raw & CLOSED) != 0 || indices.compareAndSet(PRODUCER_INDEX, raw, raw | CLOSED)) {
+                return;
+            }
+        }
+    }
+
+    boolean isClosed() {
+        return (indices.get(PRODUCER_INDEX) & CLOSED) != 0;
+    }
+}
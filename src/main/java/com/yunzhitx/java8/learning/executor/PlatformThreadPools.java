@@ -0,0 +1,44 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClassName: PlatformThreadPools <br/>
+ * Description: 平台线程池的创建，Java 8版本和Java 21版本的BlockingExecutors共用<br/>
+ * date: 2026/10/20 11:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class PlatformThreadPools {
+
+    private PlatformThreadPools() {
+    }
+
+    /**
+     * 线程数固定上限的线程池，空闲线程60秒后回收，任务超过线程数时排队
+     */
+    static ExecutorService bounded(String namePrefix, int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be positive: " + maxThreads);
+        }
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedDaemonThreads(namePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory namedDaemonThreads(String namePrefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, namePrefix + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
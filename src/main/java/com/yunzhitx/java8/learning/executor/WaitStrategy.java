@@ -0,0 +1,29 @@
+package com.yunzhitx.java8.learning.executor;
+
+/**
+ * ClassName: WaitStrategy <br/>
+ * Description: 消费者暂时没有数据可处理时的等待方式，在响应延迟和空闲时的CPU占用之间取舍。<br/>
+ * EventLoopExecutor和RingBuffer的SequenceBarrier共用<br/>
+ * date: 2026/10/20 17:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public enum WaitStrategy {
+
+    /**
+     * 一直自旋：延迟最低，空闲时也占满一个CPU核心，只适合核心数充足且对延迟极其敏感的场景
+     */
+    BUSY_SPIN,
+
+    /**
+     * 自旋一段时间后Thread.yield让出CPU：延迟较低，空闲时仍会持续占用CPU
+     */
+    YIELD,
+
+    /**
+     * 依次自旋、yield，仍然没有数据时park：空闲时几乎不占用CPU，唤醒有几十微秒的延迟。<br/>
+     * EventLoopExecutor由提交任务的线程唤醒；RingBuffer的消费者不依赖唤醒，以短时间的parkNanos轮询
+     */
+    PARK
+}
@@ -0,0 +1,177 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * ClassName: ConcurrentCounterMap <br/>
+ * Description: 并发计数器表。<br/>
+ * 在ConcurrentHashMap上用merge(key, 1, (old, given) -&gt; old + given)计数时，同一个key的更新都在同一个桶锁上串行，
+ * 每次还要创建新的Integer/Long。这里每个key的值是一个LongAdder：key已经存在时increment只是一次无锁的get加一次cell上的CAS，
+ * 不分配对象；多个线程同时更新同一个热点key时，LongAdder会把它们分散到不同的cell（各自填充在独立的缓存行上），
+ * 吞吐量随线程数增长，而不是在一个值上反复CAS失败。<br/>
+ * 代价是读取需要累加所有cell，适合写多读少的统计场景。<br/>
+ * snapshot()需要所有key在同一时刻的值：写入前后各在两个LongAdder（entered、exited）上计数，同样是分散的cell，
+ * 不会让所有写线程争抢同一个锁状态；snapshot()先让新的写入暂停，等已经进入的写入全部退出，
+ * 此时所有计数器都不再变化，逐个读取得到的就是暂停那一刻的一致结果，之后恢复写入。<br/>
+ * date: 2026/10/21 10:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class ConcurrentCounterMap<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> counters;
+
+    /**
+     * 进入和退出写入的次数，两者相等时没有正在进行的写入
+     */
+    private final LongAdder entered = new LongAdder();
+
+    private final LongAdder exited = new LongAdder();
+
+    /**
+     * snapshot()读取期间为true，新的写入等待
+     */
+    private volatile boolean paused;
+
+    public ConcurrentCounterMap() {
+        this(16);
+    }
+
+    public ConcurrentCounterMap(int expectedKeys) {
+        this.counters = new ConcurrentHashMap<>(expectedKeys);
+    }
+
+    public void increment(K key) {
+        add(key, 1);
+    }
+
+    public void add(K key, long delta) {
+        final LongAdder counter = counter(key);
+        while (true) {
+            // 先登记再检查paused：snapshot()先设置paused再检查登记，两边至少有一边能看到对方
+            entered.increment();
+            if (!paused) {
+                counter.add(delta);
+                exited.increment();
+                return;
+            }
+            exited.increment();
+            while (paused) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * key的当前值，不存在时为0
+     */
+    public long get(K key) {
+        final LongAdder counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * 所有key的总和
+     */
+    public long sum() {
+        long sum = 0;
+        for (LongAdder counter : counters.values()) {
+            sum += counter.sum();
+        }
+        return sum;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * 移除key，返回它的值。与移除同时发生的increment可能加在被移除的计数器上而丢失，只应在该key不再更新时调用
+     */
+    public long remove(K key) {
+        final LongAdder counter = counters.remove(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public void forEach(ObjLongConsumer<? super K> action) {
+        counters.forEach((key, counter) -> action.accept(key, counter.sum()));
+    }
+
+    /**
+     * 所有计数在同一时刻的不可变副本，返回之后不再变化，适合用于上报和比较。<br/>
+     * 读取期间并发的increment/add会等待，等待时间与key的数量成正比；多个snapshot()依次执行。
+     * 与snapshot()同时第一次出现的key可能以0出现在结果中
+     */
+    public Map<K, Long> snapshot() {
+        synchronized (this) {
+            paused = true;
+            try {
+                awaitWriters();
+                final Map<K, Long> snapshot = new HashMap<>(Math.max(16, counters.size() * 4 / 3 + 1));
+                counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+                return Collections.unmodifiableMap(snapshot);
+            } finally {
+                paused = false;
+            }
+        }
+    }
+
+    /**
+     * 计数最大的n个key，按计数从大到小排列。使用大小为n的最小堆，只遍历一次，复杂度O(size * log n)
+     */
+    public List<Map.Entry<K, Long>> topN(int n) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        final Comparator<Map.Entry<K, Long>> byCount = Map.Entry.comparingByValue();
+        final PriorityQueue<Map.Entry<K, Long>> heap = new PriorityQueue<>(n + 1, byCount);
+        counters.forEach((key, counter) -> {
+            final long count = counter.sum();
+            if (heap.size() < n) {
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(key, count));
+            } else if (count > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(key, count));
+            }
+        });
+        final List<Map.Entry<K, Long>> result = new ArrayList<>(heap);
+        result.sort(byCount.reversed());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * 等待已经进入的写入全部退出。先读exited再读entered：计入exited的写入，
+     * 它的entered必然已经计入，两者相等说明看到进入的写入都已退出，之后进入的写入都会看到paused
+     */
+    private void awaitWriters() {
+        while (true) {
+            final long exits = exited.sum();
+            if (entered.sum() == exits) {
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    private LongAdder counter(K key) {
+        final LongAdder counter = counters.get(key);
+        // 先无锁地get，只有第一次出现的key才走computeIfAbsent
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+}
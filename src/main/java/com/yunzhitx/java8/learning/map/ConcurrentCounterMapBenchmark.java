@@ -0,0 +1,74 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: ConcurrentCounterMapBenchmark <br/>
+ * Description: 所有线程都更新同一个热点key时，ConcurrentHashMap.merge与ConcurrentCounterMap.increment的吞吐量对比<br/>
+ * date: 2026/10/21 10:45<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class ConcurrentCounterMapBenchmark {
+
+    private static final int OPERATIONS_PER_THREAD = 5_000_000;
+
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    private static final String HOT_KEY = "hot";
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("cpus: " + Runtime.getRuntime().availableProcessors());
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("round " + round);
+            for (int threads : THREADS) {
+                final ConcurrentHashMap<String, Long> map = new ConcurrentHashMap<>();
+                run("ConcurrentHashMap.merge", threads, key -> map.merge(key, 1L, (old, given) -> old + given));
+                check(map.get(HOT_KEY), threads);
+
+                final ConcurrentCounterMap<String> counters = new ConcurrentCounterMap<>();
+                run("ConcurrentCounterMap.increment", threads, counters::increment);
+                check(counters.get(HOT_KEY), threads);
+            }
+        }
+    }
+
+    private static void run(String name, int threads, Consumer<String> increment) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    increment.accept(HOT_KEY);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        final long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        final long elapsed = System.nanoTime() - begin;
+        System.out.printf("  %-32s threads=%d %7.2f Mops/s%n", name, threads,
+                (double) OPERATIONS_PER_THREAD * threads * 1000 / elapsed);
+    }
+
+    private static void check(long count, int threads) {
+        if (count != (long) OPERATIONS_PER_THREAD * threads) {
+            throw new IllegalStateException("lost updates: " + count);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassName: ExpirationListener <br/>
+ * Description: ExpiringMap的过期监听器，一次维护中过期的entry合并为一批回调<br/>
+ * date: 2026/10/22 9:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+@FunctionalInterface
+public interface ExpirationListener<K, V> {
+
+    /**
+     * @param entries 本批过期的entry，不为空，不可修改
+     */
+    void onExpired(List<Map.Entry<K, V>> entries);
+}
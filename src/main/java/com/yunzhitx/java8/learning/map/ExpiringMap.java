@@ -0,0 +1,415 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * ClassName: ExpiringMap <br/>
+ * Description: entry会过期的并发Map，用于会话、令牌这类需要定期清理的数据。<br/>
+ * 每个entry可以有自己的存活时间（TTL，从写入开始计算）和空闲时间（TTI，从最后一次读写开始计算），同时设置时先到者为准。
+ * 与每分钟遍历整个Map清理不同，过期由分层时间轮调度：写入时把entry放入时间轮，维护时只处理时间经过的桶，
+ * 清理的代价与过期的entry数成正比，而不是与Map的大小成正比。<br/>
+ * 时间来自注入的java.time.Clock（见date.ClockApi），没有后台线程：写入时、以及读取时发现时间轮落后一个tick（64ms）时，
+ * 由当前线程推进时间轮；测试中可以用Clock.offset、Clock.fixed或者可以拨动的时钟精确地控制过期。
+ * 过期的entry对get立即不可见，回收和通知最多晚一个tick，长时间没有读写的Map需要定期调用cleanUp。<br/>
+ * 一次维护中过期的entry合并为一批交给ExpirationListener，默认在执行维护的线程上回调，也可以指定executor。<br/>
+ * key和value都不能为null。<br/>
+ * date: 2026/10/22 10:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class ExpiringMap<K, V> {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private static final long TICK_MILLIS = 1L << TimerWheel.SHIFTS[0];
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    private final long defaultTimeToLive;
+
+    private final long defaultTimeToIdle;
+
+    private final ExpirationListener<K, V> listener;
+
+    private final Executor listenerExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 由lock保护
+     */
+    private final TimerWheel wheel;
+
+    /**
+     * 上次推进时间轮的时间，读取时判断是否需要维护
+     */
+    private volatile long lastMaintenance;
+
+    private ExpiringMap(Builder builder) {
+        this.clock = builder.clock;
+        this.defaultTimeToLive = builder.timeToLive;
+        this.defaultTimeToIdle = builder.timeToIdle;
+        @SuppressWarnings("unchecked")
+        final ExpirationListener<K, V> listener = (ExpirationListener<K, V>) builder.listener;
+        this.listener = listener;
+        this.listenerExecutor = builder.listenerExecutor;
+        final long now = clock.millis();
+        this.wheel = new TimerWheel(now);
+        this.lastMaintenance = now;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 没有过期的值，不存在时返回null；设置了空闲时间时刷新空闲计时
+     */
+    public V get(K key) {
+        final long now = clock.millis();
+        final Node<K, V> node = data.get(key);
+        maintainIfBehind(now);
+        if (node == null || node.isExpired(now)) {
+            return null;
+        }
+        node.onAccess(now);
+        return node.value;
+    }
+
+    public V getOrDefault(K key, V defaultValue) {
+        final V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * 使用默认的存活时间和空闲时间写入
+     *
+     * @return 原来没有过期的值，不存在时返回null
+     */
+    public V put(K key, V value) {
+        return put(key, value, defaultTimeToLive, defaultTimeToIdle);
+    }
+
+    /**
+     * 为这个entry单独指定过期时间
+     *
+     * @param timeToLive 存活时间，null表示不按写入时间过期
+     * @param timeToIdle 空闲时间，null表示不按访问时间过期
+     * @return 原来没有过期的值，不存在时返回null
+     */
+    public V put(K key, V value, Duration timeToLive, Duration timeToIdle) {
+        return put(key, value, toMillis(timeToLive), toMillis(timeToIdle));
+    }
+
+    /**
+     * key不存在或者已经过期时调用mapping计算并使用默认的过期时间写入，同一个key的并发调用只计算一次
+     *
+     * @param mapping 返回null时不写入
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+        Objects.requireNonNull(mapping);
+        final long now = clock.millis();
+        final Node<K, V> existing = data.get(key);
+        if (existing != null && !existing.isExpired(now)) {
+            maintainIfBehind(now);
+            existing.onAccess(now);
+            return existing.value;
+        }
+        final Node<K, V>[] created = newNodeHolder();
+        final Node<K, V>[] replaced = newNodeHolder();
+        final Node<K, V> node = data.compute(key, (k, old) -> {
+            if (old != null && !old.isExpired(now)) {
+                return old;
+            }
+            replaced[0] = old;
+            final V value = mapping.apply(k);
+            if (value == null) {
+                return null;
+            }
+            return created[0] = new Node<>(k, value, now, defaultTimeToLive, defaultTimeToIdle);
+        });
+        if (created[0] == null && replaced[0] == null) {
+            // 其它线程已经写入
+            if (node != null) {
+                node.onAccess(now);
+            }
+            maintainIfBehind(now);
+        } else {
+            afterWrite(now, created[0], replaced[0]);
+        }
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * @return 被移除的没有过期的值，不存在时返回null
+     */
+    public V remove(K key) {
+        final Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        final long now = clock.millis();
+        afterWrite(now, null, node);
+        return node.isExpired(now) ? null : node.value;
+    }
+
+    /**
+     * entry数，包括已经过期但还没有被清理的
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * 遍历没有过期的entry，不刷新空闲计时
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        final long now = clock.millis();
+        data.forEach((key, node) -> {
+            if (!node.isExpired(now)) {
+                action.accept(key, node.value);
+            }
+        });
+    }
+
+    /**
+     * 立即推进时间轮，清理过期的entry并通知监听器
+     */
+    public void cleanUp() {
+        final long now = clock.millis();
+        final List<Map.Entry<K, V>> expired;
+        lock.lock();
+        try {
+            expired = advance(now);
+        } finally {
+            lock.unlock();
+        }
+        notifyExpired(expired);
+    }
+
+    private V put(K key, V value, long timeToLive, long timeToIdle) {
+        Objects.requireNonNull(value);
+        final long now = clock.millis();
+        final Node<K, V> node = new Node<>(Objects.requireNonNull(key), value, now, timeToLive, timeToIdle);
+        final Node<K, V> old = data.put(key, node);
+        afterWrite(now, node, old);
+        return old == null || old.isExpired(now) ? null : old.value;
+    }
+
+    /**
+     * 在锁内推进时间轮，把新写入的entry放入时间轮，移除被替换或删除的entry
+     *
+     * @param created  新写入的entry，可以为null
+     * @param replaced 被替换或删除的entry，可以为null；如果它已经过期，作为过期通知
+     */
+    private void afterWrite(long now, Node<K, V> created, Node<K, V> replaced) {
+        if (replaced != null) {
+            replaced.retired = true;
+        }
+        List<Map.Entry<K, V>> expired;
+        lock.lock();
+        try {
+            expired = advance(now);
+            if (replaced != null) {
+                wheel.deschedule(replaced);
+                if (replaced.isExpired(now)) {
+                    expired = add(expired, replaced);
+                }
+            }
+            // 已经被其它线程替换或删除的entry不再放入
+            if (created != null && !created.retired && created.deadline != NEVER) {
+                wheel.schedule(created);
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyExpired(expired);
+    }
+
+    private void maintainIfBehind(long now) {
+        if (now - lastMaintenance < TICK_MILLIS || !lock.tryLock()) {
+            return;
+        }
+        final List<Map.Entry<K, V>> expired;
+        try {
+            expired = advance(now);
+        } finally {
+            lock.unlock();
+        }
+        notifyExpired(expired);
+    }
+
+    /**
+     * 在锁内调用
+     *
+     * @return 本次过期的entry，没有时返回null
+     */
+    private List<Map.Entry<K, V>> advance(long now) {
+        if (now <= wheel.time()) {
+            return null;
+        }
+        final List<Map.Entry<K, V>> expired = new ArrayList<>();
+        wheel.advance(now, timer -> {
+            @SuppressWarnings("unchecked")
+            final Node<K, V> node = (Node<K, V>) timer;
+            if (data.remove(node.key, node)) {
+                node.retired = true;
+                expired.add(new AbstractMap.SimpleImmutableEntry<>(node.key, node.value));
+            }
+        });
+        lastMaintenance = now;
+        return expired.isEmpty() ? null : expired;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newNodeHolder() {
+        return (Node<K, V>[]) new Node[1];
+    }
+
+    private static <K, V> List<Map.Entry<K, V>> add(List<Map.Entry<K, V>> expired, Node<K, V> node) {
+        final List<Map.Entry<K, V>> result = expired != null ? expired : new ArrayList<>(1);
+        result.add(new AbstractMap.SimpleImmutableEntry<>(node.key, node.value));
+        return result;
+    }
+
+    private void notifyExpired(List<Map.Entry<K, V>> expired) {
+        if (expired == null || listener == null) {
+            return;
+        }
+        final List<Map.Entry<K, V>> batch = Collections.unmodifiableList(expired);
+        if (listenerExecutor == null) {
+            listener.onExpired(batch);
+        } else {
+            listenerExecutor.execute(() -> listener.onExpired(batch));
+        }
+    }
+
+    private static long toMillis(Duration duration) {
+        if (duration == null) {
+            return NEVER;
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive: " + duration);
+        }
+        return duration.toMillis();
+    }
+
+    private static final class Node<K, V> extends TimerWheel.Timer {
+
+        private final K key;
+
+        private final V value;
+
+        /**
+         * 按写入时间的过期时间，NEVER表示没有
+         */
+        private final long hardDeadline;
+
+        private final long timeToIdle;
+
+        /**
+         * 已经从data中移除或者被替换
+         */
+        private volatile boolean retired;
+
+        Node(K key, V value, long now, long timeToLive, long timeToIdle) {
+            this.key = key;
+            this.value = value;
+            this.hardDeadline = timeToLive == NEVER ? NEVER : now + timeToLive;
+            this.timeToIdle = timeToIdle;
+            this.deadline = Math.min(hardDeadline, timeToIdle == NEVER ? NEVER : now + timeToIdle);
+        }
+
+        boolean isExpired(long now) {
+            return deadline - now <= 0;
+        }
+
+        /**
+         * 推后空闲过期时间。不移动时间轮中的位置，到达原来的桶时由时间轮重新放置
+         */
+        void onAccess(long now) {
+            if (timeToIdle != NEVER) {
+                final long next = Math.min(hardDeadline, now + timeToIdle);
+                if (next > deadline) {
+                    deadline = next;
+                }
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private Clock clock = Clock.systemUTC();
+
+        private long timeToLive = NEVER;
+
+        private long timeToIdle = NEVER;
+
+        private ExpirationListener<?, ?> listener;
+
+        private Executor listenerExecutor;
+
+        private Builder() {
+        }
+
+        /**
+         * 时间来源，默认Clock.systemUTC()
+         */
+        public Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock);
+            return this;
+        }
+
+        /**
+         * 默认的存活时间，从写入开始计算
+         */
+        public Builder expireAfterWrite(Duration timeToLive) {
+            this.timeToLive = toMillis(Objects.requireNonNull(timeToLive));
+            return this;
+        }
+
+        /**
+         * 默认的空闲时间，从最后一次读写开始计算
+         */
+        public Builder expireAfterAccess(Duration timeToIdle) {
+            this.timeToIdle = toMillis(Objects.requireNonNull(timeToIdle));
+            return this;
+        }
+
+        public Builder expirationListener(ExpirationListener<?, ?> listener) {
+            this.listener = Objects.requireNonNull(listener);
+            return this;
+        }
+
+        /**
+         * 执行过期回调的executor，默认在执行维护的线程上直接回调
+         */
+        public Builder listenerExecutor(Executor listenerExecutor) {
+            this.listenerExecutor = Objects.requireNonNull(listenerExecutor);
+            return this;
+        }
+
+        public <K, V> ExpiringMap<K, V> build() {
+            return new ExpiringMap<>(this);
+        }
+    }
+}
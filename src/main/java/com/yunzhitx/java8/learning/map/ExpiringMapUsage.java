@@ -0,0 +1,145 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: ExpiringMapUsage <br/>
+ * Description: ExpiringMap的用法，以及与每分钟遍历整个Map清理过期会话的对比。<br/>
+ * 使用可以手动拨动的时钟，不需要真的等待：100万个会话，存活时间在10到70分钟之间随机，
+ * 时钟每次前进1分钟，分别统计两种方式清理的总耗时。<br/>
+ * date: 2026/10/22 11:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class ExpiringMapUsage {
+
+    private static final int SESSIONS = 1_000_000;
+
+    private static final int MINUTES = 80;
+
+    public static void main(String[] args) {
+        basicUsage();
+        compareWithSweep();
+    }
+
+    private static void basicUsage() {
+        System.out.println("basicUsage");
+        final ManualClock clock = new ManualClock();
+        final ExpiringMap<String, String> tokens = ExpiringMap.builder()
+                .clock(clock)
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .expirationListener((ExpirationListener<String, String>) entries ->
+                        System.out.println("expired: " + entries))
+                .build();
+        tokens.put("token-1", "alice");
+        // 单独指定：最多存活1小时，5分钟不访问就过期
+        tokens.put("token-2", "bob", Duration.ofHours(1), Duration.ofMinutes(5));
+
+        clock.advance(Duration.ofMinutes(4));
+        System.out.println("after 4 min: " + tokens.get("token-2"));
+        clock.advance(Duration.ofMinutes(4));
+        System.out.println("after 8 min: " + tokens.get("token-2"));
+        clock.advance(Duration.ofMinutes(6));
+        // token-2已经5分钟没有访问，get立即返回null
+        System.out.println("after 14 min: " + tokens.get("token-2"));
+        clock.advance(Duration.ofMinutes(20));
+        System.out.println("after 34 min: " + tokens.get("token-1"));
+        tokens.cleanUp();
+    }
+
+    private static void compareWithSweep() {
+        System.out.println("compareWithSweep");
+        final Random random = new Random(42);
+        final long[] timeToLive = new long[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            timeToLive[i] = Duration.ofMinutes(10).toMillis() + random.nextInt((int) Duration.ofHours(1).toMillis());
+        }
+
+        // 原来的方式：保存到期时间，每分钟遍历整个Map
+        final ManualClock sweepClock = new ManualClock();
+        final ConcurrentHashMap<Integer, Long> deadlines = new ConcurrentHashMap<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            deadlines.put(i, sweepClock.millis() + timeToLive[i]);
+        }
+        final AtomicLong sweepExpired = new AtomicLong();
+        long sweepNanos = 0;
+        for (int minute = 0; minute < MINUTES; minute++) {
+            sweepClock.advance(Duration.ofMinutes(1));
+            final long now = sweepClock.millis();
+            final long start = System.nanoTime();
+            deadlines.entrySet().removeIf(entry -> {
+                final boolean expired = entry.getValue() <= now;
+                if (expired) {
+                    sweepExpired.incrementAndGet();
+                }
+                return expired;
+            });
+            sweepNanos += System.nanoTime() - start;
+        }
+        System.out.printf("full sweep every minute: %,d ms, expired=%,d%n", sweepNanos / 1_000_000,
+                sweepExpired.get());
+
+        final ManualClock wheelClock = new ManualClock();
+        final LongAdder wheelExpired = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final ExpiringMap<Integer, Integer> sessions = ExpiringMap.builder()
+                .clock(wheelClock)
+                .expirationListener((ExpirationListener<Integer, Integer>) entries -> {
+                    batches.increment();
+                    wheelExpired.add(entries.size());
+                })
+                .build();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.put(i, i, Duration.ofMillis(timeToLive[i]), null);
+        }
+        long wheelNanos = 0;
+        for (int minute = 0; minute < MINUTES; minute++) {
+            wheelClock.advance(Duration.ofMinutes(1));
+            final long start = System.nanoTime();
+            sessions.cleanUp();
+            wheelNanos += System.nanoTime() - start;
+        }
+        System.out.printf("timer wheel:             %,d ms, expired=%,d in %,d batches%n", wheelNanos / 1_000_000,
+                wheelExpired.sum(), batches.sum());
+    }
+
+    /**
+     * 手动拨动的时钟，测试中代替Clock.systemUTC()
+     */
+    private static final class ManualClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2026-10-22T00:00:00Z").toEpochMilli());
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * ClassName: FrozenMap <br/>
+ * Description: 不可变的Map，用最小完美哈希把n个key一一映射到[0, n)，key和value交错放在一个长度为2n的数组中。<br/>
+ * 适合MapEnhancement.MAP这种在static块中填充一次之后只读的查找表：没有Node对象、没有冲突链、没有空槽位，
+ * 查询是一次哈希加一次equals。<br/>
+ * 完美哈希使用hash-and-displace（CHD的简化版本）：key按哈希分到n/4个桶中，
+ * 从最大的桶开始为每个桶寻找一对位移(d0, d1)，使桶内所有key的位置(f1 + d0 * f2 + d1) mod n都空闲且互不相同，
+ * 每个桶只需要保存这两个int，即每个key约2字节的额外开销。找不到时换一个种子重建。<br/>
+ * 完美哈希建立在key.hashCode()之上，hashCode相同的key无法区分，它们另外放在一个小HashMap中。<br/>
+ * 与HashMap不同，槽位中没有保存哈希值，查询不存在的key时需要读取候选key做equals，因此未命中比命中稍慢。<br/>
+ * key不能为null，value可以为null。构建是O(n)期望时间，查询线程安全。<br/>
+ * date: 2026/10/21 17:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class FrozenMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * 平均每个桶的key数，越大位移表越小，但为大桶寻找位移越慢
+     */
+    private static final int LAMBDA = 4;
+
+    private static final int MAX_SEEDS = 16;
+
+    private static final FrozenMap<Object, Object> EMPTY = new FrozenMap<>(0, new int[0], new Object[0],
+            Collections.emptyMap());
+
+    private final long seed;
+
+    /**
+     * 第i个桶的位移是displacements[2i]和displacements[2i + 1]
+     */
+    private final int[] displacements;
+
+    /**
+     * 位置i的key在table[2i]，value在table[2i + 1]，查询时key和value通常在同一个缓存行中
+     */
+    private final Object[] table;
+
+    /**
+     * hashCode与其它key相同的entry。100万个随机String中大约有100对hashCode相同，
+     * 不能线性查找，否则每次查询不存在的key都要逐个equals
+     */
+    private final Map<Object, Object> collided;
+
+    private Set<Entry<K, V>> entrySet;
+
+    private FrozenMap(long seed, int[] displacements, Object[] table, Map<Object, Object> collided) {
+        this.seed = seed;
+        this.displacements = displacements;
+        this.table = table;
+        this.collided = collided;
+    }
+
+    /**
+     * 复制map中的所有entry构建FrozenMap
+     *
+     * @throws NullPointerException  map中有null key
+     * @throws IllegalStateException 多次换种子后仍然无法构建完美哈希（hashCode分布极差时）
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> FrozenMap<K, V> of(Map<? extends K, ? extends V> map) {
+        if (map instanceof FrozenMap) {
+            return (FrozenMap<K, V>) map;
+        }
+        if (map.isEmpty()) {
+            return (FrozenMap<K, V>) EMPTY;
+        }
+        final int total = map.size();
+        final Object[] allKeys = new Object[total];
+        final Object[] allValues = new Object[total];
+        // 高32位是hashCode，低32位是下标，排序后hashCode相同的key相邻
+        final long[] sorted = new long[total];
+        int count = 0;
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            final Object key = Objects.requireNonNull(entry.getKey(), "null key");
+            allKeys[count] = key;
+            allValues[count] = entry.getValue();
+            sorted[count] = ((long) key.hashCode() << 32) | count;
+            count++;
+        }
+        Arrays.sort(sorted);
+        // hashCode相同的key分出去，剩下的hashCode互不相同
+        final int[] unique = new int[total];
+        final int[] hashes = new int[total];
+        final Map<Object, Object> collided = new HashMap<>();
+        int n = 0;
+        for (int i = 0; i < total; ) {
+            int j = i + 1;
+            while (j < total && (sorted[j] >>> 32) == (sorted[i] >>> 32)) {
+                j++;
+            }
+            if (j - i == 1) {
+                unique[n] = (int) sorted[i];
+                hashes[n] = (int) (sorted[i] >>> 32);
+                n++;
+            } else {
+                for (int k = i; k < j; k++) {
+                    collided.put(allKeys[(int) sorted[k]], allValues[(int) sorted[k]]);
+                }
+            }
+            i = j;
+        }
+
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int attempt = 0; attempt < MAX_SEEDS; attempt++, seed = mix64(seed)) {
+            final int[] slots = new int[n];
+            final int[] displacements = tryBuild(hashes, n, seed, slots);
+            if (displacements == null) {
+                continue;
+            }
+            final Object[] table = new Object[n * 2];
+            for (int i = 0; i < n; i++) {
+                table[2 * slots[i]] = allKeys[unique[i]];
+                table[2 * slots[i] + 1] = allValues[unique[i]];
+            }
+            return new FrozenMap<>(seed, displacements, table, collided);
+        }
+        throw new IllegalStateException("failed to build a perfect hash for " + n + " keys");
+    }
+
+    /**
+     * 用给定的种子寻找每个桶的位移
+     *
+     * @param slots 输出，第i个key的位置
+     * @return 位移表，某个桶找不到位移时返回null
+     */
+    private static int[] tryBuild(int[] hashes, int n, long seed, int[] slots) {
+        final int bucketCount = (n + LAMBDA - 1) / LAMBDA;
+        final int[] keyBuckets = new int[n];
+        final long[] f1 = new long[n];
+        final long[] f2 = new long[n];
+        final int[] bucketSizes = new int[bucketCount];
+        int maxBucketSize = 0;
+        for (int i = 0; i < n; i++) {
+            final long mixed = mix64(hashes[i] ^ seed);
+            keyBuckets[i] = bucket(mixed, bucketCount);
+            f1[i] = f1(mixed);
+            f2[i] = f2(mixed);
+            maxBucketSize = Math.max(maxBucketSize, ++bucketSizes[keyBuckets[i]]);
+        }
+        // 按桶分组（计数排序），再按桶大小从大到小处理：大桶约束多，先放在空闲位置多的时候
+        final int[] bucketStart = new int[bucketCount + 1];
+        for (int b = 0; b < bucketCount; b++) {
+            bucketStart[b + 1] = bucketStart[b] + bucketSizes[b];
+        }
+        final int[] members = new int[n];
+        final int[] fill = Arrays.copyOf(bucketStart, bucketCount);
+        for (int i = 0; i < n; i++) {
+            members[fill[keyBuckets[i]]++] = i;
+        }
+        // 桶按大小从大到小排列，桶的大小很小，同样用计数排序
+        final int[] sizeStart = new int[maxBucketSize + 2];
+        for (int b = 0; b < bucketCount; b++) {
+            sizeStart[maxBucketSize - bucketSizes[b] + 1]++;
+        }
+        for (int i = 1; i < sizeStart.length; i++) {
+            sizeStart[i] += sizeStart[i - 1];
+        }
+        final int[] order = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[sizeStart[maxBucketSize - bucketSizes[b]]++] = b;
+        }
+
+        final int[] displacements = new int[bucketCount * 2];
+        // 空闲位置的紧凑列表，freeIndex[p]是位置p在列表中的下标，占用时与末尾交换删除
+        final int[] free = new int[n];
+        final int[] freeIndex = new int[n];
+        for (int p = 0; p < n; p++) {
+            free[p] = p;
+            freeIndex[p] = p;
+        }
+        int freeCount = n;
+        // 记录本轮尝试中桶内已经用到的位置，用代数代替每次清空数组
+        final int[] tryGeneration = new int[n];
+        int generation = 0;
+        final int[] candidate = new int[LAMBDA * 8];
+        for (int b : order) {
+            final int size = bucketSizes[b];
+            if (size == 0) {
+                break;
+            }
+            final int start = bucketStart[b];
+            final int[] positions = size <= candidate.length ? candidate : new int[size];
+            final int first = members[start];
+            boolean placed = false;
+            // 不盲目枚举d1，而是让桶内第一个key依次落在每个空闲位置上，只需要检查其余的key，
+            // 表快满时可以省去绝大部分注定失败的尝试
+            search:
+            for (int d0 = 0; d0 < n; d0++) {
+                final int base = index(f1[first], f2[first], d0, 0, n);
+                for (int f = 0; f < freeCount; f++) {
+                    final int d1 = free[f] >= base ? free[f] - base : free[f] - base + n;
+                    generation++;
+                    positions[0] = free[f];
+                    tryGeneration[free[f]] = generation;
+                    boolean fits = true;
+                    for (int j = 1; j < size; j++) {
+                        final int key = members[start + j];
+                        final int position = index(f1[key], f2[key], d0, d1, n);
+                        if (freeIndex[position] < 0 || tryGeneration[position] == generation) {
+                            fits = false;
+                            break;
+                        }
+                        tryGeneration[position] = generation;
+                        positions[j] = position;
+                    }
+                    if (fits) {
+                        for (int j = 0; j < size; j++) {
+                            final int position = positions[j];
+                            final int last = free[--freeCount];
+                            free[freeIndex[position]] = last;
+                            freeIndex[last] = freeIndex[position];
+                            freeIndex[position] = -1;
+                            slots[members[start + j]] = position;
+                        }
+                        displacements[2 * b] = d0;
+                        displacements[2 * b + 1] = d1;
+                        placed = true;
+                        break search;
+                    }
+                }
+            }
+            if (!placed) {
+                return null;
+            }
+        }
+        return displacements;
+    }
+
+    @Override
+    public int size() {
+        return (table.length >> 1) + collided.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0 || !collided.isEmpty() && collided.containsKey(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return (V) table[index + 1];
+        }
+        return collided.isEmpty() ? null : (V) collided.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return (V) table[index + 1];
+        }
+        return collided.isEmpty() ? defaultValue : (V) collided.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < table.length; i += 2) {
+            action.accept((K) table[i], (V) table[i + 1]);
+        }
+        collided.forEach((key, value) -> action.accept((K) key, (V) value));
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * 一次哈希，一次equals
+     *
+     * @return key在table中的下标，不存在时返回-1
+     */
+    private int indexOf(Object key) {
+        final int n = table.length >> 1;
+        if (n == 0 || key == null) {
+            return -1;
+        }
+        final long mixed = mix64(key.hashCode() ^ seed);
+        final int b = bucket(mixed, displacements.length >> 1);
+        final int index = index(f1(mixed), f2(mixed), displacements[2 * b], displacements[2 * b + 1], n);
+        final Object candidate = table[2 * index];
+        return candidate == key || candidate.equals(key) ? 2 * index : -1;
+    }
+
+    /**
+     * 用哈希的高32位乘以桶数再取高32位，代替取模映射到[0, bucketCount)，省掉一次除法
+     */
+    private static int bucket(long mixed, int bucketCount) {
+        return (int) (((mixed >>> 32) * bucketCount) >>> 32);
+    }
+
+    /**
+     * (f1 + d0 * f2 + d1) mod n。桶号用了哈希的高32位，f1取低31位，f2取哈希乘以一个奇数常量后的高31位，
+     * 都是非负的31位整数，乘积不会溢出long
+     */
+    private static int index(long f1, long f2, int d0, int d1, int n) {
+        return (int) ((f1 + d0 * f2 + d1) % n);
+    }
+
+    private static long f1(long mixed) {
+        return mixed & 0x7FFFFFFFL;
+    }
+
+    private static long f2(long mixed) {
+        return (mixed * 0xC2B2AE3D27D4EB4FL) >>> 33;
+    }
+
+    /**
+     * SplitMix64的最终混合，把key.hashCode()和种子扩展成64位
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return FrozenMap.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Iterator<Entry<K, V>>() {
+
+                private final Iterator<Entry<Object, Object>> collidedIterator = collided.entrySet().iterator();
+
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < table.length || collidedIterator.hasNext();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<K, V> next() {
+                    if (next < table.length) {
+                        final int i = next;
+                        next += 2;
+                        return new SimpleImmutableEntry<>((K) table[i], (V) table[i + 1]);
+                    }
+                    final Entry<Object, Object> entry = collidedIterator.next();
+                    return new SimpleImmutableEntry<>((K) entry.getKey(), (V) entry.getValue());
+                }
+            };
+        }
+    }
+}
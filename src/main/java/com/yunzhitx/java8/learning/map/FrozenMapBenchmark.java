@@ -0,0 +1,91 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: FrozenMapBenchmark <br/>
+ * Description: 静态查找表用HashMap和FrozenMap的对比。<br/>
+ * 查询：100万个String key，随机顺序查询2000万次（其中10%不存在），统计ns/op；<br/>
+ * 内存：构建前后（多次GC后）堆使用量的差，不包括两边共用的key和value对象本身。<br/>
+ * date: 2026/10/21 18:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class FrozenMapBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+
+    private static final int OPERATIONS = 20_000_000;
+
+    private static final int ROUNDS = 3;
+
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        final Random random = new Random(42);
+        final String[] keys = new String[ENTRIES];
+        final Integer[] values = new Integer[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = "user-" + random.nextInt(Integer.MAX_VALUE) + "-" + i;
+            values[i] = i;
+        }
+        final String[] queries = new String[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            queries[i] = random.nextInt(10) == 0 ? "missing-" + random.nextInt(1000) : keys[random.nextInt(ENTRIES)];
+        }
+
+        final Map<String, Integer> hashMap = footprint("HashMap", () -> {
+            final Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < ENTRIES; i++) {
+                map.put(keys[i], values[i]);
+            }
+            return map;
+        });
+        final Map<String, Integer> frozenMap = footprint("FrozenMap", () -> {
+            final long start = System.nanoTime();
+            final Map<String, Integer> map = FrozenMap.of(hashMap);
+            System.out.printf("FrozenMap.of: %,d ms%n", (System.nanoTime() - start) / 1_000_000);
+            return map;
+        });
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            lookup("HashMap.get", hashMap, queries);
+            lookup("FrozenMap.get", frozenMap, queries);
+        }
+        System.out.println(blackhole);
+    }
+
+    private static void lookup(String name, Map<String, Integer> map, String[] queries) {
+        final long start = System.nanoTime();
+        long found = 0;
+        for (String query : queries) {
+            if (map.get(query) != null) {
+                found++;
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        blackhole += found;
+        System.out.printf("  %-16s %5.1f ns/op%n", name, (double) elapsed / queries.length);
+    }
+
+    private static <T> T footprint(String name, Supplier<T> factory) {
+        final long before = usedMemory();
+        final T map = factory.get();
+        final long after = usedMemory();
+        System.out.printf("%-10s %6.1f bytes/entry%n", name, (double) (after - before) / ENTRIES);
+        return map;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
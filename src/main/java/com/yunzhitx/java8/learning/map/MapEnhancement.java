@@ -34,6 +34,10 @@ public class MapEnhancement {
         computeIfPresent();
         // 合并key的老值和给定值为一个新值，put并返回
         merge();
+        // 填充完之后只读的查找表，冻结为FrozenMap
+        frozen();
+        // 多线程共享、偶尔整体更新的配置，使用PersistentMap快照
+        persistent();
     }
 
     public static void forEach() {
@@ -99,4 +103,29 @@ public class MapEnhancement {
         assert 5 == MAP.merge("b", 3, (oldVal, givenVal) -> oldVal + givenVal);
         assert 5 == MAP.get("b");
     }
+
+    private static void frozen() {
+        System.out.println("frozen");
+        // 复制为不可变的完美哈希表，之后的查询没有Node对象和冲突链
+        final Map<String, Integer> frozen = FrozenMap.of(MAP);
+        assert frozen.equals(MAP);
+        assert 3 == frozen.get("c");
+        assert null == frozen.get("test");
+        frozen.forEach((key, val) -> System.out.println("key = " + key + ", value = " + val));
+    }
+
+    private static void persistent() {
+        System.out.println("persistent");
+        final PersistentMapRef<String, Integer> config = new PersistentMapRef<>(PersistentMap.of(MAP));
+        final PersistentMap<String, Integer> before = config.snapshot();
+        // 一批修改原子地生效，读线程不会看到只改了一半的配置
+        config.updateBatch(editor -> editor.put("a", 10).merge("b", 20, Integer::sum).remove("c"));
+        assert 4 == before.get("a");
+        assert 3 == before.get("c");
+        final PersistentMap<String, Integer> after = config.snapshot();
+        assert 10 == after.get("a");
+        assert 25 == after.get("b");
+        assert null == after.get("c");
+        after.forEach((key, val) -> System.out.println("key = " + key + ", value = " + val));
+    }
 }
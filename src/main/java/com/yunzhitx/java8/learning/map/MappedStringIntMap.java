@@ -0,0 +1,496 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * ClassName: MappedStringIntMap <br/>
+ * Description: 保存在内存映射文件中的String到int的哈希表，用于启动时就需要的大型只读查找表。<br/>
+ * 文件格式：
+ * <pre>
+ * [头部槽位0 | 头部槽位1] 各64字节：magic、generation、容量、条数、字符串区末尾、CRC32
+ * [槽位表]   capacity * 8字节：key的哈希(int) + 记录在文件中的位置(int，0表示空)，线性探测
+ * [字符串区] 每条记录：value(int) + UTF-8长度(int) + UTF-8字节，按4字节对齐
+ * </pre>
+ * 打开文件只是mmap并校验头部，与条数无关，查询直接在映射的内存上比较UTF-8字节，不需要反序列化；
+ * 数据页由操作系统按需加载，多个进程打开同一个文件时共享page cache。<br/>
+ * 写入是追加式的：新记录写在已提交的字符串区末尾之后，commit时先force数据，再把新的头部写入generation较旧的槽位并force，
+ * 打开时选择CRC正确且generation最大的头部。因此崩溃只会丢失上次commit之后的写入：
+ * 指向已提交末尾之后的槽位在查询时视为空，可写打开时被清除。
+ * 覆盖已存在key的值是原地写入对齐的4字节，立即生效，不参与回滚。<br/>
+ * 槽位表超过负载因子时写出一个两倍容量的新文件再原子重命名替换，这一步同时提交了之前的写入。<br/>
+ * 不支持删除，key不能为null，文件最大2GB。只读打开的实例可以被多个线程同时查询；可写实例非线程安全。<br/>
+ * date: 2026/10/21 16:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class MappedStringIntMap implements Closeable {
+
+    private static final long MAGIC = 0x4D53494D41503031L;
+
+    private static final int HEADER_SLOT_SIZE = 64;
+
+    private static final int HEADER_SIZE = HEADER_SLOT_SIZE * 2;
+
+    private static final int HEADER_CRC_OFFSET = 28;
+
+    private static final int SLOT_SIZE = 8;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private static final int MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    private final Path path;
+
+    private final boolean writable;
+
+    private final int noEntryValue;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int capacity;
+
+    private int mask;
+
+    private int size;
+
+    private int arenaEnd;
+
+    /**
+     * 已提交的状态，查询时位置不小于committedArenaEnd的记录视为不存在
+     */
+    private int committedSize;
+
+    private int committedArenaEnd;
+
+    private long generation;
+
+    private int activeHeaderSlot;
+
+    private MappedStringIntMap(Path path, boolean writable, int noEntryValue) {
+        this.path = path;
+        this.writable = writable;
+        this.noEntryValue = noEntryValue;
+    }
+
+    /**
+     * 只读打开已有的文件
+     *
+     * @param noEntryValue key不存在时get返回的值
+     */
+    public static MappedStringIntMap openReadOnly(Path path, int noEntryValue) throws IOException {
+        final MappedStringIntMap map = new MappedStringIntMap(Objects.requireNonNull(path), false, noEntryValue);
+        map.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            map.load();
+        } catch (IOException | RuntimeException ex) {
+            map.channel.close();
+            throw ex;
+        }
+        return map;
+    }
+
+    /**
+     * 可写打开，文件不存在时按expectedSize创建
+     *
+     * @param expectedSize 新建文件时预计的key数，达到之前槽位表不需要扩容
+     * @param noEntryValue key不存在时get、put返回的值
+     */
+    public static MappedStringIntMap open(Path path, int expectedSize, int noEntryValue) throws IOException {
+        final MappedStringIntMap map = new MappedStringIntMap(Objects.requireNonNull(path), true, noEntryValue);
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            create(path, capacityFor(expectedSize), HEADER_SIZE).close();
+        }
+        map.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            map.load();
+            map.discardUncommitted();
+        } catch (IOException | RuntimeException ex) {
+            map.channel.close();
+            throw ex;
+        }
+        return map;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int noEntryValue() {
+        return noEntryValue;
+    }
+
+    public boolean containsKey(String key) {
+        return find(key, hash(key)) != 0;
+    }
+
+    /**
+     * @return key对应的值，不存在时返回noEntryValue
+     */
+    public int get(String key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public int getOrDefault(String key, int defaultValue) {
+        final int record = find(key, hash(key));
+        return record != 0 ? buffer.getInt(record) : defaultValue;
+    }
+
+    /**
+     * 写入key，已存在时原地覆盖值；新key在commit之前崩溃会丢失
+     *
+     * @return 原来的值，不存在时返回noEntryValue
+     */
+    public int put(String key, int value) throws IOException {
+        ensureWritable();
+        final int hash = hash(key);
+        final int existing = find(key, hash);
+        if (existing != 0) {
+            final int old = buffer.getInt(existing);
+            buffer.putInt(existing, value);
+            return old;
+        }
+        if (size + 1 > threshold(capacity)) {
+            rebuild(capacity << 1);
+        }
+        final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        final long recordSize = align(RECORD_HEADER_SIZE + (long) bytes.length);
+        final int record = arenaEnd;
+        ensureMapped(record + recordSize);
+        buffer.putInt(record, value);
+        buffer.putInt(record + 4, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(record + RECORD_HEADER_SIZE + i, bytes[i]);
+        }
+        arenaEnd = (int) (record + recordSize);
+        int slot = hash & mask;
+        while (buffer.getInt(slotOffset(slot) + 4) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        buffer.putInt(slotOffset(slot), hash);
+        buffer.putInt(slotOffset(slot) + 4, record);
+        size++;
+        return noEntryValue;
+    }
+
+    /**
+     * 持久化上次commit之后的写入：先刷出数据页，再写入新的头部并刷出
+     */
+    public void commit() throws IOException {
+        ensureWritable();
+        if (size == committedSize && arenaEnd == committedArenaEnd) {
+            // 只有原地覆盖的值，刷出即可
+            buffer.force();
+            return;
+        }
+        buffer.force();
+        final int slot = 1 - activeHeaderSlot;
+        writeHeader(buffer, slot * HEADER_SLOT_SIZE, generation + 1, capacity, size, arenaEnd);
+        buffer.force();
+        generation++;
+        activeHeaderSlot = slot;
+        committedSize = size;
+        committedArenaEnd = arenaEnd;
+    }
+
+    /**
+     * 遍历所有已写入的key，按槽位顺序
+     */
+    public void forEach(ObjIntConsumer<? super String> action) {
+        final byte[] scratch = new byte[64];
+        for (int slot = 0; slot < capacity; slot++) {
+            final int record = visibleRecord(slot);
+            if (record != 0) {
+                action.accept(readKey(record, scratch), buffer.getInt(record));
+            }
+        }
+    }
+
+    /**
+     * 可写实例先commit。映射的内存在MappedByteBuffer被回收时才释放（Java 8没有公开的unmap）
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (writable) {
+                commit();
+            }
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void load() throws IOException {
+        final long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("not a mapped map file: " + path);
+        }
+        if (fileSize > MAX_FILE_SIZE) {
+            throw new IOException("file too large: " + path);
+        }
+        buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        final boolean valid0 = validHeader(0);
+        final boolean valid1 = validHeader(HEADER_SLOT_SIZE);
+        if (!valid0 && !valid1) {
+            throw new IOException("corrupted header: " + path);
+        }
+        if (valid0 && (!valid1 || buffer.getLong(8) >= buffer.getLong(HEADER_SLOT_SIZE + 8))) {
+            activeHeaderSlot = 0;
+        } else {
+            activeHeaderSlot = 1;
+        }
+        final int header = activeHeaderSlot * HEADER_SLOT_SIZE;
+        generation = buffer.getLong(header + 8);
+        capacity = buffer.getInt(header + 16);
+        committedSize = buffer.getInt(header + 20);
+        committedArenaEnd = buffer.getInt(header + 24);
+        if (Integer.bitCount(capacity) != 1 || committedArenaEnd < arenaStart(capacity)
+                || committedArenaEnd > fileSize) {
+            throw new IOException("corrupted header: " + path);
+        }
+        mask = capacity - 1;
+        size = committedSize;
+        arenaEnd = committedArenaEnd;
+    }
+
+    private boolean validHeader(int offset) {
+        if (buffer.getLong(offset) != MAGIC) {
+            return false;
+        }
+        return buffer.getInt(offset + HEADER_CRC_OFFSET) == crc(buffer, offset);
+    }
+
+    /**
+     * 清除崩溃前没有提交的槽位。提交时这些槽位都是空的，已提交的探测链不会经过它们，清除后与提交时完全一致
+     */
+    private void discardUncommitted() {
+        for (int slot = 0; slot < capacity; slot++) {
+            final int record = buffer.getInt(slotOffset(slot) + 4);
+            if (record >= committedArenaEnd) {
+                buffer.putInt(slotOffset(slot), 0);
+                buffer.putInt(slotOffset(slot) + 4, 0);
+            }
+        }
+    }
+
+    /**
+     * @return 记录在文件中的位置，不存在时返回0
+     */
+    private int find(String key, int hash) {
+        int slot = hash & mask;
+        while (true) {
+            final int offset = slotOffset(slot);
+            final int record = buffer.getInt(offset + 4);
+            if (record == 0 || (!writable && record >= committedArenaEnd)) {
+                return 0;
+            }
+            if (buffer.getInt(offset) == hash && keyEquals(record, key)) {
+                return record;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int visibleRecord(int slot) {
+        final int record = buffer.getInt(slotOffset(slot) + 4);
+        return record == 0 || (!writable && record >= committedArenaEnd) ? 0 : record;
+    }
+
+    /**
+     * 直接比较映射内存中的UTF-8字节，ASCII字符逐个比较不分配内存，遇到非ASCII字符才编码剩余部分
+     */
+    private boolean keyEquals(int record, String key) {
+        final int length = buffer.getInt(record + 4);
+        final int start = record + RECORD_HEADER_SIZE;
+        final int chars = key.length();
+        if (length < chars) {
+            return false;
+        }
+        for (int i = 0; i < chars; i++) {
+            final char c = key.charAt(i);
+            if (c >= 0x80) {
+                final byte[] rest = key.substring(i).getBytes(StandardCharsets.UTF_8);
+                if (rest.length != length - i) {
+                    return false;
+                }
+                for (int j = 0; j < rest.length; j++) {
+                    if (buffer.get(start + i + j) != rest[j]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (buffer.get(start + i) != c) {
+                return false;
+            }
+        }
+        return length == chars;
+    }
+
+    private String readKey(int record, byte[] scratch) {
+        final int length = buffer.getInt(record + 4);
+        final byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(record + RECORD_HEADER_SIZE + i);
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensureMapped(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > MAX_FILE_SIZE) {
+            throw new IOException("mapped map file would exceed 2GB: " + path);
+        }
+        final long newSize = Math.min(MAX_FILE_SIZE, Math.max(required, (long) buffer.capacity() * 2));
+        // READ_WRITE映射超过文件大小时文件会被扩展
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+    }
+
+    /**
+     * 把所有记录（包括还没提交的）写入新容量的临时文件，提交后原子重命名替换当前文件
+     */
+    private void rebuild(int newCapacity) throws IOException {
+        final long newArenaStart = arenaStart(newCapacity);
+        final long liveBytes = arenaEnd - arenaStart(capacity);
+        if (newArenaStart + liveBytes > MAX_FILE_SIZE) {
+            throw new IOException("mapped map file would exceed 2GB: " + path);
+        }
+        final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel target = create(tmp, newCapacity, newArenaStart + liveBytes)) {
+            final MappedByteBuffer out = target.map(FileChannel.MapMode.READ_WRITE, 0, newArenaStart + liveBytes);
+            final int newMask = newCapacity - 1;
+            int position = (int) newArenaStart;
+            for (int slot = 0; slot < capacity; slot++) {
+                final int record = buffer.getInt(slotOffset(slot) + 4);
+                if (record == 0) {
+                    continue;
+                }
+                final int hash = buffer.getInt(slotOffset(slot));
+                final int recordSize = (int) align(RECORD_HEADER_SIZE + (long) buffer.getInt(record + 4));
+                for (int i = 0; i < recordSize; i++) {
+                    out.put(position + i, buffer.get(record + i));
+                }
+                int newSlot = hash & newMask;
+                while (out.getInt(HEADER_SIZE + newSlot * SLOT_SIZE + 4) != 0) {
+                    newSlot = (newSlot + 1) & newMask;
+                }
+                out.putInt(HEADER_SIZE + newSlot * SLOT_SIZE, hash);
+                out.putInt(HEADER_SIZE + newSlot * SLOT_SIZE + 4, position);
+                position += recordSize;
+            }
+            out.force();
+            writeHeader(out, 0, generation + 1, newCapacity, size, position);
+            out.force();
+        }
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        load();
+    }
+
+    /**
+     * 新建只有头部和空槽位表的文件
+     */
+    private static FileChannel create(Path path, int capacity, long fileSize) throws IOException {
+        final FileChannel target = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            final int arenaStart = arenaStart(capacity);
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            writeHeader(header, 0, 1, capacity, 0, arenaStart);
+            target.write(header, 0);
+            // 写入最后一个字节把文件扩展到需要的大小，中间的槽位表由文件系统填0
+            target.write(ByteBuffer.allocate(1), Math.max(arenaStart, fileSize) - 1);
+            target.force(true);
+        } catch (IOException | RuntimeException ex) {
+            target.close();
+            throw ex;
+        }
+        return target;
+    }
+
+    private static void writeHeader(ByteBuffer target, int offset, long generation, int capacity, int size,
+                                    int arenaEnd) {
+        target.putLong(offset, MAGIC);
+        target.putLong(offset + 8, generation);
+        target.putInt(offset + 16, capacity);
+        target.putInt(offset + 20, size);
+        target.putInt(offset + 24, arenaEnd);
+        target.putInt(offset + HEADER_CRC_OFFSET, crc(target, offset));
+    }
+
+    private static int crc(ByteBuffer source, int offset) {
+        final CRC32 crc = new CRC32();
+        for (int i = 0; i < HEADER_CRC_OFFSET; i++) {
+            crc.update(source.get(offset + i));
+        }
+        return (int) crc.getValue();
+    }
+
+    private void ensureWritable() {
+        if (!writable) {
+            throw new UnsupportedOperationException("opened read-only: " + path);
+        }
+        if (channel == null) {
+            throw new IllegalStateException("closed: " + path);
+        }
+    }
+
+    /**
+     * String.hashCode的算法由规范固定，不同JVM之间稳定，可以持久化；再扰动一次以适应线性探测
+     */
+    private static int hash(String key) {
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static int arenaStart(int capacity) {
+        return HEADER_SIZE + capacity * SLOT_SIZE;
+    }
+
+    private static long align(long size) {
+        return (size + 3) & ~3L;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        final long needed = (long) Math.ceil(Math.max(expectedSize, 2) / (double) LOAD_FACTOR);
+        return (int) Math.max(16, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int threshold(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+}
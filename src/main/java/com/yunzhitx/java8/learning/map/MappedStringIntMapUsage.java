@@ -0,0 +1,74 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ClassName: MappedStringIntMapUsage <br/>
+ * Description: MappedStringIntMap的用法：一次性生成查找表文件，之后每次启动直接打开，
+ * 对比每次启动都在static块中重新构建HashMap的耗时；以及没有commit的写入在重新打开后被丢弃<br/>
+ * date: 2026/10/21 16:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class MappedStringIntMapUsage {
+
+    private static final int KEYS = 2_000_000;
+
+    public static void main(String[] args) throws IOException {
+        final Path file = Files.createTempFile("lookup", ".map");
+        try {
+            // 构建HashMap，相当于每次启动时static块做的事情
+            long start = System.nanoTime();
+            final Map<String, Integer> hashMap = new HashMap<>();
+            for (int i = 0; i < KEYS; i++) {
+                hashMap.put("key-" + i, i);
+            }
+            System.out.printf("build HashMap:       %,d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+            // 生成文件只需要做一次，例如在构建流水线中
+            start = System.nanoTime();
+            Files.delete(file);
+            try (MappedStringIntMap map = MappedStringIntMap.open(file, KEYS, -1)) {
+                for (int i = 0; i < KEYS; i++) {
+                    map.put("key-" + i, i);
+                }
+            }
+            System.out.printf("write mapped file:   %,d ms, %,d bytes%n", (System.nanoTime() - start) / 1_000_000,
+                    Files.size(file));
+
+            // 之后每次启动只需要打开
+            start = System.nanoTime();
+            try (MappedStringIntMap map = MappedStringIntMap.openReadOnly(file, -1)) {
+                System.out.printf("open mapped file:    %.3f ms, size=%,d%n", (System.nanoTime() - start) / 1e6,
+                        map.size());
+                start = System.nanoTime();
+                long sum = 0;
+                for (int i = 0; i < KEYS; i++) {
+                    sum += map.get("key-" + i);
+                }
+                System.out.printf("lookup all keys:     %,d ms, checksum ok=%s%n",
+                        (System.nanoTime() - start) / 1_000_000, sum == (long) KEYS * (KEYS - 1) / 2);
+                System.out.println("missing key: " + map.get("no-such-key"));
+            }
+
+            // 没有commit的新key，在另一个实例看来不存在；重新可写打开时被丢弃
+            final MappedStringIntMap writer = MappedStringIntMap.open(file, 0, -1);
+            writer.put("uncommitted", 42);
+            try (MappedStringIntMap reader = MappedStringIntMap.openReadOnly(file, -1)) {
+                System.out.println("before commit: " + reader.get("uncommitted"));
+            }
+            writer.commit();
+            try (MappedStringIntMap reader = MappedStringIntMap.openReadOnly(file, -1)) {
+                System.out.println("after commit: " + reader.get("uncommitted"));
+            }
+            writer.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
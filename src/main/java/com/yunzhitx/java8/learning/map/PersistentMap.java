@@ -0,0 +1,515 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * ClassName: PersistentMap <br/>
+ * Description: 不可变的哈希数组映射前缀树（HAMT），修改返回新版本，新旧版本共享没有变化的子树。<br/>
+ * 哈希值每5位决定一层的分支，每个节点用一个32位的bitmap标记存在的分支，数组中只存放存在的分支，
+ * 因此put、merge、remove只复制从根到目标的一条路径（最多7个节点，每个节点通常只有几个entry），是O(log32 n)；
+ * 而复制整个HashMap再修改是O(n)。旧版本不受影响，可以被任意线程无锁地继续读取。<br/>
+ * 批量修改使用asTransient()：Transient修改自己创建的节点时原地修改而不是复制，
+ * 一批修改只在第一次经过某个节点时复制一次，没有中间版本的垃圾，最后persistent()得到新的不可变版本。<br/>
+ * hashCode完全相同的key放在同一个冲突节点中线性查找。key和value都不能为null。<br/>
+ * date: 2026/10/22 14:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class PersistentMap<K, V> {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentMap<Object, Object> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Node root;
+
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * 复制map中的所有entry
+     */
+    public static <K, V> PersistentMap<K, V> of(Map<? extends K, ? extends V> map) {
+        final Transient<K, V> builder = PersistentMap.<K, V>empty().asTransient();
+        map.forEach(builder::put);
+        return builder.persistent();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return root == null ? null : (V) root.find(0, hash(key), key);
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        final V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return 包含该映射的新版本，值没有变化时返回this
+     */
+    public PersistentMap<K, V> put(K key, V value) {
+        final Change change = new Change();
+        final Node newRoot = assoc(root, null, key, value, change);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, change.added ? size + 1 : size);
+    }
+
+    /**
+     * @return 不包含key的新版本，key不存在时返回this
+     */
+    public PersistentMap<K, V> remove(Object key) {
+        if (root == null) {
+            return this;
+        }
+        final Change change = new Change();
+        final Node newRoot = root.without(null, 0, hash(key), key, change);
+        return change.removed ? new PersistentMap<>(newRoot, size - 1) : this;
+    }
+
+    /**
+     * 与Map.merge相同：key不存在时写入value，存在时写入remapping(旧值, value)的结果，结果为null时删除
+     */
+    public PersistentMap<K, V> merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        Objects.requireNonNull(value);
+        final V old = get(key);
+        final V newValue = old == null ? value : remapping.apply(old, value);
+        return newValue == null ? remove(key) : put(key, newValue);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    /**
+     * 复制为HashMap
+     */
+    public Map<K, V> toMap() {
+        final Map<K, V> map = new HashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * 基于当前版本开始一批修改，当前版本不受影响
+     */
+    public Transient<K, V> asTransient() {
+        return new Transient<>(root, size);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    private static Node assoc(Node root, Object owner, Object key, Object value, Change change) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        return (root == null ? BitmapNode.EMPTY : root).assoc(owner, 0, hash(key), key, value, change);
+    }
+
+    /**
+     * 扰动哈希的高位，使前几层分支也受高位影响
+     */
+    private static int hash(Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * 一批修改。owner是这批修改的所有权标记，节点的owner与它相同时可以原地修改；
+     * persistent()之后标记失效，之后的Transient使用新的标记，已经发布的节点不会再被修改。非线程安全。
+     */
+    public static final class Transient<K, V> {
+
+        private Object owner = new Object();
+
+        private Node root;
+
+        private int size;
+
+        private Transient(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            ensureEditable();
+            return root == null ? null : (V) root.find(0, hash(key), key);
+        }
+
+        public Transient<K, V> put(K key, V value) {
+            ensureEditable();
+            final Change change = new Change();
+            root = assoc(root, owner, key, value, change);
+            if (change.added) {
+                size++;
+            }
+            return this;
+        }
+
+        public Transient<K, V> remove(Object key) {
+            ensureEditable();
+            if (root != null) {
+                final Change change = new Change();
+                root = root.without(owner, 0, hash(key), key, change);
+                if (change.removed) {
+                    size--;
+                }
+            }
+            return this;
+        }
+
+        public Transient<K, V> merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+            Objects.requireNonNull(value);
+            final V old = get(key);
+            final V newValue = old == null ? value : remapping.apply(old, value);
+            return newValue == null ? remove(key) : put(key, newValue);
+        }
+
+        /**
+         * 结束这批修改，返回新的不可变版本，之后不能再使用这个Transient
+         */
+        public PersistentMap<K, V> persistent() {
+            ensureEditable();
+            owner = null;
+            return size == 0 ? empty() : new PersistentMap<>(root, size);
+        }
+
+        private void ensureEditable() {
+            if (owner == null) {
+                throw new IllegalStateException("transient used after persistent()");
+            }
+        }
+    }
+
+    /**
+     * 一次修改的结果
+     */
+    private static final class Change {
+
+        private boolean added;
+
+        private boolean removed;
+    }
+
+    private abstract static class Node {
+
+        abstract Object find(int shift, int hash, Object key);
+
+        /**
+         * @param owner 不为null且与节点的owner相同时原地修改
+         * @return 修改后的节点，没有变化时返回this
+         */
+        abstract Node assoc(Object owner, int shift, int hash, Object key, Object value, Change change);
+
+        /**
+         * @return 修改后的节点，节点变空时返回null，没有变化时返回this
+         */
+        abstract Node without(Object owner, int shift, int hash, Object key, Change change);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * 数组中每个分支占两格：[key, value]是一个entry，[null, 子节点]是下一层
+     */
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        private final Object owner;
+
+        private int bitmap;
+
+        private Object[] array;
+
+        BitmapNode(Object owner, int bitmap, Object[] array) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int index = index(bit);
+            final Object k = array[2 * index];
+            final Object v = array[2 * index + 1];
+            if (k == null) {
+                return ((Node) v).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        Node assoc(Object owner, int shift, int hash, Object key, Object value, Change change) {
+            final int bit = bitFor(hash, shift);
+            final int index = index(bit);
+            if ((bitmap & bit) != 0) {
+                final Object k = array[2 * index];
+                final Object v = array[2 * index + 1];
+                if (k == null) {
+                    final Node child = (Node) v;
+                    final Node newChild = child.assoc(owner, shift + BITS, hash, key, value, change);
+                    return newChild == child ? this : set(owner, 2 * index + 1, newChild);
+                }
+                if (key.equals(k)) {
+                    return value == v ? this : set(owner, 2 * index + 1, value);
+                }
+                // 同一个分支上的两个不同key，下沉为子节点
+                change.added = true;
+                final Node child = createNode(owner, shift + BITS, hash(k), k, v, hash, key, value);
+                final BitmapNode editable = editable(owner);
+                editable.array[2 * index] = null;
+                editable.array[2 * index + 1] = child;
+                return editable;
+            }
+            change.added = true;
+            final int count = Integer.bitCount(bitmap);
+            if (owner != null && owner == this.owner && array.length >= 2 * (count + 1)) {
+                // Transient拥有的节点有空余位置时原地插入
+                System.arraycopy(array, 2 * index, array, 2 * index + 2, 2 * (count - index));
+                array[2 * index] = key;
+                array[2 * index + 1] = value;
+                bitmap |= bit;
+                return this;
+            }
+            // Transient创建的节点预留两个entry的空间，后续插入不用再扩容
+            final Object[] newArray = new Object[2 * (count + 1 + (owner != null ? 2 : 0))];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            newArray[2 * index] = key;
+            newArray[2 * index + 1] = value;
+            System.arraycopy(array, 2 * index, newArray, 2 * index + 2, 2 * (count - index));
+            return new BitmapNode(owner, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node without(Object owner, int shift, int hash, Object key, Change change) {
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = index(bit);
+            final Object k = array[2 * index];
+            final Object v = array[2 * index + 1];
+            if (k == null) {
+                final Node child = (Node) v;
+                final Node newChild = child.without(owner, shift + BITS, hash, key, change);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild != null) {
+                    return set(owner, 2 * index + 1, newChild);
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            } else {
+                change.removed = true;
+            }
+            return removeBranch(owner, bit, index);
+        }
+
+        private Node removeBranch(Object owner, int bit, int index) {
+            if (bitmap == bit) {
+                return null;
+            }
+            final int count = Integer.bitCount(bitmap);
+            if (owner != null && owner == this.owner) {
+                System.arraycopy(array, 2 * index + 2, array, 2 * index, 2 * (count - index - 1));
+                array[2 * count - 2] = null;
+                array[2 * count - 1] = null;
+                bitmap ^= bit;
+                return this;
+            }
+            final Object[] newArray = new Object[2 * (count - 1)];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            System.arraycopy(array, 2 * index + 2, newArray, 2 * index, 2 * (count - index - 1));
+            return new BitmapNode(owner, bitmap ^ bit, newArray);
+        }
+
+        private BitmapNode set(Object owner, int i, Object value) {
+            final BitmapNode editable = editable(owner);
+            editable.array[i] = value;
+            return editable;
+        }
+
+        /**
+         * 属于当前Transient时返回自身，否则返回一个属于owner的副本
+         */
+        private BitmapNode editable(Object owner) {
+            if (owner != null && owner == this.owner) {
+                return this;
+            }
+            final int count = Integer.bitCount(bitmap);
+            return new BitmapNode(owner, bitmap, Arrays.copyOf(array, 2 * (count + (owner != null ? 2 : 0))));
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            final int count = Integer.bitCount(bitmap);
+            for (int i = 0; i < count; i++) {
+                final Object k = array[2 * i];
+                if (k == null) {
+                    ((Node) array[2 * i + 1]).forEach(action);
+                } else {
+                    action.accept(k, array[2 * i + 1]);
+                }
+            }
+        }
+
+        private static Node createNode(Object owner, int shift, int hash1, Object key1, Object value1,
+                                       int hash2, Object key2, Object value2) {
+            if (hash1 == hash2) {
+                return new CollisionNode(owner, hash1, new Object[]{key1, value1, key2, value2});
+            }
+            final Change ignored = new Change();
+            return EMPTY.assoc(owner, shift, hash1, key1, value1, ignored)
+                    .assoc(owner, shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * hash完全相同的entry
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Object owner;
+
+        private final int hash;
+
+        private Object[] array;
+
+        CollisionNode(Object owner, int hash, Object[] array) {
+            this.owner = owner;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int i = indexOf(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        Node assoc(Object owner, int shift, int hash, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                // 不同的hash，在上面插入一层分支节点
+                return new BitmapNode(owner, bitFor(this.hash, shift), new Object[]{null, this})
+                        .assoc(owner, shift, hash, key, value, change);
+            }
+            final int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                if (owner != null && owner == this.owner) {
+                    array[i + 1] = value;
+                    return this;
+                }
+                final Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode(owner, hash, newArray);
+            }
+            change.added = true;
+            final Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (owner != null && owner == this.owner) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        @Override
+        Node without(Object owner, int shift, int hash, Object key, Change change) {
+            if (hash != this.hash) {
+                return this;
+            }
+            final int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            change.removed = true;
+            if (array.length == 2) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            if (owner != null && owner == this.owner) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.yunzhitx.java8.learning.map;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ClassName: PersistentMapBenchmark <br/>
+ * Description: 共享配置的两种写法对比：写时复制整个HashMap再替换引用，与PersistentMapRef。<br/>
+ * 单次更新：10万个entry的配置，每次修改一个key，统计ns/op和每次分配的内存；<br/>
+ * 批量更新：每批修改100个key，逐个put产生中间版本与用Transient一次生效的分配对比；<br/>
+ * 读取：随机读取1000万次，统计ns/op。全部在当前线程执行，第一轮作为预热。<br/>
+ * date: 2026/10/22 15:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class PersistentMapBenchmark {
+
+    private static final int ENTRIES = 100_000;
+
+    private static final int UPDATES = 2_000;
+
+    private static final int BATCHES = 2_000;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int READS = 10_000_000;
+
+    private static final int ROUNDS = 3;
+
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        final Random random = new Random(42);
+        final String[] keys = new String[ENTRIES];
+        final Map<String, Integer> initial = new HashMap<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = "config." + random.nextInt(Integer.MAX_VALUE) + "." + i;
+            initial.put(keys[i], i);
+        }
+        final int[] indexes = new int[READS];
+        for (int i = 0; i < READS; i++) {
+            indexes[i] = random.nextInt(ENTRIES);
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            copyOnWriteUpdate(initial, keys, indexes);
+            persistentUpdate(initial, keys, indexes);
+            persistentChainBatch(initial, keys, indexes);
+            persistentTransientBatch(initial, keys, indexes);
+            copyOnWriteRead(initial, keys, indexes);
+            persistentRead(initial, keys, indexes);
+        }
+        System.out.println(blackhole);
+    }
+
+    private static void copyOnWriteUpdate(Map<String, Integer> initial, String[] keys, int[] indexes) {
+        final AtomicReference<Map<String, Integer>> ref =
+                new AtomicReference<>(Collections.unmodifiableMap(new HashMap<>(initial)));
+        final long bytes = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            final Map<String, Integer> copy = new HashMap<>(ref.get());
+            copy.put(keys[indexes[i]], i);
+            ref.set(Collections.unmodifiableMap(copy));
+        }
+        report("copy-on-write put", System.nanoTime() - start, ThreadUtils.allocatedBytes() - bytes, UPDATES);
+        blackhole += ref.get().size();
+    }
+
+    private static void persistentUpdate(Map<String, Integer> initial, String[] keys, int[] indexes) {
+        final PersistentMapRef<String, Integer> ref = new PersistentMapRef<>(PersistentMap.of(initial));
+        final long bytes = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            ref.put(keys[indexes[i]], i);
+        }
+        report("PersistentMapRef.put", System.nanoTime() - start, ThreadUtils.allocatedBytes() - bytes, UPDATES);
+        blackhole += ref.snapshot().size();
+    }
+
+    private static void persistentChainBatch(Map<String, Integer> initial, String[] keys, int[] indexes) {
+        final PersistentMapRef<String, Integer> ref = new PersistentMapRef<>(PersistentMap.of(initial));
+        final long bytes = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        for (int batch = 0; batch < BATCHES; batch++) {
+            final int offset = batch * BATCH_SIZE;
+            ref.update(map -> {
+                PersistentMap<String, Integer> next = map;
+                for (int i = offset; i < offset + BATCH_SIZE; i++) {
+                    next = next.put(keys[indexes[i]], i);
+                }
+                return next;
+            });
+        }
+        report("batch of put", System.nanoTime() - start, ThreadUtils.allocatedBytes() - bytes, BATCHES);
+        blackhole += ref.snapshot().size();
+    }
+
+    private static void persistentTransientBatch(Map<String, Integer> initial, String[] keys, int[] indexes) {
+        final PersistentMapRef<String, Integer> ref = new PersistentMapRef<>(PersistentMap.of(initial));
+        final long bytes = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        for (int batch = 0; batch < BATCHES; batch++) {
+            final int offset = batch * BATCH_SIZE;
+            ref.updateBatch(editor -> {
+                for (int i = offset; i < offset + BATCH_SIZE; i++) {
+                    editor.put(keys[indexes[i]], i);
+                }
+            });
+        }
+        report("batch on Transient", System.nanoTime() - start, ThreadUtils.allocatedBytes() - bytes, BATCHES);
+        blackhole += ref.snapshot().size();
+    }
+
+    private static void copyOnWriteRead(Map<String, Integer> initial, String[] keys, int[] indexes) {
+        final AtomicReference<Map<String, Integer>> ref =
+                new AtomicReference<>(Collections.unmodifiableMap(new HashMap<>(initial)));
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int index : indexes) {
+            sum += ref.get().get(keys[index]);
+        }
+        report("copy-on-write get", System.nanoTime() - start, -1, READS);
+        blackhole += sum;
+    }
+
+    private static void persistentRead(Map<String, Integer> initial, String[] keys, int[] indexes) {
+        final PersistentMapRef<String, Integer> ref = new PersistentMapRef<>(PersistentMap.of(initial));
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int index : indexes) {
+            sum += ref.get(keys[index]);
+        }
+        report("PersistentMapRef.get", System.nanoTime() - start, -1, READS);
+        blackhole += sum;
+    }
+
+    private static void report(String name, long nanos, long bytes, int operations) {
+        if (bytes < 0) {
+            System.out.printf("  %-22s %,12.1f ns/op%n", name, (double) nanos / operations);
+        } else {
+            System.out.printf("  %-22s %,12.1f ns/op %,12d bytes/op%n", name, (double) nanos / operations,
+                    bytes / operations);
+        }
+    }
+}
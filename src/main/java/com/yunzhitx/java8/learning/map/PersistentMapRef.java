@@ -0,0 +1,119 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * ClassName: PersistentMapRef <br/>
+ * Description: 持有PersistentMap当前版本的共享引用，适合读多写少的共享配置。<br/>
+ * 读取只是一次volatile读，拿到的版本不会再变化，在它上面的多次读取和遍历看到的是同一个一致的快照，
+ * 读线程不加锁、不重试，不会被写线程阻塞。写线程基于当前版本生成新版本，再用CAS替换，
+ * 期间有其它写入时基于最新版本重做，因此传入的修改函数可能被执行多次，不能有副作用。<br/>
+ * date: 2026/10/22 14:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class PersistentMapRef<K, V> {
+
+    private final AtomicReference<PersistentMap<K, V>> current;
+
+    /**
+     * CAS失败重做的次数
+     */
+    private final LongAdder retries = new LongAdder();
+
+    public PersistentMapRef() {
+        this(PersistentMap.empty());
+    }
+
+    public PersistentMapRef(PersistentMap<K, V> initial) {
+        this.current = new AtomicReference<>(Objects.requireNonNull(initial));
+    }
+
+    /**
+     * 当前版本，之后的写入不影响返回的快照
+     */
+    public PersistentMap<K, V> snapshot() {
+        return current.get();
+    }
+
+    public V get(Object key) {
+        return current.get().get(key);
+    }
+
+    /**
+     * @return 旧值，不存在时为null
+     */
+    public V put(K key, V value) {
+        return update(key, map -> map.put(key, value));
+    }
+
+    /**
+     * @return 旧值，不存在时为null
+     */
+    public V remove(Object key) {
+        return update(key, map -> map.remove(key));
+    }
+
+    /**
+     * @return 新值，被删除时为null
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        return update(map -> map.merge(key, value, remapping)).get(key);
+    }
+
+    /**
+     * 用function的结果替换当前版本
+     *
+     * @return 替换后的版本
+     */
+    public PersistentMap<K, V> update(UnaryOperator<PersistentMap<K, V>> function) {
+        while (true) {
+            final PersistentMap<K, V> prev = current.get();
+            final PersistentMap<K, V> next = function.apply(prev);
+            if (next == prev || current.compareAndSet(prev, next)) {
+                return next;
+            }
+            retries.increment();
+        }
+    }
+
+    /**
+     * 一批修改原子地生效，读线程要么看到全部修改，要么一个都看不到。
+     * 修改在Transient上进行，不产生中间版本
+     *
+     * @return 替换后的版本
+     */
+    public PersistentMap<K, V> updateBatch(Consumer<PersistentMap.Transient<K, V>> batch) {
+        return update(map -> {
+            final PersistentMap.Transient<K, V> editor = map.asTransient();
+            batch.accept(editor);
+            return editor.persistent();
+        });
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    private V update(Object key, UnaryOperator<PersistentMap<K, V>> function) {
+        while (true) {
+            final PersistentMap<K, V> prev = current.get();
+            final PersistentMap<K, V> next = function.apply(prev);
+            if (next == prev || current.compareAndSet(prev, next)) {
+                return prev.get(key);
+            }
+            retries.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return current.get().toString();
+    }
+}
@@ -0,0 +1,151 @@
+package com.yunzhitx.java8.learning.map;
+
+import java.util.function.Consumer;
+
+/**
+ * ClassName: TimerWheel <br/>
+ * Description: 分层时间轮，时间单位为毫秒，由调用方传入当前时间推进，自身不持有线程。<br/>
+ * 共5层，每层64个桶，每个桶的跨度依次为64ms、4.1s、4.4min、4.7h、12.4天，最高层一圈约2.2年。
+ * 定时器按到期时间距当前时间的远近放入能容纳它的最低一层，推进时只处理时间经过的桶：
+ * 已到期的交给回调，未到期的（上层的桶粒度粗，或者到期时间被推后了）重新放入更低的一层，
+ * 每个定时器最多下降5次，添加、删除、推进都是均摊O(1)，与定时器总数无关。<br/>
+ * 到期时间可以在定时器放入后被推后（例如按访问时间过期），推进时会自然地重新放置，不需要在推后时移动定时器。<br/>
+ * 非线程安全，由调用方加锁。<br/>
+ * date: 2026/10/22 9:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class TimerWheel {
+
+    /**
+     * 每层一个桶的跨度是2^SHIFTS[i]毫秒
+     */
+    static final int[] SHIFTS = {6, 12, 18, 24, 30};
+
+    private static final int BUCKET_BITS = 6;
+
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+
+    private final Timer[][] wheel = new Timer[SHIFTS.length][BUCKETS];
+
+    /**
+     * 上次推进到的时间
+     */
+    private long time;
+
+    TimerWheel(long now) {
+        this.time = now;
+        for (Timer[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                level[i] = new Sentinel();
+            }
+        }
+    }
+
+    long time() {
+        return time;
+    }
+
+    /**
+     * 按timer当前的到期时间放入对应的桶，timer不能已经在时间轮中
+     */
+    void schedule(Timer timer) {
+        // 已经过期的放在当前tick的桶，下一次推进就会处理
+        final long deadline = Math.max(timer.deadline, time);
+        final long delta = deadline - time;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delta >= 1L << (SHIFTS[level] + BUCKET_BITS)) {
+            level++;
+        }
+        final Timer sentinel = wheel[level][(int) (deadline >>> SHIFTS[level]) & (BUCKETS - 1)];
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    /**
+     * 从时间轮中移除，不在时间轮中时什么都不做
+     */
+    void deschedule(Timer timer) {
+        if (timer.next != null) {
+            timer.prev.next = timer.next;
+            timer.next.prev = timer.prev;
+            timer.prev = null;
+            timer.next = null;
+        }
+    }
+
+    /**
+     * 推进到now，到期的定时器已经从时间轮中移除后交给onExpired
+     */
+    void advance(long now, Consumer<Timer> onExpired) {
+        final long previous = time;
+        if (now <= previous) {
+            // 时钟回拨时不后退
+            return;
+        }
+        time = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            final long previousTicks = previous >>> SHIFTS[level];
+            final long delta = (now >>> SHIFTS[level]) - previousTicks;
+            if (delta <= 0) {
+                // 这一层没有跨过桶边界，更高的层也不会
+                break;
+            }
+            expire(level, previousTicks, delta, now, onExpired);
+        }
+    }
+
+    /**
+     * 处理从上次所在的桶到当前桶之间的所有桶，上次所在的桶中可能有当时还没到期的定时器
+     */
+    private void expire(int level, long previousTicks, long delta, long now, Consumer<Timer> onExpired) {
+        final Timer[] buckets = wheel[level];
+        final int steps = (int) Math.min(delta + 1, BUCKETS);
+        final int start = (int) (previousTicks & (BUCKETS - 1));
+        for (int i = start; i < start + steps; i++) {
+            final Timer sentinel = buckets[i & (BUCKETS - 1)];
+            // 先摘下整条链，重新放置的定时器可能回到同一个桶
+            Timer timer = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (timer != sentinel) {
+                final Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.deadline - now <= 0) {
+                    onExpired.accept(timer);
+                } else {
+                    schedule(timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * 时间轮中的定时器，链表指针由时间轮的锁保护
+     */
+    abstract static class Timer {
+
+        /**
+         * 到期时间，毫秒。可以由其它线程推后，时间轮推进时读取
+         */
+        volatile long deadline;
+
+        private Timer prev;
+
+        private Timer next;
+    }
+
+    private static final class Sentinel extends Timer {
+
+        Sentinel() {
+            final Timer self = this;
+            self.prev = this;
+            self.next = this;
+        }
+    }
+}
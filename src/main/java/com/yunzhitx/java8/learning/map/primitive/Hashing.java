@@ -0,0 +1,52 @@
+package com.yunzhitx.java8.learning.map.primitive;
+
+/**
+ * ClassName: Hashing <br/>
+ * Description: 开放寻址表共用的哈希扰动和容量计算<br/>
+ * date: 2026/10/21 9:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class Hashing {
+
+    /**
+     * 超过该比例扩容。线性探测在0.5到0.7之间探测长度和内存占用比较均衡
+     */
+    static final float LOAD_FACTOR = 0.6f;
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    /**
+     * 线性探测依赖低位分布，连续的int（例如自增id）直接取低位会聚成一片，先用黄金分割乘法扰动
+     */
+    static int mix(int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+        return mix((int) (key ^ (key >>> 32)));
+    }
+
+    /**
+     * 能容纳expectedSize个元素而不扩容的2的幂容量
+     */
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        final long needed = (long) Math.ceil(Math.max(expectedSize, 2) / (double) LOAD_FACTOR);
+        if (needed > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(4, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    static int threshold(int capacity) {
+        return capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,310 @@
+package com.yunzhitx.java8.learning.map.primitive;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * ClassName: LongLongMap <br/>
+ * Description: key和value都是long的开放寻址哈希表，与ObjectIntMap的结构相同。<br/>
+ * 空槽用key为0表示，key为0的元素单独保存在zeroValue中，因此所有long都可以作为key。非线程安全。<br/>
+ * date: 2026/10/21 9:45<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class LongLongMap {
+
+    private final long noEntryValue;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private int mask;
+
+    /**
+     * 不包括key为0的元素
+     */
+    private int size;
+
+    private int threshold;
+
+    private boolean hasZeroKey;
+
+    private long zeroValue;
+
+    public LongLongMap() {
+        this(16, 0);
+    }
+
+    public LongLongMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数，达到之前不会扩容
+     * @param noEntryValue key不存在时get、put、remove返回的值
+     */
+    public LongLongMap(int expectedSize, long noEntryValue) {
+        this.noEntryValue = noEntryValue;
+        allocate(Hashing.capacityFor(expectedSize));
+    }
+
+    public long noEntryValue() {
+        return noEntryValue;
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : find(key) >= 0;
+    }
+
+    /**
+     * @return key对应的值，不存在时返回noEntryValue
+     */
+    public long get(long key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * @return 原来的值，不存在时返回noEntryValue
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            final long previous = hasZeroKey ? zeroValue : noEntryValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        final int slot = find(key);
+        if (slot >= 0) {
+            final long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(~slot, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * key不存在时才放入
+     *
+     * @return 已有的值，不存在时返回noEntryValue
+     */
+    public long putIfAbsent(long key, long value) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            return noEntryValue;
+        }
+        final int slot = find(key);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        insert(~slot, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * 计数器的自增：key不存在时从0开始加
+     *
+     * @return 加之后的值
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? zeroValue + delta : delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        final int slot = find(key);
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+        insert(~slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * 与Map.merge相同：key不存在时放入value，存在时放入remapping(原值, value)
+     *
+     * @return 新的值
+     */
+    public long merge(long key, long value, LongBinaryOperator remapping) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? remapping.applyAsLong(zeroValue, value) : value;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        final int slot = find(key);
+        if (slot >= 0) {
+            return values[slot] = remapping.applyAsLong(values[slot], value);
+        }
+        insert(~slot, key, value);
+        return value;
+    }
+
+    /**
+     * 与Map.computeIfAbsent相同：key不存在时计算并放入
+     *
+     * @return 已有的值或者计算出的值
+     */
+    public long computeIfAbsent(long key, LongUnaryOperator mapping) {
+        if (containsKey(key)) {
+            return get(key);
+        }
+        final long value = mapping.applyAsLong(key);
+        // mapping可能修改了这个map，通过put重新定位
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * @return 被移除的值，不存在时返回noEntryValue
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            hasZeroKey = false;
+            return zeroValue;
+        }
+        final int slot = find(key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        final long previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    public void forEach(LongLongConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * @return key所在的下标；不存在时返回~可插入的下标
+     */
+    private int find(long key) {
+        final long[] keys = this.keys;
+        int index = Hashing.mix(key) & mask;
+        for (; ; ) {
+            final long current = keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == 0) {
+                return ~index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void insert(int index, long key, long value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * 删除后把后面同一探测序列上的元素前移，保证查找遇到空槽即可停止
+     */
+    private void shiftBack(int hole) {
+        final long[] keys = this.keys;
+        int index = hole;
+        for (; ; ) {
+            index = (index + 1) & mask;
+            final long key = keys[index];
+            if (key == 0) {
+                keys[hole] = 0;
+                return;
+            }
+            final int home = Hashing.mix(key) & mask;
+            // home不在(hole, index]之间时，该元素可以移到hole
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[index];
+                hole = index;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        if (capacity > Hashing.MAX_CAPACITY) {
+            throw new IllegalStateException("map is full");
+        }
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            final long key = oldKeys[i];
+            if (key != 0) {
+                int index = Hashing.mix(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        threshold = Hashing.threshold(capacity);
+    }
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,272 @@
+package com.yunzhitx.java8.learning.map.primitive;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * ClassName: ObjectIntMap <br/>
+ * Description: 值为int的开放寻址哈希表。<br/>
+ * HashMap&lt;K, Integer&gt;的每次merge/computeIfAbsent都要装箱，每个entry还有一个Node对象（32字节）和一个Integer（16字节）；
+ * 这里key和value分别放在两个平行数组中，线性探测，删除时回移后续元素而不是留下墓碑，所有操作都不装箱。<br/>
+ * key不能为null；key不存在时get返回构造时指定的noEntryValue（默认0）。非线程安全。<br/>
+ * date: 2026/10/21 9:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class ObjectIntMap<K> {
+
+    private final int noEntryValue;
+
+    private Object[] keys;
+
+    private int[] values;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    public ObjectIntMap() {
+        this(16, 0);
+    }
+
+    public ObjectIntMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数，达到之前不会扩容
+     * @param noEntryValue key不存在时get、put、remove返回的值
+     */
+    public ObjectIntMap(int expectedSize, int noEntryValue) {
+        this.noEntryValue = noEntryValue;
+        allocate(Hashing.capacityFor(expectedSize));
+    }
+
+    public int noEntryValue() {
+        return noEntryValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(K key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * @return key对应的值，不存在时返回noEntryValue
+     */
+    public int get(K key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+    public int getOrDefault(K key, int defaultValue) {
+        final int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * @return 原来的值，不存在时返回noEntryValue
+     */
+    public int put(K key, int value) {
+        final int slot = find(key);
+        if (slot >= 0) {
+            final int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(~slot, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * key不存在时才放入
+     *
+     * @return 已有的值，不存在时返回noEntryValue
+     */
+    public int putIfAbsent(K key, int value) {
+        final int slot = find(key);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        insert(~slot, key, value);
+        return noEntryValue;
+    }
+
+    /**
+     * 计数器的自增：key不存在时从0开始加
+     *
+     * @return 加之后的值
+     */
+    public int addTo(K key, int delta) {
+        final int slot = find(key);
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+        insert(~slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * 与Map.merge相同：key不存在时放入value，存在时放入remapping(原值, value)
+     *
+     * @return 新的值
+     */
+    public int merge(K key, int value, IntBinaryOperator remapping) {
+        final int slot = find(key);
+        if (slot >= 0) {
+            return values[slot] = remapping.applyAsInt(values[slot], value);
+        }
+        insert(~slot, key, value);
+        return value;
+    }
+
+    /**
+     * 与Map.computeIfAbsent相同：key不存在时计算并放入
+     *
+     * @return 已有的值或者计算出的值
+     */
+    public int computeIfAbsent(K key, ToIntFunction<? super K> mapping) {
+        int slot = find(key);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        final int value = mapping.applyAsInt(key);
+        // mapping可能修改了这个map，重新定位
+        slot = find(key);
+        if (slot >= 0) {
+            values[slot] = value;
+        } else {
+            insert(~slot, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return 被移除的值，不存在时返回noEntryValue
+     */
+    public int remove(K key) {
+        final int slot = find(key);
+        if (slot < 0) {
+            return noEntryValue;
+        }
+        final int previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((K) keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * @return key所在的下标；不存在时返回~可插入的下标
+     */
+    private int find(Object key) {
+        Objects.requireNonNull(key, "key");
+        final Object[] keys = this.keys;
+        int index = Hashing.mix(key.hashCode()) & mask;
+        for (; ; ) {
+            final Object current = keys[index];
+            if (current == null) {
+                return ~index;
+            }
+            if (current == key || current.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void insert(int index, Object key, int value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * 删除后把后面同一探测序列上的元素前移，保证查找遇到空槽即可停止
+     */
+    private void shiftBack(int hole) {
+        final Object[] keys = this.keys;
+        int index = hole;
+        for (; ; ) {
+            index = (index + 1) & mask;
+            final Object key = keys[index];
+            if (key == null) {
+                keys[hole] = null;
+                return;
+            }
+            final int home = Hashing.mix(key.hashCode()) & mask;
+            // home不在(hole, index]之间时，该元素可以移到hole
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[index];
+                hole = index;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        if (capacity > Hashing.MAX_CAPACITY) {
+            throw new IllegalStateException("map is full");
+        }
+        final Object[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            final Object key = oldKeys[i];
+            if (key != null) {
+                int index = Hashing.mix(key.hashCode()) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = Hashing.threshold(capacity);
+    }
+}
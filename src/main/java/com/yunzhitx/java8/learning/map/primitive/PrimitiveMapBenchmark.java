@@ -0,0 +1,151 @@
+package com.yunzhitx.java8.learning.map.primitive;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: PrimitiveMapBenchmark <br/>
+ * Description: 原始类型哈希表与HashMap的计数吞吐量和内存占用对比。<br/>
+ * 吞吐量：在10万个不同的key上做2000万次计数，统计ns/op和当前线程分配的bytes/op；<br/>
+ * 内存：放入100万个entry前后（多次GC后）堆使用量的差，不包括两边共用的String key本身。<br/>
+ * date: 2026/10/21 10:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class PrimitiveMapBenchmark {
+
+    private static final int DISTINCT_KEYS = 100_000;
+
+    private static final int OPERATIONS = 20_000_000;
+
+    private static final int MEMORY_ENTRIES = 1_000_000;
+
+    private static final int ROUNDS = 3;
+
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        final Random random = new Random(42);
+        final String[] stringKeys = new String[DISTINCT_KEYS];
+        final int[] intKeys = new int[DISTINCT_KEYS];
+        for (int i = 0; i < DISTINCT_KEYS; i++) {
+            stringKeys[i] = "user-" + random.nextInt(Integer.MAX_VALUE);
+            intKeys[i] = random.nextInt();
+        }
+        final int[] order = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            order[i] = random.nextInt(DISTINCT_KEYS);
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("round " + round);
+            throughput("HashMap<String,Integer>.merge", () -> {
+                final Map<String, Integer> map = new HashMap<>();
+                for (int index : order) {
+                    map.merge(stringKeys[index], 1, Integer::sum);
+                }
+                return (long) map.size();
+            });
+            throughput("ObjectIntMap.addTo", () -> {
+                final ObjectIntMap<String> map = new ObjectIntMap<>();
+                for (int index : order) {
+                    map.addTo(stringKeys[index], 1);
+                }
+                return (long) map.size();
+            });
+            throughput("HashMap<Integer,Integer>.merge", () -> {
+                final Map<Integer, Integer> map = new HashMap<>();
+                for (int index : order) {
+                    map.merge(intKeys[index], 1, Integer::sum);
+                }
+                return (long) map.size();
+            });
+            throughput("IntIntMap.addTo", () -> {
+                final IntIntMap map = new IntIntMap();
+                for (int index : order) {
+                    map.addTo(intKeys[index], 1);
+                }
+                return (long) map.size();
+            });
+        }
+
+        final String[] memoryKeys = new String[MEMORY_ENTRIES];
+        for (int i = 0; i < MEMORY_ENTRIES; i++) {
+            memoryKeys[i] = "key-" + i;
+        }
+        footprint("HashMap<String,Integer>", () -> {
+            final Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < MEMORY_ENTRIES; i++) {
+                map.put(memoryKeys[i], i);
+            }
+            return map;
+        });
+        footprint("ObjectIntMap<String>", () -> {
+            final ObjectIntMap<String> map = new ObjectIntMap<>();
+            for (int i = 0; i < MEMORY_ENTRIES; i++) {
+                map.put(memoryKeys[i], i);
+            }
+            return map;
+        });
+        footprint("HashMap<Integer,Integer>", () -> {
+            final Map<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < MEMORY_ENTRIES; i++) {
+                map.put(i * 7, i);
+            }
+            return map;
+        });
+        footprint("IntIntMap", () -> {
+            final IntIntMap map = new IntIntMap();
+            for (int i = 0; i < MEMORY_ENTRIES; i++) {
+                map.put(i * 7, i);
+            }
+            return map;
+        });
+        footprint("HashMap<Long,Long>", () -> {
+            final Map<Long, Long> map = new HashMap<>();
+            for (long i = 0; i < MEMORY_ENTRIES; i++) {
+                map.put(i * 7, i);
+            }
+            return map;
+        });
+        footprint("LongLongMap", () -> {
+            final LongLongMap map = new LongLongMap();
+            for (long i = 0; i < MEMORY_ENTRIES; i++) {
+                map.put(i * 7, i);
+            }
+            return map;
+        });
+        System.out.println(blackhole);
+    }
+
+    private static void throughput(String name, Supplier<Long> workload) {
+        final long allocatedBefore = ThreadUtils.allocatedBytes();
+        final long start = System.nanoTime();
+        blackhole += workload.get();
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = ThreadUtils.allocatedBytes() - allocatedBefore;
+        System.out.printf("  %-32s %5.1f ns/op %6.2f bytes/op%n", name, (double) elapsed / OPERATIONS,
+                allocatedBefore < 0 ? -1 : (double) allocated / OPERATIONS);
+    }
+
+    private static void footprint(String name, Supplier<Object> factory) {
+        final long before = usedMemory();
+        final Object map = factory.get();
+        final long after = usedMemory();
+        blackhole += System.identityHashCode(map);
+        System.out.printf("%-26s %6.1f bytes/entry%n", name, (double) (after - before) / MEMORY_ENTRIES);
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
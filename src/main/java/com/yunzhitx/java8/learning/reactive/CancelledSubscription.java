@@ -0,0 +1,24 @@
+package com.yunzhitx.java8.learning.reactive;
+
+/**
+ * ClassName: CancelledSubscription <br/>
+ * Description: 订阅建立前就失败时交给订阅者的空订阅<br/>
+ * date: 2026/10/19 14:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+enum CancelledSubscription implements Subscription {
+
+    INSTANCE;
+
+    @Override
+    public void request(long n) {
+        // 已经终止，忽略
+    }
+
+    @Override
+    public void cancel() {
+        // 已经终止，忽略
+    }
+}
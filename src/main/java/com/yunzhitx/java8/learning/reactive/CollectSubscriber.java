@@ -0,0 +1,91 @@
+package com.yunzhitx.java8.learning.reactive;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * ClassName: CollectSubscriber <br/>
+ * Description: 分批请求数据并用Collector收集，收集结果通过CompletableFuture返回；取消该future会取消订阅<br/>
+ * date: 2026/10/19 14:50<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class CollectSubscriber<T, A, R> implements Subscriber<T> {
+
+    private final CompletableFuture<R> result = new CompletableFuture<>();
+
+    private final A container;
+
+    private final BiConsumer<A, ? super T> accumulator;
+
+    private final Function<A, R> finisher;
+
+    private final int prefetch;
+
+    /**
+     * 消费掉limit个数据后补充一次需求，避免每个数据都调用一次request
+     */
+    private final int limit;
+
+    private int consumed;
+
+    private Subscription subscription;
+
+    CollectSubscriber(Collector<? super T, A, R> collector, int prefetch) {
+        this.container = collector.supplier().get();
+        this.accumulator = collector.accumulator();
+        this.finisher = collector.finisher();
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+    }
+
+    CompletableFuture<R> future() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        result.whenComplete((r, ex) -> {
+            if (ex != null) {
+                subscription.cancel();
+            }
+        });
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            accumulator.accept(container, item);
+        } catch (Throwable ex) {
+            subscription.cancel();
+            result.completeExceptionally(ex);
+            return;
+        }
+        if (++consumed == limit) {
+            consumed = 0;
+            subscription.request(limit);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            result.complete(finisher.apply(container));
+        } catch (Throwable ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+}
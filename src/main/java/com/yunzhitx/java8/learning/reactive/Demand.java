@@ -0,0 +1,60 @@
+package com.yunzhitx.java8.learning.reactive;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClassName: Demand <br/>
+ * Description: 需求计数的工具方法<br/>
+ * date: 2026/10/19 14:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class Demand {
+
+    private Demand() {
+    }
+
+    /**
+     * 累加需求，溢出时封顶为Long.MAX_VALUE
+     *
+     * @return 累加之前的需求
+     */
+    static long add(AtomicLong requested, long n) {
+        for (; ; ) {
+            final long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            long next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+            if (requested.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * 扣减已发送的数量，无界需求不扣减
+     *
+     * @return 扣减之后的需求
+     */
+    static long produced(AtomicLong requested, long n) {
+        for (; ; ) {
+            final long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            final long next = current - n;
+            if (requested.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    static IllegalArgumentException nonPositive(long n) {
+        return new IllegalArgumentException("§3.9 violated: request amount must be positive, but was " + n);
+    }
+}
@@ -0,0 +1,196 @@
+package com.yunzhitx.java8.learning.reactive;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * ClassName: FlatMapAsyncPublisher <br/>
+ * Description: 把每个上游数据映射为CompletableFuture，最多同时执行maxConcurrency个，结果按完成顺序向下游发送。<br/>
+ * 只有下游消费掉一个结果才会向上游再请求一个数据，所以执行中和已完成未消费的数据总数不超过maxConcurrency，内存占用是平的。<br/>
+ * date: 2026/10/19 14:35<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class FlatMapAsyncPublisher<T, R> implements Publisher<R> {
+
+    private final Publisher<T> source;
+
+    private final Function<? super T, ? extends CompletableFuture<? extends R>> mapper;
+
+    private final int maxConcurrency;
+
+    FlatMapAsyncPublisher(Publisher<T> source,
+                          Function<? super T, ? extends CompletableFuture<? extends R>> mapper,
+                          int maxConcurrency) {
+        this.source = source;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R> subscriber) {
+        source.subscribe(new FlatMapSubscriber<>(Objects.requireNonNull(subscriber), mapper, maxConcurrency));
+    }
+
+    private static final class FlatMapSubscriber<T, R> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super R> downstream;
+
+        private final Function<? super T, ? extends CompletableFuture<? extends R>> mapper;
+
+        private final int maxConcurrency;
+
+        private final Queue<R> results = new ConcurrentLinkedQueue<>();
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private Subscription upstream;
+
+        private volatile boolean done;
+
+        private volatile boolean cancelled;
+
+        FlatMapSubscriber(Subscriber<? super R> downstream,
+                          Function<? super T, ? extends CompletableFuture<? extends R>> mapper,
+                          int maxConcurrency) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(maxConcurrency);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (cancelled) {
+                return;
+            }
+            active.incrementAndGet();
+            final CompletableFuture<? extends R> future;
+            try {
+                future = Objects.requireNonNull(mapper.apply(item), "mapper returned a null future");
+            } catch (Throwable ex) {
+                active.decrementAndGet();
+                fail(ex);
+                return;
+            }
+            future.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                } else if (result == null) {
+                    fail(new NullPointerException("§2.13 violated: future completed with null"));
+                } else {
+                    // 先入队再减少计数，保证完成判断时能看到这个结果
+                    results.offer(result);
+                }
+                active.decrementAndGet();
+                drain();
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                upstream.cancel();
+                fail(Demand.nonPositive(n));
+                return;
+            }
+            Demand.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                drain();
+            }
+        }
+
+        private void fail(Throwable ex) {
+            error.compareAndSet(null, ex);
+            done = true;
+            drain();
+        }
+
+        /**
+         * 队列-排空模式：同一时刻只有一个线程向下游发送，其它线程只登记有新的工作
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                if (cancelled) {
+                    results.clear();
+                    return;
+                }
+                final Throwable ex = error.get();
+                if (ex != null) {
+                    cancelled = true;
+                    upstream.cancel();
+                    results.clear();
+                    downstream.onError(ex);
+                    return;
+                }
+                final long demand = requested.get();
+                long emitted = 0;
+                while (emitted != demand) {
+                    final R result = results.poll();
+                    if (result == null) {
+                        break;
+                    }
+                    downstream.onNext(result);
+                    emitted++;
+                }
+                if (emitted != 0) {
+                    Demand.produced(requested, emitted);
+                    if (!done) {
+                        upstream.request(emitted);
+                    }
+                }
+                if (done && active.get() == 0 && results.isEmpty()) {
+                    cancelled = true;
+                    downstream.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.yunzhitx.java8.learning.reactive;
+
+/**
+ * ClassName: Publisher <br/>
+ * Description: 数据发布者，按照Subscriber通过Subscription.request(n)声明的需求量发送数据，
+ * 语义与Reactive Streams规范中的同名接口一致<br/>
+ * date: 2026/10/19 14:02<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+@FunctionalInterface
+public interface Publisher<T> {
+
+    /**
+     * 订阅，发布者会先回调Subscriber.onSubscribe，之后只在有需求时调用onNext
+     *
+     * @param subscriber 订阅者
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
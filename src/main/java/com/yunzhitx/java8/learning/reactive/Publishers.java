@@ -0,0 +1,86 @@
+package com.yunzhitx.java8.learning.reactive;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: Publishers <br/>
+ * Description: Publisher的创建与组合：Stream/Spliterator转Publisher、有界并发的异步flatMap、收集为CompletableFuture<br/>
+ * date: 2026/10/19 15:02<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Publishers {
+
+    private static final int DEFAULT_PREFETCH = 128;
+
+    private Publishers() {
+    }
+
+    /**
+     * 把Stream转换为Publisher。Stream只能消费一次，所以返回的Publisher只能被订阅一次
+     */
+    public static <T> Publisher<T> fromStream(Stream<? extends T> stream) {
+        Objects.requireNonNull(stream);
+        final AtomicBoolean subscribed = new AtomicBoolean();
+        return new SpliteratorPublisher<>(() -> {
+            if (!subscribed.compareAndSet(false, true)) {
+                throw new IllegalStateException("a Stream based publisher can only be subscribed once");
+            }
+            return stream.spliterator();
+        });
+    }
+
+    /**
+     * 把Spliterator的提供者转换为Publisher，每次订阅获取一个新的Spliterator，可以被多次订阅
+     */
+    public static <T> Publisher<T> fromSpliterator(Supplier<? extends Spliterator<? extends T>> spliteratorSupplier) {
+        return new SpliteratorPublisher<>(Objects.requireNonNull(spliteratorSupplier));
+    }
+
+    /**
+     * 有界并发的异步flatMap，同时执行的CompletableFuture不超过maxConcurrency个，结果按完成顺序发送
+     *
+     * @param source         上游
+     * @param mapper         把数据映射为异步任务，例如 id -> CompletableFuture.supplyAsync(() -> load(id), executor)
+     * @param maxConcurrency 最大并发数
+     */
+    public static <T, R> Publisher<R> flatMapAsync(Publisher<T> source,
+                                                   Function<? super T, ? extends CompletableFuture<? extends R>> mapper,
+                                                   int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        return new FlatMapAsyncPublisher<>(Objects.requireNonNull(source), Objects.requireNonNull(mapper), maxConcurrency);
+    }
+
+    /**
+     * 订阅并用Collector收集所有数据，每次预取128个
+     */
+    public static <T, A, R> CompletableFuture<R> collect(Publisher<T> source, Collector<? super T, A, R> collector) {
+        return collect(source, collector, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * 订阅并用Collector收集所有数据
+     *
+     * @param prefetch 每批向上游请求的数量
+     */
+    public static <T, A, R> CompletableFuture<R> collect(Publisher<T> source,
+                                                         Collector<? super T, A, R> collector,
+                                                         int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch must be positive: " + prefetch);
+        }
+        final CollectSubscriber<T, A, R> subscriber = new CollectSubscriber<>(collector, prefetch);
+        source.subscribe(subscriber);
+        return subscriber.future();
+    }
+}
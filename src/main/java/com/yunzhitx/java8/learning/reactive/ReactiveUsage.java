@@ -0,0 +1,90 @@
+package com.yunzhitx.java8.learning.reactive;
+
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: ReactiveUsage <br/>
+ * Description: 基于需求的背压：快速的生产者连接慢速的异步消费者<br/>
+ * date: 2026/10/19 15:15<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class ReactiveUsage {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(4);
+
+    public static void main(String[] args) {
+        // 按需拉取
+        requestOnDemand();
+        // 有界并发的异步处理
+        boundedFlatMap();
+
+        EXECUTOR_SERVICE.shutdown();
+    }
+
+    private static void requestOnDemand() {
+        System.out.println("requestOnDemand");
+        // 无限流也没有问题，因为只在request时才会拉取
+        Publishers.fromStream(Stream.iterate(1, i -> i + 1))
+                .subscribe(new Subscriber<Integer>() {
+                    private Subscription subscription;
+
+                    @Override
+                    public void onSubscribe(Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(Integer item) {
+                        System.out.println("received " + item);
+                        if (item == 3) {
+                            subscription.cancel();
+                        } else {
+                            subscription.request(1);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        throwable.printStackTrace();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        System.out.println("complete");
+                    }
+                });
+    }
+
+    private static void boundedFlatMap() {
+        System.out.println("boundedFlatMap");
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        // 生产者可以瞬间产生1000个数据，但同时最多只有8个慢任务在执行
+        final Publisher<Integer> results = Publishers.flatMapAsync(
+                Publishers.fromStream(IntStream.range(0, 1000).boxed()),
+                i -> CompletableFuture.supplyAsync(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    ThreadUtils.sleep(1);
+                    inFlight.decrementAndGet();
+                    return i * 2;
+                }, EXECUTOR_SERVICE),
+                8
+        );
+        final List<Integer> list = Publishers.collect(results, Collectors.toList()).join();
+        System.out.println("size = " + list.size() + ", max in flight = " + maxInFlight.get());
+        assert list.size() == 1000;
+        assert maxInFlight.get() <= 8;
+    }
+}
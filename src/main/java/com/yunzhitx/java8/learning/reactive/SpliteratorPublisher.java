@@ -0,0 +1,119 @@
+package com.yunzhitx.java8.learning.reactive;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: SpliteratorPublisher <br/>
+ * Description: 把Spliterator转换为Publisher，只在有需求时从Spliterator中拉取数据，在request的调用线程上发送<br/>
+ * date: 2026/10/19 14:16<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class SpliteratorPublisher<T> implements Publisher<T> {
+
+    private final Supplier<? extends Spliterator<? extends T>> spliteratorSupplier;
+
+    SpliteratorPublisher(Supplier<? extends Spliterator<? extends T>> spliteratorSupplier) {
+        this.spliteratorSupplier = spliteratorSupplier;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        final Spliterator<? extends T> spliterator;
+        try {
+            spliterator = spliteratorSupplier.get();
+        } catch (Throwable ex) {
+            subscriber.onSubscribe(CancelledSubscription.INSTANCE);
+            subscriber.onError(ex);
+            return;
+        }
+        final SpliteratorSubscription<T> subscription = new SpliteratorSubscription<>(subscriber, spliterator);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private static final class SpliteratorSubscription<T> extends AtomicLong implements Subscription, Consumer<T> {
+
+        private final Subscriber<? super T> subscriber;
+
+        private final Spliterator<? extends T> spliterator;
+
+        private volatile boolean cancelled;
+
+        private volatile Throwable badRequest;
+
+        SpliteratorSubscription(Subscriber<? super T> subscriber, Spliterator<? extends T> spliterator) {
+            this.subscriber = subscriber;
+            this.spliterator = spliterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 交给drain循环发送错误，避免与正在进行的onNext并发
+                badRequest = Demand.nonPositive(n);
+                n = Long.MAX_VALUE;
+            }
+            // 之前需求为0说明没有线程在发送，由当前线程负责发送；否则只累加需求，避免递归调用栈无限增长
+            if (Demand.add(this, n) == 0) {
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void accept(T item) {
+            subscriber.onNext(Objects.requireNonNull(item, "§2.13 violated: null element"));
+        }
+
+        private void drain() {
+            long emitted = 0;
+            long requested = get();
+            for (; ; ) {
+                while (emitted != requested) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (badRequest != null) {
+                        cancelled = true;
+                        subscriber.onError(badRequest);
+                        return;
+                    }
+                    final boolean hasNext;
+                    try {
+                        hasNext = spliterator.tryAdvance(this);
+                    } catch (Throwable ex) {
+                        cancelled = true;
+                        subscriber.onError(ex);
+                        return;
+                    }
+                    if (!hasNext) {
+                        if (!cancelled) {
+                            cancelled = true;
+                            subscriber.onComplete();
+                        }
+                        return;
+                    }
+                    emitted++;
+                }
+                requested = get();
+                if (emitted == requested) {
+                    requested = Demand.produced(this, emitted);
+                    if (requested == 0) {
+                        return;
+                    }
+                    emitted = 0;
+                }
+            }
+        }
+    }
+}
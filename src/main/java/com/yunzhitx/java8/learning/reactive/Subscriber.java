@@ -0,0 +1,38 @@
+package com.yunzhitx.java8.learning.reactive;
+
+/**
+ * ClassName: Subscriber <br/>
+ * Description: 数据订阅者，onNext/onError/onComplete保证串行调用，onError与onComplete二者最多调用一次<br/>
+ * date: 2026/10/19 14:03<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public interface Subscriber<T> {
+
+    /**
+     * 订阅建立，订阅者需要通过subscription.request(n)声明需求后才会收到数据
+     *
+     * @param subscription 订阅关系
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * 收到一个数据，调用次数不会超过已声明的需求总量
+     *
+     * @param item 数据，不为null
+     */
+    void onNext(T item);
+
+    /**
+     * 发生错误，终止信号
+     *
+     * @param throwable 错误
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * 数据发送完毕，终止信号
+     */
+    void onComplete();
+}
@@ -0,0 +1,24 @@
+package com.yunzhitx.java8.learning.reactive;
+
+/**
+ * ClassName: Subscription <br/>
+ * Description: 订阅关系，订阅者通过它向发布者声明需求（背压）或取消订阅<br/>
+ * date: 2026/10/19 14:04<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public interface Subscription {
+
+    /**
+     * 增加n个需求，需求累加，累计达到Long.MAX_VALUE视为无界
+     *
+     * @param n 需求数量，必须大于0，否则发布者以IllegalArgumentException结束订阅
+     */
+    void request(long n);
+
+    /**
+     * 取消订阅，之后发布者会尽快停止发送数据
+     */
+    void cancel();
+}
@@ -0,0 +1,165 @@
+package com.yunzhitx.java8.learning.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: BatchSpliterator <br/>
+ * Description: 把Spliterator&lt;T&gt;包装成按固定大小分块的Spliterator&lt;List&lt;T&gt;&gt;。<br/>
+ * 源是SUBSIZED时，拆分沿用源的trySplit，再从后半部分借几个元素补齐前半部分，保证每个块（除最后一个外）都是满的，
+ * 所以拆分后的大小仍然精确，并行流可以正常切分。<br/>
+ * date: 2026/10/19 13:05<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class BatchSpliterator<T> implements Spliterator<List<T>> {
+
+    /**
+     * 源不支持精确拆分时，一次拆分出去的最大块数
+     */
+    private static final int MAX_SPLIT_BATCHES = 1 << 10;
+
+    private final Spliterator<T> source;
+
+    private final int batchSize;
+
+    private final boolean reuseBuffer;
+
+    /**
+     * 源耗尽后还需要输出的元素，来自拆分时从后半部分借来的元素
+     */
+    private Object[] tail;
+
+    private int tailIndex;
+
+    private ArrayList<T> buffer;
+
+    BatchSpliterator(Spliterator<T> source, int batchSize, boolean reuseBuffer) {
+        this(source, batchSize, reuseBuffer, null);
+    }
+
+    private BatchSpliterator(Spliterator<T> source, int batchSize, boolean reuseBuffer, Object[] tail) {
+        this.source = source;
+        this.batchSize = batchSize;
+        this.reuseBuffer = reuseBuffer;
+        this.tail = tail;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+        final ArrayList<T> chunk = nextBuffer();
+        final Consumer<T> adder = chunk::add;
+        while (chunk.size() < batchSize && source.tryAdvance(adder)) {
+            // 逐个从源中取元素
+        }
+        fillFromTail(chunk);
+        if (chunk.isEmpty()) {
+            return false;
+        }
+        action.accept(chunk);
+        return true;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (source.hasCharacteristics(SUBSIZED)) {
+            return splitSized();
+        }
+        return splitUnsized();
+    }
+
+    @Override
+    public long estimateSize() {
+        final long elements = source.estimateSize();
+        if (elements == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        final long total = elements + remainingTail();
+        return (total + batchSize - 1) / batchSize;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = NONNULL | (source.characteristics() & ORDERED);
+        if (source.hasCharacteristics(SIZED)) {
+            characteristics |= SIZED;
+        }
+        if (source.hasCharacteristics(SUBSIZED)) {
+            characteristics |= SUBSIZED;
+        }
+        return characteristics;
+    }
+
+    private Spliterator<List<T>> splitSized() {
+        final Spliterator<T> prefix = source.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        final long prefixSize = prefix.getExactSizeIfKnown();
+        final int missing = (int) ((batchSize - prefixSize % batchSize) % batchSize);
+        Object[] borrowed = null;
+        if (missing > 0) {
+            // 前半部分最后一块不满，从后半部分的开头借元素补齐
+            final List<T> list = new ArrayList<>(missing);
+            final Consumer<T> adder = list::add;
+            while (list.size() < missing && source.tryAdvance(adder)) {
+                // 逐个借
+            }
+            fillFromTail(list, missing);
+            borrowed = list.toArray();
+        }
+        return new BatchSpliterator<>(prefix, batchSize, reuseBuffer, borrowed);
+    }
+
+    private Spliterator<List<T>> splitUnsized() {
+        final List<List<T>> chunks = new ArrayList<>();
+        while (chunks.size() < MAX_SPLIT_BATCHES) {
+            final ArrayList<T> chunk = new ArrayList<>(batchSize);
+            final Consumer<T> adder = chunk::add;
+            while (chunk.size() < batchSize && source.tryAdvance(adder)) {
+                // 逐个从源中取元素
+            }
+            fillFromTail(chunk);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunks.add(chunk);
+        }
+        if (chunks.isEmpty()) {
+            return null;
+        }
+        return Spliterators.spliterator(chunks, characteristics() & ORDERED | NONNULL);
+    }
+
+    private ArrayList<T> nextBuffer() {
+        if (!reuseBuffer) {
+            return new ArrayList<>(batchSize);
+        }
+        if (buffer == null) {
+            buffer = new ArrayList<>(batchSize);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private void fillFromTail(List<T> chunk) {
+        fillFromTail(chunk, batchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fillFromTail(List<T> chunk, int limit) {
+        while (tail != null && chunk.size() < limit && tailIndex < tail.length) {
+            chunk.add((T) tail[tailIndex]);
+            tail[tailIndex++] = null;
+        }
+    }
+
+    private int remainingTail() {
+        return tail == null ? 0 : tail.length - tailIndex;
+    }
+}
@@ -0,0 +1,85 @@
+package com.yunzhitx.java8.learning.stream;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ClassName: Batching <br/>
+ * Description: 把Stream&lt;T&gt;按固定大小分块为Stream&lt;List&lt;T&gt;&gt;，用于批量写入等场景<br/>
+ * date: 2026/10/19 13:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class Batching {
+
+    public static void main(String[] args) {
+        // 分块
+        chunked();
+        // 并行分块
+        parallelChunked();
+        // 复用缓冲区的分块
+        reusableBuffer();
+    }
+
+    /**
+     * 按固定大小分块，最后一块可能不满；源是SIZED的并行流时，分块后仍可并行处理
+     *
+     * @param stream    源流
+     * @param batchSize 每块的元素个数
+     * @return 块流，每个块是一个新的List
+     */
+    public static <T> Stream<List<T>> chunked(Stream<T> stream, int batchSize) {
+        return batch(stream, batchSize, false);
+    }
+
+    /**
+     * 复用缓冲区的分块：每个Spliterator只分配一个List，每块输出前清空重用。<br/>
+     * 下游必须在拿到块时立即消费完，不能保存、收集或跨块引用，适合直接forEach写库的场景。
+     *
+     * @param stream    源流
+     * @param batchSize 每块的元素个数
+     * @return 块流，块对象会被复用
+     */
+    public static <T> Stream<List<T>> chunkedReusing(Stream<T> stream, int batchSize) {
+        return batch(stream, batchSize, true);
+    }
+
+    private static <T> Stream<List<T>> batch(Stream<T> stream, int batchSize, boolean reuseBuffer) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        final BatchSpliterator<T> spliterator = new BatchSpliterator<>(stream.spliterator(), batchSize, reuseBuffer);
+        return StreamSupport.stream(spliterator, stream.isParallel())
+                .onClose(stream::close);
+    }
+
+    public static void chunked() {
+        System.out.println("chunked");
+        final List<List<Integer>> chunks = chunked(Stream.of(1, 2, 3, 4, 5, 6, 7), 3)
+                .collect(Collectors.toList());
+        // [[1, 2, 3], [4, 5, 6], [7]]
+        System.out.println(chunks);
+    }
+
+    public static void parallelChunked() {
+        System.out.println("parallelChunked");
+        // 并行拆分时会保证除最后一块外每块都是满的，并且保持原有顺序
+        final List<List<Integer>> chunks = chunked(IntStream.range(0, 10_000).boxed().parallel(), 7)
+                .collect(Collectors.toList());
+        assert chunks.size() == 1429;
+        assert chunks.stream().limit(chunks.size() - 1).allMatch(chunk -> chunk.size() == 7);
+        assert chunks.get(100).get(0) == 700;
+        System.out.println(chunks.size());
+    }
+
+    public static void reusableBuffer() {
+        System.out.println("reusableBuffer");
+        // 每个块都是同一个List实例，拿到后立即消费
+        chunkedReusing(Stream.of("a", "b", "c", "d", "e"), 2)
+                .forEach(chunk -> System.out.println("insert " + String.join(",", chunk)));
+    }
+}
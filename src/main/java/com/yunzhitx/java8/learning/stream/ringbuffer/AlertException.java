@@ -0,0 +1,20 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+/**
+ * ClassName: AlertException <br/>
+ * Description: 通知消费者停止等待，使用不填充调用栈的单例<br/>
+ * date: 2026/10/20 18:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class AlertException extends Exception {
+
+    static final AlertException INSTANCE = new AlertException();
+
+    private static final long serialVersionUID = 1L;
+
+    private AlertException() {
+        super("alerted", null, false, false);
+    }
+}
@@ -0,0 +1,70 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+import java.util.Objects;
+
+/**
+ * ClassName: BatchEventProcessor <br/>
+ * Description: 在一个线程上循环执行EventHandler的消费者。<br/>
+ * 每次从屏障拿到可处理的最大序号后一次处理完整批事件，再更新一次自己的sequence，
+ * 下游阶段和生产者只读取这个sequence，不需要任何锁或者交接对象。<br/>
+ * date: 2026/10/20 19:00<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class BatchEventProcessor<E> implements Runnable {
+
+    private final RingBuffer<E> ringBuffer;
+
+    private final SequenceBarrier barrier;
+
+    private final EventHandler<? super E> handler;
+
+    private final Sequence sequence = new Sequence();
+
+    private volatile boolean running = true;
+
+    public BatchEventProcessor(RingBuffer<E> ringBuffer, SequenceBarrier barrier, EventHandler<? super E> handler) {
+        this.ringBuffer = Objects.requireNonNull(ringBuffer);
+        this.barrier = Objects.requireNonNull(barrier);
+        this.handler = Objects.requireNonNull(handler);
+    }
+
+    /**
+     * 已经处理完的序号，下游阶段以它作为依赖
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (running) {
+            try {
+                final long available = barrier.waitFor(next);
+                while (next <= available) {
+                    handler.onEvent(ringBuffer.get(next), next, next == available);
+                    next++;
+                }
+                sequence.set(available);
+            } catch (AlertException ex) {
+                // halt()
+            } catch (Throwable ex) {
+                // 跳过出错的事件，不能让整条流水线停下
+                sequence.set(next);
+                next++;
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+            }
+        }
+    }
+
+    /**
+     * 停止处理，正在处理的批次处理完后退出
+     */
+    public void halt() {
+        running = false;
+        barrier.alert();
+    }
+}
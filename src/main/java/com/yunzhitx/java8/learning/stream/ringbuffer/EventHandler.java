@@ -0,0 +1,22 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+/**
+ * ClassName: EventHandler <br/>
+ * Description: 流水线中一个阶段对事件的处理<br/>
+ * date: 2026/10/20 18:25<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * 处理一个事件。事件对象属于RingBuffer，会被后续的事件复用，不能在方法之外保留引用
+     *
+     * @param event      事件
+     * @param sequence   事件的序号
+     * @param endOfBatch 是否是本批次的最后一个事件，可以在此时批量刷新输出
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+}
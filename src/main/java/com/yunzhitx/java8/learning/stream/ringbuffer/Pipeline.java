@@ -0,0 +1,160 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+import com.yunzhitx.java8.learning.executor.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: Pipeline <br/>
+ * Description: 基于RingBuffer的多阶段处理流水线，例如 解析 -> 补全 -> 聚合。<br/>
+ * 所有阶段共享同一个RingBuffer中的事件对象，每个阶段一个BatchEventProcessor线程，
+ * 后一个阶段以前一个阶段所有消费者的sequence作为屏障；同一阶段的多个handler并行处理同一批事件。
+ * 与阶段之间用BlockingQueue传递对象相比，稳定运行时没有对象分配，也没有锁。<br/>
+ * date: 2026/10/20 19:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Pipeline<E> {
+
+    private final RingBuffer<E> ringBuffer;
+
+    private final List<BatchEventProcessor<E>> processors;
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private Pipeline(RingBuffer<E> ringBuffer, List<BatchEventProcessor<E>> processors) {
+        this.ringBuffer = ringBuffer;
+        this.processors = processors;
+    }
+
+    /**
+     * @param factory    事件对象的创建方法
+     * @param bufferSize 槽位数，必须是2的幂
+     */
+    public static <E> Builder<E> builder(Supplier<? extends E> factory, int bufferSize) {
+        return new Builder<>(factory, bufferSize);
+    }
+
+    /**
+     * 使用名为pipeline-序号的线程启动所有阶段
+     */
+    public Pipeline<E> start() {
+        final AtomicInteger counter = new AtomicInteger();
+        return start(runnable -> new Thread(runnable, "pipeline-" + counter.getAndIncrement()));
+    }
+
+    public synchronized Pipeline<E> start(ThreadFactory threadFactory) {
+        if (!threads.isEmpty()) {
+            throw new IllegalStateException("pipeline already started");
+        }
+        for (BatchEventProcessor<E> processor : processors) {
+            final Thread thread = threadFactory.newThread(processor);
+            threads.add(thread);
+            thread.start();
+        }
+        return this;
+    }
+
+    /**
+     * 发布一个事件，见RingBuffer.publishEvent
+     */
+    public <A> void publish(BiConsumer<? super E, ? super A> translator, A arg) {
+        ringBuffer.publishEvent(translator, arg);
+    }
+
+    public RingBuffer<E> getRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * 等待已发布的事件全部处理完，然后停止所有阶段。调用前应当停止发布
+     */
+    public synchronized void shutdown() throws InterruptedException {
+        while (!ringBuffer.isDrained()) {
+            Thread.sleep(1);
+        }
+        for (BatchEventProcessor<E> processor : processors) {
+            processor.halt();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    public static final class Builder<E> {
+
+        private final Supplier<? extends E> factory;
+
+        private final int bufferSize;
+
+        private final List<List<EventHandler<? super E>>> stages = new ArrayList<>();
+
+        private WaitStrategy waitStrategy = WaitStrategy.YIELD;
+
+        private boolean multiProducer;
+
+        private Builder(Supplier<? extends E> factory, int bufferSize) {
+            this.factory = Objects.requireNonNull(factory);
+            this.bufferSize = bufferSize;
+        }
+
+        public Builder<E> waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy);
+            return this;
+        }
+
+        /**
+         * 允许多个线程同时发布，默认只允许一个线程发布
+         */
+        public Builder<E> multiProducer() {
+            this.multiProducer = true;
+            return this;
+        }
+
+        /**
+         * 添加一个阶段，其中的handler并行处理每个事件，全部处理完后事件才进入下一个阶段
+         */
+        @SafeVarargs
+        public final Builder<E> then(EventHandler<? super E>... handlers) {
+            if (handlers.length == 0) {
+                throw new IllegalArgumentException("a stage needs at least one handler");
+            }
+            final List<EventHandler<? super E>> stage = new ArrayList<>();
+            for (EventHandler<? super E> handler : handlers) {
+                stage.add(Objects.requireNonNull(handler));
+            }
+            stages.add(stage);
+            return this;
+        }
+
+        public Pipeline<E> build() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("pipeline has no stage");
+            }
+            final RingBuffer<E> ringBuffer = multiProducer
+                    ? RingBuffer.createMultiProducer(factory, bufferSize, waitStrategy)
+                    : RingBuffer.createSingleProducer(factory, bufferSize, waitStrategy);
+            final List<BatchEventProcessor<E>> processors = new ArrayList<>();
+            Sequence[] previous = new Sequence[0];
+            for (List<EventHandler<? super E>> stage : stages) {
+                final SequenceBarrier barrier = ringBuffer.newBarrier(previous);
+                final Sequence[] current = new Sequence[stage.size()];
+                for (int i = 0; i < stage.size(); i++) {
+                    final BatchEventProcessor<E> processor = new BatchEventProcessor<>(ringBuffer, barrier, stage.get(i));
+                    processors.add(processor);
+                    current[i] = processor.getSequence();
+                }
+                previous = current;
+            }
+            ringBuffer.addGatingSequences(previous);
+            return new Pipeline<>(ringBuffer, processors);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+import com.yunzhitx.java8.learning.executor.WaitStrategy;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: RingBuffer <br/>
+ * Description: 预分配事件对象的环形缓冲区（Disruptor模式）。<br/>
+ * 创建时用factory填满所有槽位，发布事件时只是在槽位中的对象上原地写入字段，没有入队的对象分配，
+ * 也没有锁：生产者申请序号、写入、发布，消费者通过SequenceBarrier等待序号可用后直接读取同一个对象。<br/>
+ * 生产者不能越过最后一个阶段的消费者一整圈（gating sequences），否则会覆盖还没处理完的事件。<br/>
+ * 单生产者模式下申请序号只是普通的加法；多生产者模式用CAS申请，每个槽位另外记录发布时的圈数，
+ * 消费者据此判断乱序发布的序号中哪些已经可读。<br/>
+ * date: 2026/10/20 18:35<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class RingBuffer<E> {
+
+    private final Object[] entries;
+
+    private final int bufferSize;
+
+    private final int mask;
+
+    private final int indexShift;
+
+    private final boolean multiProducer;
+
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * 单生产者：最后发布的序号；多生产者：最后被申请的序号
+     */
+    private final Sequence cursor = new Sequence();
+
+    /**
+     * 多生产者模式下每个槽位最后一次发布时的圈数
+     */
+    private final AtomicIntegerArray availableBuffer;
+
+    /**
+     * 多生产者模式下缓存的最慢消费者进度
+     */
+    private final Sequence gatingSequenceCache = new Sequence();
+
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    /**
+     * 单生产者模式下只由生产者线程访问
+     */
+    private long nextValue = Sequence.INITIAL_VALUE;
+
+    private long cachedGatingValue = Sequence.INITIAL_VALUE;
+
+    private RingBuffer(Supplier<? extends E> factory, int bufferSize, boolean multiProducer,
+                       WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.multiProducer = multiProducer;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+        this.entries = new Object[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = Objects.requireNonNull(factory.get(), "factory returned null");
+        }
+        if (multiProducer) {
+            availableBuffer = new AtomicIntegerArray(bufferSize);
+            for (int i = 0; i < bufferSize; i++) {
+                availableBuffer.set(i, -1);
+            }
+        } else {
+            availableBuffer = null;
+        }
+    }
+
+    /**
+     * 只有一个线程发布事件
+     *
+     * @param factory    创建事件对象，只在创建RingBuffer时调用bufferSize次
+     * @param bufferSize 槽位数，必须是2的幂
+     */
+    public static <E> RingBuffer<E> createSingleProducer(Supplier<? extends E> factory, int bufferSize,
+                                                         WaitStrategy waitStrategy) {
+        return new RingBuffer<>(factory, bufferSize, false, waitStrategy);
+    }
+
+    /**
+     * 多个线程并发发布事件
+     */
+    public static <E> RingBuffer<E> createMultiProducer(Supplier<? extends E> factory, int bufferSize,
+                                                        WaitStrategy waitStrategy) {
+        return new RingBuffer<>(factory, bufferSize, true, waitStrategy);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 序号对应的事件对象
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    /**
+     * 申请下一个序号，缓冲区满时等待最慢的消费者。申请后必须调用publish，否则消费者会一直等待
+     */
+    public long next() {
+        return multiProducer ? nextMulti() : nextSingle();
+    }
+
+    /**
+     * 发布序号，之后消费者可以读取该事件
+     */
+    public void publish(long sequence) {
+        if (multiProducer) {
+            availableBuffer.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+        } else {
+            cursor.set(sequence);
+        }
+    }
+
+    /**
+     * 申请、写入、发布一个事件。translator不捕获外部变量时（例如方法引用或者只使用参数的lambda），发布过程没有分配
+     *
+     * @param translator 把arg写入事件对象
+     * @param arg        参数
+     */
+    public <A> void publishEvent(BiConsumer<? super E, ? super A> translator, A arg) {
+        final long sequence = next();
+        try {
+            translator.accept(get(sequence), arg);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    /**
+     * 创建等待生产者（和dependents）的屏障
+     *
+     * @param dependents 必须先处理完的上游阶段，为空时只等待生产者发布
+     */
+    public SequenceBarrier newBarrier(Sequence... dependents) {
+        return new SequenceBarrier(this, waitStrategy, cursor, dependents.clone());
+    }
+
+    /**
+     * 添加生产者不能超越的消费者序号，通常是流水线最后一个阶段的各个消费者
+     */
+    public synchronized void addGatingSequences(Sequence... sequences) {
+        final Sequence[] current = gatingSequences;
+        final Sequence[] updated = Arrays.copyOf(current, current.length + sequences.length);
+        System.arraycopy(sequences, 0, updated, current.length, sequences.length);
+        // 新消费者从当前位置开始，不处理之前的事件
+        final long position = cursor.get();
+        for (Sequence sequence : sequences) {
+            sequence.set(position);
+        }
+        gatingSequences = updated;
+    }
+
+    /**
+     * 已申请的最大序号
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * 最慢的消费者处理到的序号
+     */
+    public long getMinimumGatingSequence() {
+        return Sequence.minimum(gatingSequences, cursor.get());
+    }
+
+    /**
+     * 所有已申请的序号是否都已被最后一个阶段处理完；消费者只会越过已发布的序号，因此也意味着都已发布
+     */
+    public boolean isDrained() {
+        return getMinimumGatingSequence() >= cursor.get();
+    }
+
+    /**
+     * 在[lowerBound, availableSequence]中，从lowerBound开始连续已发布的最大序号
+     */
+    long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+        if (!multiProducer) {
+            return availableSequence;
+        }
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (availableBuffer.get((int) sequence & mask) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    private long nextSingle() {
+        final long current = nextValue;
+        final long next = current + 1;
+        final long wrapPoint = next - bufferSize;
+        if (wrapPoint > cachedGatingValue) {
+            long minSequence;
+            while (wrapPoint > (minSequence = Sequence.minimum(gatingSequences, current))) {
+                // 缓冲区满，等待最慢的消费者
+                LockSupport.parkNanos(1);
+            }
+            cachedGatingValue = minSequence;
+        }
+        nextValue = next;
+        return next;
+    }
+
+    private long nextMulti() {
+        for (; ; ) {
+            final long current = cursor.get();
+            final long next = current + 1;
+            final long wrapPoint = next - bufferSize;
+            final long cachedGating = gatingSequenceCache.get();
+            if (wrapPoint > cachedGating) {
+                final long gating = Sequence.minimum(gatingSequences, current);
+                if (wrapPoint > gating) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingSequenceCache.set(gating);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+}
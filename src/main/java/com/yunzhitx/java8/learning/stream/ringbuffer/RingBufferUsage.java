@@ -0,0 +1,194 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+import com.yunzhitx.java8.learning.executor.WaitStrategy;
+import com.yunzhitx.java8.learning.util.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * ClassName: RingBufferUsage <br/>
+ * Description: 解析 -> 补全 -> 聚合 三阶段流水线，RingBuffer与LinkedBlockingDeque两种实现的吞吐量和内存分配对比。<br/>
+ * 输入是形如"userId,latencyMicros"的日志行，按userId补全地区，再按地区统计平均耗时。<br/>
+ * date: 2026/10/20 19:30<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class RingBufferUsage {
+
+    private static final int EVENTS = 5_000_000;
+
+    private static final int DISTINCT_LINES = 10_000;
+
+    private static final String[] REGION_NAMES = {"east", "south", "west", "north"};
+
+    private static final int[] USER_REGIONS = new int[1000];
+
+    private static final String[] LINES = new String[DISTINCT_LINES];
+
+    static {
+        final Random random = new Random(42);
+        for (int i = 0; i < USER_REGIONS.length; i++) {
+            USER_REGIONS[i] = random.nextInt(REGION_NAMES.length);
+        }
+        for (int i = 0; i < LINES.length; i++) {
+            LINES[i] = random.nextInt(USER_REGIONS.length) + "," + random.nextInt(10_000);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("round " + round);
+            ringBuffer();
+            blockingQueue();
+        }
+    }
+
+    private static void ringBuffer() throws InterruptedException {
+        final long[] counts = new long[REGION_NAMES.length];
+        final long[] sums = new long[REGION_NAMES.length];
+        final List<Thread> threads = new ArrayList<>();
+        final Pipeline<LogEvent> pipeline = Pipeline.builder(LogEvent::new, 1 << 14)
+                .waitStrategy(WaitStrategy.YIELD)
+                .then((event, sequence, endOfBatch) -> event.parse())
+                .then((event, sequence, endOfBatch) -> event.region = USER_REGIONS[event.userId])
+                .then((event, sequence, endOfBatch) -> {
+                    counts[event.region]++;
+                    sums[event.region] += event.latencyMicros;
+                })
+                .build()
+                .start(runnable -> {
+                    final Thread thread = new Thread(runnable, "ring-" + threads.size());
+                    threads.add(thread);
+                    return thread;
+                });
+        threads.add(Thread.currentThread());
+
+        final long allocatedBefore = ThreadUtils.allocatedBytes(threads);
+        final long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            pipeline.publish(RingBufferUsage::setLine, LINES[i % DISTINCT_LINES]);
+        }
+        while (!pipeline.getRingBuffer().isDrained()) {
+            Thread.sleep(1);
+        }
+        final long elapsed = System.nanoTime() - start;
+        // 阶段线程退出后无法再统计，在shutdown之前读取
+        final long allocated = ThreadUtils.allocatedBytes(threads) - allocatedBefore;
+        pipeline.shutdown();
+        report("ring-buffer", elapsed, allocated, counts, sums);
+    }
+
+    private static void setLine(LogEvent event, String line) {
+        event.line = line;
+    }
+
+    /**
+     * 常见的写法：每个阶段一个线程，阶段之间用阻塞队列传递新创建的对象
+     */
+    private static void blockingQueue() throws InterruptedException {
+        final long[] counts = new long[REGION_NAMES.length];
+        final long[] sums = new long[REGION_NAMES.length];
+        final BlockingQueue<String> lines = new LinkedBlockingDeque<>(1 << 14);
+        final BlockingQueue<LogEvent> parsed = new LinkedBlockingDeque<>(1 << 14);
+        final BlockingQueue<LogEvent> enriched = new LinkedBlockingDeque<>(1 << 14);
+        final String endOfStream = new String("EOF");
+        final LogEvent endEvent = new LogEvent();
+        final List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            try {
+                for (String line = lines.take(); line != endOfStream; line = lines.take()) {
+                    final LogEvent event = new LogEvent();
+                    event.line = line;
+                    event.parse();
+                    parsed.put(event);
+                }
+                parsed.put(endEvent);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        threads.add(new Thread(() -> {
+            try {
+                for (LogEvent event = parsed.take(); event != endEvent; event = parsed.take()) {
+                    event.region = USER_REGIONS[event.userId];
+                    enriched.put(event);
+                }
+                enriched.put(endEvent);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        threads.add(new Thread(() -> {
+            try {
+                for (LogEvent event = enriched.take(); event != endEvent; event = enriched.take()) {
+                    counts[event.region]++;
+                    sums[event.region] += event.latencyMicros;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        threads.forEach(Thread::start);
+        final List<Thread> measured = new ArrayList<>(threads);
+        measured.add(Thread.currentThread());
+
+        final long allocatedBefore = ThreadUtils.allocatedBytes(measured);
+        final long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            lines.put(LINES[i % DISTINCT_LINES]);
+        }
+        lines.put(endOfStream);
+        // 阶段线程退出后无法再统计，在join之前读取，队列中剩余事件的分配会少算一些
+        final long allocated = ThreadUtils.allocatedBytes(measured) - allocatedBefore;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report("blocking-queue", System.nanoTime() - start, allocated, counts, sums);
+    }
+
+    private static void report(String name, long elapsedNanos, long allocated, long[] counts, long[] sums) {
+        final StringBuilder averages = new StringBuilder();
+        for (int i = 0; i < REGION_NAMES.length; i++) {
+            averages.append(' ').append(REGION_NAMES[i]).append('=').append(sums[i] / Math.max(1, counts[i]));
+        }
+        System.out.printf("  %-14s %6.2f Mevents/s %5d bytes/event avg latency:%s%n", name,
+                EVENTS * 1000.0 / elapsedNanos, allocated < 0 ? -1 : allocated / EVENTS, averages);
+    }
+
+    /**
+     * 在RingBuffer中复用的事件对象
+     */
+    private static final class LogEvent {
+
+        private String line;
+
+        private int userId;
+
+        private long latencyMicros;
+
+        private int region;
+
+        /**
+         * 直接扫描字符解析，不创建子串
+         */
+        void parse() {
+            int index = 0;
+            int id = 0;
+            char c;
+            while ((c = line.charAt(index++)) != ',') {
+                id = id * 10 + (c - '0');
+            }
+            long latency = 0;
+            while (index < line.length()) {
+                latency = latency * 10 + (line.charAt(index++) - '0');
+            }
+            userId = id;
+            latencyMicros = latency;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ClassName: Sequence <br/>
+ * Description: 带缓存行填充的序号。<br/>
+ * 生产者的cursor和各个消费者的进度会被不同的线程频繁写入，如果落在同一个缓存行上，
+ * 一个线程的写入会让其它线程的缓存行失效（伪共享）。值放在15个long的数组中间，前后各56字节填充，
+ * 保证与任何其它对象的字段都不在同一个64字节的缓存行上。<br/>
+ * date: 2026/10/20 18:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Sequence {
+
+    public static final long INITIAL_VALUE = -1L;
+
+    private static final int VALUE = 7;
+
+    private final AtomicLongArray padded = new AtomicLongArray(VALUE * 2 + 1);
+
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    public Sequence(long initialValue) {
+        padded.set(VALUE, initialValue);
+    }
+
+    public long get() {
+        return padded.get(VALUE);
+    }
+
+    /**
+     * 有序写入（lazySet），保证之前的写入先于它可见，但不等待写缓冲刷新，比volatile写便宜
+     */
+    public void set(long value) {
+        padded.lazySet(VALUE, value);
+    }
+
+    public void setVolatile(long value) {
+        padded.set(VALUE, value);
+    }
+
+    public boolean compareAndSet(long expect, long update) {
+        return padded.compareAndSet(VALUE, expect, update);
+    }
+
+    /**
+     * 一组序号中的最小值，数组为空时返回defaultValue
+     */
+    static long minimum(Sequence[] sequences, long defaultValue) {
+        long min = sequences.length == 0 ? defaultValue : Long.MAX_VALUE;
+        for (Sequence sequence : sequences) {
+            min = Math.min(min, sequence.get());
+        }
+        return min;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.yunzhitx.java8.learning.stream.ringbuffer;
+
+import com.yunzhitx.java8.learning.executor.WaitStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ClassName: SequenceBarrier <br/>
+ * Description: 消费者等待序号可用的屏障：生产者已经发布，并且所有上游阶段都已经处理完<br/>
+ * date: 2026/10/20 18:50<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class SequenceBarrier {
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 10;
+
+    private static final long PARK_NANOS = 100_000;
+
+    private final RingBuffer<?> ringBuffer;
+
+    private final WaitStrategy waitStrategy;
+
+    private final Sequence cursor;
+
+    private final Sequence[] dependents;
+
+    private volatile boolean alerted;
+
+    SequenceBarrier(RingBuffer<?> ringBuffer, WaitStrategy waitStrategy, Sequence cursor, Sequence[] dependents) {
+        this.ringBuffer = ringBuffer;
+        this.waitStrategy = waitStrategy;
+        this.cursor = cursor;
+        this.dependents = dependents;
+    }
+
+    /**
+     * 等待sequence可用
+     *
+     * @return 可以处理到的最大序号，不小于sequence，消费者可以一次处理一批
+     * @throws AlertException 等待期间被alert
+     */
+    long waitFor(long sequence) throws AlertException {
+        int idle = 0;
+        for (; ; ) {
+            if (alerted) {
+                throw AlertException.INSTANCE;
+            }
+            final long available = dependents.length == 0 ? cursor.get() : Sequence.minimum(dependents, 0);
+            if (available >= sequence) {
+                final long published = ringBuffer.getHighestPublishedSequence(sequence, available);
+                if (published >= sequence) {
+                    return published;
+                }
+            }
+            idle(idle++);
+        }
+    }
+
+    /**
+     * 通知等待中的消费者停止
+     */
+    void alert() {
+        alerted = true;
+    }
+
+    private void idle(int idle) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                return;
+            case YIELD:
+                if (idle >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+                return;
+            default:
+                if (idle < SPIN_TRIES) {
+                    return;
+                }
+                if (idle < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                    return;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+}
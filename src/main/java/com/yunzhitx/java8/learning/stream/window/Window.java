@@ -0,0 +1,67 @@
+package com.yunzhitx.java8.learning.stream.window;
+
+import java.time.Instant;
+
+/**
+ * ClassName: Window <br/>
+ * Description: 时间窗口，左闭右开区间[start, end)，以epoch毫秒表示<br/>
+ * date: 2026/10/19 10:12<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class Window {
+
+    /**
+     * 窗口开始时间（包含），epoch毫秒
+     */
+    private final long start;
+
+    /**
+     * 窗口结束时间（不包含），epoch毫秒
+     */
+    private final long end;
+
+    public Window(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public Instant getStartInstant() {
+        return Instant.ofEpochMilli(start);
+    }
+
+    public Instant getEndInstant() {
+        return Instant.ofEpochMilli(end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Window)) {
+            return false;
+        }
+        final Window other = (Window) o;
+        return start == other.start && end == other.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(start) + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getStartInstant() + ", " + getEndInstant() + ")";
+    }
+}
@@ -0,0 +1,391 @@
+package com.yunzhitx.java8.learning.stream.window;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.Collector;
+
+/**
+ * ClassName: WindowAggregator <br/>
+ * Description: 基于epoch毫秒运算的窗口聚合算子。<br/>
+ * 每个事件只做整数运算来确定所属窗口，并用Collector的accumulator增量聚合；
+ * 水位线（已见最大时间戳 - 允许延迟）越过窗口结束时间时，窗口关闭并输出结果。<br/>
+ * 非线程安全，一个实例对应一个有序（或在允许延迟内乱序）的事件流。<br/>
+ * date: 2026/10/19 10:40<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class WindowAggregator<T, K, A, R> implements Consumer<T> {
+
+    private static final Object SINGLE_KEY = new Object();
+
+    private final ToLongFunction<? super T> timestampFn;
+
+    private final Function<? super T, ? extends K> keyFn;
+
+    private final Supplier<A> supplier;
+
+    private final BiConsumer<A, ? super T> accumulator;
+
+    private final BinaryOperator<A> combiner;
+
+    private final Function<A, R> finisher;
+
+    private final Consumer<? super WindowResult<K, R>> sink;
+
+    private final long allowedLateness;
+
+    private final State state;
+
+    /**
+     * 已见到的最大事件时间
+     */
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    /**
+     * 因超出允许延迟而被丢弃的事件数
+     */
+    private long droppedLateEvents;
+
+    private WindowAggregator(WindowSpec spec,
+                             ToLongFunction<? super T> timestampFn,
+                             Function<? super T, ? extends K> keyFn,
+                             Collector<? super T, A, R> collector,
+                             Consumer<? super WindowResult<K, R>> sink) {
+        this.timestampFn = Objects.requireNonNull(timestampFn);
+        this.keyFn = keyFn;
+        this.supplier = collector.supplier();
+        this.accumulator = collector.accumulator();
+        this.combiner = collector.combiner();
+        this.finisher = collector.finisher();
+        this.sink = Objects.requireNonNull(sink);
+        this.allowedLateness = spec.getAllowedLatenessMillis();
+        this.state = spec.getType() == WindowSpec.Type.SESSION
+                ? new SessionState(spec.getSizeMillis())
+                : new AlignedState(spec);
+    }
+
+    /**
+     * 创建按key分组的窗口聚合算子
+     *
+     * @param spec        窗口定义
+     * @param timestampFn 从事件中取出epoch毫秒，例如 e -> e.getTime().toEpochMilli()
+     * @param keyFn       分组key
+     * @param collector   聚合方式，例如Collectors.counting()；会话窗口合并时会用到combiner
+     * @param sink        窗口关闭时的结果消费者
+     */
+    public static <T, K, A, R> WindowAggregator<T, K, A, R> keyed(WindowSpec spec,
+                                                                  ToLongFunction<? super T> timestampFn,
+                                                                  Function<? super T, ? extends K> keyFn,
+                                                                  Collector<? super T, A, R> collector,
+                                                                  Consumer<? super WindowResult<K, R>> sink) {
+        return new WindowAggregator<>(spec, timestampFn, Objects.requireNonNull(keyFn), collector, sink);
+    }
+
+    /**
+     * 创建不分组的窗口聚合算子，输出结果的key为null
+     */
+    public static <T, A, R> WindowAggregator<T, Object, A, R> of(WindowSpec spec,
+                                                                 ToLongFunction<? super T> timestampFn,
+                                                                 Collector<? super T, A, R> collector,
+                                                                 Consumer<? super WindowResult<Object, R>> sink) {
+        return new WindowAggregator<>(spec, timestampFn, null, collector, sink);
+    }
+
+    @Override
+    public void accept(T event) {
+        final long timestamp = timestampFn.applyAsLong(event);
+        final Object key = keyFn == null ? SINGLE_KEY : keyFn.apply(event);
+        if (!state.add(key, event, timestamp, watermark())) {
+            droppedLateEvents++;
+        }
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+            state.fire(watermark());
+        }
+    }
+
+    /**
+     * 外部推进水位线，用于数据源空闲时让窗口按时关闭
+     *
+     * @param epochMillis 当前时间，通常来自Clock.millis()
+     */
+    public void advanceTo(long epochMillis) {
+        if (epochMillis > maxTimestamp) {
+            maxTimestamp = epochMillis;
+            state.fire(watermark());
+        }
+    }
+
+    /**
+     * 关闭并输出所有未关闭的窗口，流结束时调用
+     */
+    public void flush() {
+        state.fire(Long.MAX_VALUE);
+    }
+
+    public long getDroppedLateEvents() {
+        return droppedLateEvents;
+    }
+
+    private long watermark() {
+        return maxTimestamp == Long.MIN_VALUE ? Long.MIN_VALUE : maxTimestamp - allowedLateness;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void emit(Object key, long start, long end, A acc) {
+        final K outKey = key == SINGLE_KEY ? null : (K) key;
+        sink.accept(new WindowResult<>(outKey, new Window(start, end), finisher.apply(acc)));
+    }
+
+    private interface State {
+
+        /**
+         * @return 事件至少落入一个未关闭的窗口时返回true
+         */
+        boolean add(Object key, Object event, long timestamp, long watermark);
+
+        void fire(long watermark);
+    }
+
+    /**
+     * 滚动/滑动窗口。窗口编号 = floorDiv(当地时间, slide)，
+     * 未关闭的窗口数量不超过 (size + lateness) / slide + 1，所以用定长的环形数组按编号取模存放。
+     */
+    private final class AlignedState implements State {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final long size;
+
+        private final long slide;
+
+        private final ZoneOffsetCache offsets;
+
+        private final long[] slotIndex;
+
+        private final Map<Object, A>[] slotAggregates;
+
+        private int liveWindows;
+
+        private long minOpenIndex;
+
+        @SuppressWarnings("unchecked")
+        AlignedState(WindowSpec spec) {
+            this.size = spec.getSizeMillis();
+            this.slide = spec.getSlideMillis();
+            this.offsets = new ZoneOffsetCache(spec.getZone());
+            final long capacity = (size + spec.getAllowedLatenessMillis()) / slide + 2;
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("too many concurrently open windows: " + capacity);
+            }
+            this.slotIndex = new long[(int) capacity];
+            this.slotAggregates = new Map[(int) capacity];
+            Arrays.fill(slotIndex, EMPTY);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean add(Object key, Object event, long timestamp, long watermark) {
+            final long local = offsets.toLocal(timestamp);
+            final long watermarkLocal = watermark == Long.MIN_VALUE ? Long.MIN_VALUE : offsets.toLocal(watermark);
+            final long last = Math.floorDiv(local, slide);
+            final long first = Math.floorDiv(local - size, slide) + 1;
+            boolean accepted = false;
+            for (long index = first; index <= last; index++) {
+                if (index * slide + size <= watermarkLocal) {
+                    // 该窗口已经关闭
+                    continue;
+                }
+                final Map<Object, A> aggregates = openWindow(index);
+                A acc = aggregates.get(key);
+                if (acc == null) {
+                    acc = supplier.get();
+                    aggregates.put(key, acc);
+                }
+                ((BiConsumer<A, Object>) accumulator).accept(acc, event);
+                accepted = true;
+            }
+            return accepted;
+        }
+
+        @Override
+        public void fire(long watermark) {
+            final long watermarkLocal = watermark == Long.MAX_VALUE ? Long.MAX_VALUE : offsets.toLocal(watermark);
+            while (liveWindows > 0) {
+                if (slotIndex[slot(minOpenIndex)] != minOpenIndex) {
+                    // 空的下标直接跳到最小的存活窗口，时间戳大幅跳跃时不逐个经过中间的空下标
+                    minOpenIndex = minLiveIndex();
+                }
+                if (minOpenIndex * slide + size > watermarkLocal) {
+                    break;
+                }
+                close(slot(minOpenIndex));
+                minOpenIndex++;
+            }
+        }
+
+        /**
+         * 存活窗口中最小的下标，槽位数只与窗口大小和滑动步长的比值有关，直接扫描
+         */
+        private long minLiveIndex() {
+            long min = Long.MAX_VALUE;
+            for (long index : slotIndex) {
+                if (index != EMPTY && index < min) {
+                    min = index;
+                }
+            }
+            return min;
+        }
+
+        private Map<Object, A> openWindow(long index) {
+            final int slot = slot(index);
+            if (slotIndex[slot] == index) {
+                return slotAggregates[slot];
+            }
+            if (slotIndex[slot] != EMPTY) {
+                // 正常情况下容量足够不会发生，发生时先输出更早的窗口再复用槽位
+                close(slot);
+            }
+            if (liveWindows == 0 || index < minOpenIndex) {
+                minOpenIndex = index;
+            }
+            slotIndex[slot] = index;
+            if (slotAggregates[slot] == null) {
+                slotAggregates[slot] = new HashMap<>();
+            }
+            liveWindows++;
+            return slotAggregates[slot];
+        }
+
+        private void close(int slot) {
+            final long localStart = slotIndex[slot] * slide;
+            final long start = offsets.toUtc(localStart);
+            final long end = offsets.toUtc(localStart + size);
+            final Map<Object, A> aggregates = slotAggregates[slot];
+            aggregates.forEach((key, acc) -> emit(key, start, end, acc));
+            aggregates.clear();
+            slotIndex[slot] = EMPTY;
+            liveWindows--;
+        }
+
+        private int slot(long index) {
+            return (int) Math.floorMod(index, (long) slotIndex.length);
+        }
+    }
+
+    private static final class Session<A> {
+        long start;
+        long last;
+        A acc;
+
+        Session(long start, long last, A acc) {
+            this.start = start;
+            this.last = last;
+            this.acc = acc;
+        }
+    }
+
+    /**
+     * 会话窗口。每个key维护按开始时间排序的会话列表，乱序事件可能把两个会话连成一个，此时用combiner合并聚合值。
+     */
+    private final class SessionState implements State {
+
+        private final long gap;
+
+        private final Map<Object, List<Session<A>>> sessions = new HashMap<>();
+
+        /**
+         * 所有未关闭会话中最早的结束时间，水位线没有越过它时无需扫描
+         */
+        private long earliestEnd = Long.MAX_VALUE;
+
+        SessionState(long gap) {
+            this.gap = gap;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean add(Object key, Object event, long timestamp, long watermark) {
+            List<Session<A>> list = sessions.get(key);
+            if (list == null) {
+                list = new ArrayList<>(2);
+                sessions.put(key, list);
+            }
+            Session<A> target = null;
+            final ListIterator<Session<A>> it = list.listIterator();
+            while (it.hasNext()) {
+                final Session<A> session = it.next();
+                if (timestamp + gap <= session.start) {
+                    // 之后的会话开始得更晚，不会再相交；新会话插入到它前面
+                    it.previous();
+                    break;
+                }
+                if (timestamp >= session.last + gap) {
+                    continue;
+                }
+                if (target == null) {
+                    target = session;
+                } else {
+                    // 新事件填补了两个会话之间的空隙，合并
+                    target.acc = combiner.apply(target.acc, session.acc);
+                    target.start = Math.min(target.start, session.start);
+                    target.last = Math.max(target.last, session.last);
+                    it.remove();
+                }
+            }
+            if (target == null) {
+                if (timestamp + gap <= watermark) {
+                    return false;
+                }
+                target = new Session<>(timestamp, timestamp, supplier.get());
+                it.add(target);
+            } else {
+                target.start = Math.min(target.start, timestamp);
+                target.last = Math.max(target.last, timestamp);
+            }
+            ((BiConsumer<A, Object>) accumulator).accept(target.acc, event);
+            earliestEnd = Math.min(earliestEnd, target.last + gap);
+            return true;
+        }
+
+        @Override
+        public void fire(long watermark) {
+            if (watermark < earliestEnd) {
+                return;
+            }
+            final List<Object> closedKeys = new ArrayList<>();
+            final List<Session<A>> closedSessions = new ArrayList<>();
+            long nextEnd = Long.MAX_VALUE;
+            for (Iterator<Map.Entry<Object, List<Session<A>>>> it = sessions.entrySet().iterator(); it.hasNext(); ) {
+                final Map.Entry<Object, List<Session<A>>> entry = it.next();
+                final List<Session<A>> list = entry.getValue();
+                for (Iterator<Session<A>> sit = list.iterator(); sit.hasNext(); ) {
+                    final Session<A> session = sit.next();
+                    final long end = session.last + gap;
+                    if (end <= watermark) {
+                        closedKeys.add(entry.getKey());
+                        closedSessions.add(session);
+                        sit.remove();
+                    } else {
+                        nextEnd = Math.min(nextEnd, end);
+                    }
+                }
+                if (list.isEmpty()) {
+                    it.remove();
+                }
+            }
+            earliestEnd = nextEnd;
+            // 按结束时间顺序输出
+            final Integer[] order = new Integer[closedSessions.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> closedSessions.get(i).last));
+            for (Integer i : order) {
+                final Session<A> session = closedSessions.get(i);
+                emit(closedKeys.get(i), session.start, session.last + gap, session.acc);
+            }
+        }
+    }
+}
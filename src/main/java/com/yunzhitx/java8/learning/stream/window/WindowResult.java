@@ -0,0 +1,41 @@
+package com.yunzhitx.java8.learning.stream.window;
+
+/**
+ * ClassName: WindowResult <br/>
+ * Description: 窗口关闭时输出的聚合结果<br/>
+ * date: 2026/10/19 10:15<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class WindowResult<K, R> {
+
+    private final K key;
+
+    private final Window window;
+
+    private final R value;
+
+    public WindowResult(K key, Window window, R value) {
+        this.key = key;
+        this.window = window;
+        this.value = value;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public Window getWindow() {
+        return window;
+    }
+
+    public R getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "WindowResult(key=" + key + ", window=" + window + ", value=" + value + ")";
+    }
+}
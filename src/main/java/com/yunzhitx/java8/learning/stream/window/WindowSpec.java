@@ -0,0 +1,135 @@
+package com.yunzhitx.java8.learning.stream.window;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * ClassName: WindowSpec <br/>
+ * Description: 窗口定义，包括滚动窗口、滑动窗口和会话窗口<br/>
+ * date: 2026/10/19 10:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class WindowSpec {
+
+    enum Type {
+        /**
+         * 按固定时长对齐的窗口（滚动窗口是步长等于窗口大小的滑动窗口）
+         */
+        ALIGNED,
+        /**
+         * 按不活跃间隔切分的会话窗口
+         */
+        SESSION
+    }
+
+    private final Type type;
+
+    private final long sizeMillis;
+
+    private final long slideMillis;
+
+    private final ZoneId zone;
+
+    private final long allowedLatenessMillis;
+
+    private WindowSpec(Type type, long sizeMillis, long slideMillis, ZoneId zone, long allowedLatenessMillis) {
+        this.type = type;
+        this.sizeMillis = sizeMillis;
+        this.slideMillis = slideMillis;
+        this.zone = zone;
+        this.allowedLatenessMillis = allowedLatenessMillis;
+    }
+
+    /**
+     * 滚动窗口：窗口之间首尾相接、互不重叠
+     *
+     * @param size 窗口大小
+     * @return 窗口定义
+     */
+    public static WindowSpec tumbling(Duration size) {
+        final long sizeMillis = positiveMillis(size, "size");
+        return new WindowSpec(Type.ALIGNED, sizeMillis, sizeMillis, null, 0);
+    }
+
+    /**
+     * 滑动窗口：每隔slide开启一个大小为size的窗口，一个事件会落入size/slide个窗口
+     *
+     * @param size  窗口大小
+     * @param slide 滑动步长
+     * @return 窗口定义
+     */
+    public static WindowSpec sliding(Duration size, Duration slide) {
+        final long sizeMillis = positiveMillis(size, "size");
+        final long slideMillis = positiveMillis(slide, "slide");
+        if (slideMillis > sizeMillis) {
+            throw new IllegalArgumentException("slide must not be greater than size");
+        }
+        return new WindowSpec(Type.ALIGNED, sizeMillis, slideMillis, null, 0);
+    }
+
+    /**
+     * 会话窗口：同一个key的相邻事件间隔小于gap时归为同一个窗口
+     *
+     * @param gap 不活跃间隔
+     * @return 窗口定义
+     */
+    public static WindowSpec session(Duration gap) {
+        return new WindowSpec(Type.SESSION, positiveMillis(gap, "gap"), 0, null, 0);
+    }
+
+    /**
+     * 按指定时区对齐窗口边界，例如按北京时间的自然日切分，而不是按UTC的0点切分
+     *
+     * @param zone 时区
+     * @return 新的窗口定义
+     */
+    public WindowSpec withZone(ZoneId zone) {
+        if (type == Type.SESSION) {
+            throw new IllegalStateException("session windows are not aligned to a zone");
+        }
+        return new WindowSpec(type, sizeMillis, slideMillis, zone, allowedLatenessMillis);
+    }
+
+    /**
+     * 允许的乱序延迟，水位线 = 已见到的最大时间戳 - allowedLateness
+     *
+     * @param allowedLateness 允许的延迟
+     * @return 新的窗口定义
+     */
+    public WindowSpec withAllowedLateness(Duration allowedLateness) {
+        if (allowedLateness.isNegative()) {
+            throw new IllegalArgumentException("allowedLateness must not be negative");
+        }
+        return new WindowSpec(type, sizeMillis, slideMillis, zone, allowedLateness.toMillis());
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    long getSizeMillis() {
+        return sizeMillis;
+    }
+
+    long getSlideMillis() {
+        return slideMillis;
+    }
+
+    ZoneId getZone() {
+        return zone;
+    }
+
+    long getAllowedLatenessMillis() {
+        return allowedLatenessMillis;
+    }
+
+    private static long positiveMillis(Duration duration, String name) {
+        final long millis = duration.toMillis();
+        if (millis <= 0) {
+            throw new IllegalArgumentException(name + " must be at least 1ms");
+        }
+        return millis;
+    }
+}
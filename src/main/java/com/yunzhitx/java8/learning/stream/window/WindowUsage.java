@@ -0,0 +1,134 @@
+package com.yunzhitx.java8.learning.stream.window;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: WindowUsage <br/>
+ * Description: 时间窗口聚合的用法<br/>
+ * date: 2026/10/19 11:20<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public class WindowUsage {
+
+    public static void main(String[] args) {
+        // 滚动窗口
+        tumbling();
+        // 滑动窗口
+        sliding();
+        // 会话窗口
+        session();
+        // 按时区的自然日对齐
+        dayAligned();
+    }
+
+    private static void tumbling() {
+        System.out.println("tumbling");
+        final List<WindowResult<String, Long>> results = new ArrayList<>();
+        // 1分钟的滚动窗口，允许10秒的乱序
+        final WindowAggregator<Event, String, ?, Long> aggregator = WindowAggregator.keyed(
+                WindowSpec.tumbling(Duration.ofMinutes(1)).withAllowedLateness(Duration.ofSeconds(10)),
+                e -> e.getTime().toEpochMilli(),
+                Event::getName,
+                Collectors.counting(),
+                results::add
+        );
+        Stream.of(
+                new Event("a", "2020-01-01T00:00:01Z"),
+                new Event("a", "2020-01-01T00:00:30Z"),
+                new Event("b", "2020-01-01T00:00:59Z"),
+                new Event("a", "2020-01-01T00:01:05Z"),
+                // 乱序但在允许延迟以内，仍然计入第一个窗口
+                new Event("a", "2020-01-01T00:00:58Z"),
+                new Event("a", "2020-01-01T00:01:30Z"),
+                // 超出允许延迟，被丢弃
+                new Event("a", "2020-01-01T00:00:50Z")
+        ).forEach(aggregator);
+        aggregator.flush();
+        results.forEach(System.out::println);
+        assert 3 == results.get(0).getValue();
+        assert 1 == aggregator.getDroppedLateEvents();
+    }
+
+    private static void sliding() {
+        System.out.println("sliding");
+        // 窗口大小10秒，每5秒滑动一次，每个事件会落入2个窗口
+        final WindowAggregator<Event, Object, ?, Long> aggregator = WindowAggregator.of(
+                WindowSpec.sliding(Duration.ofSeconds(10), Duration.ofSeconds(5)),
+                e -> e.getTime().toEpochMilli(),
+                Collectors.counting(),
+                System.out::println
+        );
+        Stream.of(
+                new Event("a", "2020-01-01T00:00:01Z"),
+                new Event("a", "2020-01-01T00:00:06Z"),
+                new Event("a", "2020-01-01T00:00:12Z")
+        ).forEach(aggregator);
+        aggregator.flush();
+    }
+
+    private static void session() {
+        System.out.println("session");
+        // 同一用户两次操作间隔不超过30秒视为同一个会话
+        final WindowAggregator<Event, String, ?, List<Instant>> aggregator = WindowAggregator.keyed(
+                WindowSpec.session(Duration.ofSeconds(30)),
+                e -> e.getTime().toEpochMilli(),
+                Event::getName,
+                Collectors.mapping(Event::getTime, Collectors.toList()),
+                System.out::println
+        );
+        Stream.of(
+                new Event("a", "2020-01-01T00:00:00Z"),
+                new Event("a", "2020-01-01T00:00:20Z"),
+                new Event("b", "2020-01-01T00:00:25Z"),
+                new Event("a", "2020-01-01T00:01:30Z")
+        ).forEach(aggregator);
+        aggregator.flush();
+    }
+
+    private static void dayAligned() {
+        System.out.println("dayAligned");
+        // 按北京时间的自然日统计，窗口从当地0点开始，而不是UTC的0点
+        final WindowAggregator<Event, Object, ?, Long> aggregator = WindowAggregator.of(
+                WindowSpec.tumbling(Duration.ofDays(1)).withZone(ZoneId.of("Asia/Shanghai")),
+                e -> e.getTime().toEpochMilli(),
+                Collectors.counting(),
+                result -> {
+                    System.out.println(result);
+                    assert "2019-12-31T16:00:00Z".equals(result.getWindow().getStartInstant().toString());
+                }
+        );
+        Stream.of(
+                new Event("a", "2019-12-31T16:00:00Z"),
+                new Event("a", "2020-01-01T15:59:59Z")
+        ).forEach(aggregator);
+        aggregator.flush();
+    }
+
+    private static class Event {
+
+        private final String name;
+
+        private final Instant time;
+
+        Event(String name, String time) {
+            this.name = name;
+            this.time = Instant.parse(time);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Instant getTime() {
+            return time;
+        }
+    }
+}
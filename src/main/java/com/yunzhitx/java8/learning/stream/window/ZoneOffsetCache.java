@@ -0,0 +1,85 @@
+package com.yunzhitx.java8.learning.stream.window;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * ClassName: ZoneOffsetCache <br/>
+ * Description: 缓存当前所在区间的时区偏移量，只有跨越夏令时等切换点时才重新查询ZoneRules，
+ * 避免每个事件都创建Instant/ZonedDateTime<br/>
+ * date: 2026/10/19 10:31<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+final class ZoneOffsetCache {
+
+    private final ZoneId zone;
+
+    private final ZoneRules rules;
+
+    /**
+     * 缓存的偏移量在[validFrom, validUntil)之间有效
+     */
+    private long validFrom = Long.MAX_VALUE;
+
+    private long validUntil = Long.MIN_VALUE;
+
+    private long offsetMillis;
+
+    ZoneOffsetCache(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone == null ? null : zone.getRules();
+    }
+
+    /**
+     * 获取UTC时间戳对应的时区偏移毫秒数
+     */
+    long offsetMillis(long epochMillis) {
+        if (rules == null) {
+            return 0;
+        }
+        if (epochMillis < validFrom || epochMillis >= validUntil) {
+            refresh(epochMillis);
+        }
+        return offsetMillis;
+    }
+
+    /**
+     * UTC时间戳转为当地时间轴上的毫秒数
+     */
+    long toLocal(long epochMillis) {
+        return epochMillis + offsetMillis(epochMillis);
+    }
+
+    /**
+     * 当地时间轴上的毫秒数转回UTC时间戳，只在窗口关闭时调用，允许有对象分配
+     */
+    long toUtc(long localMillis) {
+        if (rules == null) {
+            return localMillis;
+        }
+        final long seconds = Math.floorDiv(localMillis, 1000L);
+        final int nanos = (int) Math.floorMod(localMillis, 1000L) * 1_000_000;
+        final LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        return localDateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private void refresh(long epochMillis) {
+        final Instant instant = Instant.ofEpochMilli(epochMillis);
+        offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        if (rules.isFixedOffset()) {
+            validFrom = Long.MIN_VALUE;
+            validUntil = Long.MAX_VALUE;
+            return;
+        }
+        final ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+        final ZoneOffsetTransition next = rules.nextTransition(instant);
+        validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000L;
+        validUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000L;
+    }
+}
@@ -0,0 +1,324 @@
+package com.yunzhitx.java8.learning.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ClassName: HashedWheelTimer <br/>
+ * Description: 单线程的哈希时间轮定时器。<br/>
+ * 时间被切分为固定长度的tick，每个槽位是一个双向链表，到期时间按tick取模放入槽位，超过一圈的记录剩余圈数。
+ * 添加和取消都是O(1)：调用线程只把任务压入无锁栈，由工作线程统一挂到槽位或从槽位摘除，
+ * 每个定时任务只分配一个Timeout对象。精度为一个tick，适合大量、很少真正到期的超时控制。<br/>
+ * 到期任务在工作线程上执行，必须很轻，耗时的工作应提交到其它线程池。<br/>
+ * date: 2026/10/19 17:10<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 1.8
+ */
+public final class HashedWheelTimer {
+
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final Bucket[] wheel;
+
+    private final long startTime;
+
+    /**
+     * 新加入的定时任务，调用线程压栈，工作线程整体取走
+     */
+    private final AtomicReference<Timeout> pending = new AtomicReference<>();
+
+    /**
+     * 已取消、需要从槽位摘除的定时任务
+     */
+    private final AtomicReference<Timeout> cancelled = new AtomicReference<>();
+
+    private final Thread worker;
+
+    private volatile boolean stopped;
+
+    /**
+     * 工作线程已经处理到的tick，只有工作线程写
+     */
+    private long tick;
+
+    /**
+     * @param tickDuration  每个tick的时长，即定时精度
+     * @param unit          tickDuration的单位
+     * @param ticksPerWheel 槽位数，会向上取整为2的幂
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("ticksPerWheel must be in (0, 2^30]: " + ticksPerWheel);
+        }
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        final int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, "hashed-wheel-timer-" + INSTANCE_COUNTER.incrementAndGet());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 进程内共享的定时器，精度10ms，512个槽位
+     */
+    public static HashedWheelTimer shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * 添加定时任务
+     *
+     * @param task  到期时在工作线程上执行的任务
+     * @param delay 延迟
+     * @param unit  延迟的单位
+     * @return 可用于取消的句柄
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("timer has been stopped");
+        }
+        // 相对startTime的到期时间，delay很大时（例如Long.MAX_VALUE）饱和到Long.MAX_VALUE，避免溢出成负数立即到期
+        final long elapsed = System.nanoTime() - startTime;
+        final long delayNanos = unit.toNanos(Math.max(delay, 0));
+        final long deadline = delayNanos >= Long.MAX_VALUE - elapsed ? Long.MAX_VALUE : elapsed + delayNanos;
+        final Timeout timeout = new Timeout(this, task, deadline);
+        push(pending, timeout, true);
+        return timeout;
+    }
+
+    /**
+     * 停止工作线程，未到期的任务不再执行
+     */
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!stopped) {
+            final long deadline = waitForNextTick();
+            if (deadline < 0) {
+                return;
+            }
+            final Bucket bucket = wheel[(int) (tick & mask)];
+            removeCancelled();
+            transferPending();
+            bucket.expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * @return 当前tick的截止时间（相对startTime），被停止时返回-1
+     */
+    private long waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        for (; ; ) {
+            final long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) {
+                return deadline;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+            if (stopped) {
+                return -1;
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout = pending.getAndSet(null);
+        while (timeout != null) {
+            final Timeout next = timeout.nextPending;
+            timeout.nextPending = null;
+            if (timeout.state == Timeout.ST_INIT) {
+                final long calculated = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                // 已经过期的放到当前槽位，本轮就执行
+                final long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout = cancelled.getAndSet(null);
+        while (timeout != null) {
+            final Timeout next = timeout.nextCancelled;
+            timeout.nextCancelled = null;
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private static void push(AtomicReference<Timeout> stack, Timeout timeout, boolean pendingLink) {
+        for (; ; ) {
+            final Timeout head = stack.get();
+            if (pendingLink) {
+                timeout.nextPending = head;
+            } else {
+                timeout.nextCancelled = head;
+            }
+            if (stack.compareAndSet(head, timeout)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+
+        private static final int ST_CANCELLED = 1;
+
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private volatile int state;
+
+        private long remainingRounds;
+
+        /**
+         * 以下链接字段由工作线程或对应的无锁栈维护
+         */
+        private Timeout next;
+
+        private Timeout prev;
+
+        private Bucket bucket;
+
+        private Timeout nextPending;
+
+        private Timeout nextCancelled;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消定时任务
+         *
+         * @return 取消成功返回true，已到期或已取消返回false
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            push(timer.cancelled, this, false);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 槽位，只被工作线程访问的双向链表
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            final Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private static final class SharedHolder {
+        private static final HashedWheelTimer INSTANCE = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 512);
+    }
+}
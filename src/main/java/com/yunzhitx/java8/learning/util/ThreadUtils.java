@@ -1,5 +1,10 @@
 package com.yunzhitx.java8.learning.util;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * ClassName: ThreadUtils <br/>
  * Description: <br/>
@@ -17,4 +22,27 @@ public class ThreadUtils {
             e.printStackTrace();
         }
     }
+
+    /**
+     * 当前线程累计分配的字节数，用于在benchmark中统计内存分配。
+     * HotSpot扩展的ThreadMXBean才能统计，不支持时返回-1
+     */
+    public static long allocatedBytes() {
+        return allocatedBytes(Collections.singletonList(Thread.currentThread()));
+    }
+
+    /**
+     * 多个线程累计分配的字节数之和，已经结束的线程不计入；不支持统计时返回-1
+     */
+    public static long allocatedBytes(Collection<Thread> threads) {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        long total = 0;
+        for (Thread thread : threads) {
+            total += Math.max(0, ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(thread.getId()));
+        }
+        return total;
+    }
 }
@@ -0,0 +1,51 @@
+package com.yunzhitx.java8.learning.executor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ClassName: BlockingExecutors <br/>
+ * Description: 执行阻塞任务的线程池工厂，Java 21版本。<br/>
+ * 编译到multi-release jar的META-INF/versions/21下，公开的方法签名必须与src/main/java中的Java 8版本保持一致。
+ * 每个任务使用一个新的虚拟线程，任务阻塞时虚拟线程从载体线程上卸载，不占用平台线程。<br/>
+ * date: 2026/10/20 11:45<br/>
+ *
+ * @author 陈荣祥 <br/>
+ * @since JDK 21
+ */
+public final class BlockingExecutors {
+
+    /**
+     * 平台线程池默认的最大线程数
+     */
+    public static final int DEFAULT_MAX_PLATFORM_THREADS = 256;
+
+    private BlockingExecutors() {
+    }
+
+    /**
+     * 适合大量阻塞任务的线程池：每个任务一个虚拟线程
+     *
+     * @param namePrefix 线程名前缀
+     */
+    public static ExecutorService newBlockingTaskExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix + "-", 0).factory());
+    }
+
+    /**
+     * 有上限的平台线程池，用于对比或者需要限制并发的场景
+     *
+     * @param namePrefix 线程名前缀
+     * @param maxThreads 最大线程数
+     */
+    public static ExecutorService newPlatformExecutor(String namePrefix, int maxThreads) {
+        return PlatformThreadPools.bounded(namePrefix, maxThreads);
+    }
+
+    /**
+     * 当前运行时加载的是否是虚拟线程版本
+     */
+    public static boolean isVirtualThreadMode() {
+        return true;
+    }
+}